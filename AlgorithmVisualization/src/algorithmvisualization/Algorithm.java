@@ -0,0 +1,15 @@
+package algorithmvisualization;
+
+/**
+ * Interface for algorithms visualized step by step in canvas.
+ *
+ * @author Murat AKIN
+ */
+public interface Algorithm {
+    public void prepare();
+    public void step();
+    public boolean isFinished();
+    public String report();
+    public int getSpeed();
+    public void setSpeed(int speed);
+}
@@ -1,10 +1,12 @@
 package algorithmvisualization;
 
 /**
- *  Two type of algorithm implemented in project. 
+ *  Types of algorithm implemented in project. 
  * 
  * @author Murat AKIN
  */
 public enum AlgorithmType {
-    KMEANS, NEAREST_NEIGHBOUR;
+    KMEANS, NEAREST_NEIGHBOUR, SPACE_FILLING_CURVE, K_NEAREST_NEIGHBOURS, KNN_GRAPH,
+    LOCAL_OUTLIER_FACTOR, DBSCAN, HIERARCHICAL_CLUSTERING, GAUSSIAN_MIXTURE,
+    K_MEDOIDS, MEAN_SHIFT, BISECTING_KMEANS;
 }
@@ -0,0 +1,196 @@
+package algorithmvisualization;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class contains anything about k nearest neighbours graph
+ * visualization.
+ *
+ * Every point is linked to its k nearest other points at a single step. Rows
+ * of graph are found by ball tree queries in parallel, see {@link KnnGraph}.
+ * Graph is kept in a {@link KnnGraphCache}, other algorithms use it as long as
+ * points do not change.
+ * If an overlay is given, edges of graph are drawn over canvas.
+ *
+ * @author Murat AKIN
+ */
+public class AllNearestNeighbours implements Algorithm {
+
+    /* Speed of visualization animation. */
+    private int speed = 150;
+
+    /* Number of neighbours of every point. */
+    private int k = 5;
+    /* Metric of distances between points. */
+    private Metric metric = Metric.EUCLIDEAN;
+    /* Number of threads that build tree and graph. */
+    private int parallelism = 1;
+
+    private double[] xs;
+    private double[] ys;
+
+    /* Graph of points, null until it is built. */
+    private KnnGraph graph;
+    private long buildNanos;
+    private KnnGraphCache graphCache = new KnnGraphCache();
+
+    /* Overlay that edges are drawn on, null if they are not drawn. */
+    private GraphOverlay overlay;
+
+    public AllNearestNeighbours(List<Drawable> shapes) {
+        loadPoints(shapes);
+    }
+
+    /**
+     * It prepares the environment for visualization.
+     */
+    @Override
+    public void prepare() {
+        graph = null;
+    }
+
+    /**
+     * It builds whole graph.
+     */
+    @Override
+    public void step() {
+        if (isFinished()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        graph = graphCache.get(xs, ys, k, metric, parallelism);
+        buildNanos = System.nanoTime() - start;
+
+        if (overlay != null) {
+            overlay.setGraph(graph);
+        }
+    }
+
+    /**
+     * It returns execution of algorithm done or not.
+     */
+    @Override
+    public boolean isFinished() {
+        return graph != null;
+    }
+
+    /**
+     * It loads coordinates of all points in canvas.
+     */
+    private void loadPoints(List<Drawable> shapes) {
+        List<Drawable> points = new ArrayList<>();
+        for (Drawable shape : shapes) {
+            if (shape instanceof Point) {
+                points.add(shape);
+            }
+        }
+
+        xs = new double[points.size()];
+        ys = new double[points.size()];
+        for (int i = 0; i < xs.length; i++) {
+            xs[i] = points.get(i).getCenterX();
+            ys[i] = points.get(i).getCenterY();
+        }
+    }
+
+    /**
+     * It prepares and returns a report of last step as string.
+     */
+    @Override
+    public String report() {
+        StringBuilder strBuilder = new StringBuilder();
+
+        if (graph == null) {
+            strBuilder.append("\nPoints in graph: 0\n");
+            return strBuilder.toString();
+        }
+
+        int n = graph.getPointNumber();
+        int[] offsets = graph.getOffsets();
+        int[] neighbours = graph.getNeighbours();
+        int mutual = 0;
+        double kDistanceSum = 0;
+        double kDistanceMax = 0;
+        for (int i = 0; i < n; i++) {
+            for (int e = offsets[i]; e < offsets[i + 1]; e++) {
+                if (graph.isNeighbour(neighbours[e], i)) {
+                    mutual++;
+                }
+            }
+            kDistanceSum += graph.getKDistance(i);
+            kDistanceMax = Math.max(kDistanceMax, graph.getKDistance(i));
+        }
+
+        double millis = buildNanos / 1e6;
+        double perSecond = buildNanos > 0 ? n * 1e9 / buildNanos : 0;
+        strBuilder.append("\nPoints in graph: ").append(n).append("\n");
+        if (graphCache.isReused()) {
+            strBuilder.append("-->").append(graph.getK()).append(" nearest neighbours of every point are already found\n");
+        } else {
+            strBuilder.append("-->").append(graph.getK()).append(" nearest neighbours of every point found in ");
+            strBuilder.append(HelperMethods.scaleDouble(millis, 2)).append(" ms, ");
+            strBuilder.append((long) perSecond).append(" points per second\n");
+        }
+        strBuilder.append("\tEdges: ").append(graph.getEdgeNumber());
+        strBuilder.append(", mutual: ").append(mutual).append("\n");
+        strBuilder.append("\tDistance to k-th neighbour, mean: ");
+        strBuilder.append(HelperMethods.scaleDouble(n > 0 ? kDistanceSum / n : 0, 2));
+        strBuilder.append(", max: ").append(HelperMethods.scaleDouble(kDistanceMax, 2)).append("\n");
+
+        return strBuilder.toString();
+    }
+
+    /**
+     * It returns graph built by last step, null if it is not built yet.
+     */
+    public KnnGraph getGraph() {
+        return graph;
+    }
+
+    /**
+     * It sets number of neighbours of every point.
+     */
+    public void setK(int k) {
+        this.k = Math.max(1, k);
+    }
+
+    /**
+     * It sets metric of distances between points.
+     */
+    public void setMetric(Metric metric) {
+        this.metric = metric;
+    }
+
+    /**
+     * It sets number of threads that build tree and graph.
+     */
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * It sets cache that graph is taken from and kept in.
+     */
+    public void setGraphCache(KnnGraphCache graphCache) {
+        this.graphCache = graphCache;
+    }
+
+    /**
+     * It sets overlay that edges of graph are drawn on, null for none.
+     */
+    public void setOverlay(GraphOverlay overlay) {
+        this.overlay = overlay;
+    }
+
+    @Override
+    public int getSpeed() {
+        return speed;
+    }
+
+    @Override
+    public void setSpeed(int speed) {
+        this.speed = speed;
+    }
+}
@@ -0,0 +1,478 @@
+package algorithmvisualization;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * This class is a static ball tree built once over point coordinates under a
+ * {@link Metric}.
+ *
+ * Every node keeps a ball, the mean of its points and the largest distance
+ * of them to it, so a query skips a node when the ball is farther than the
+ * best point found. Ranges are split in halves at the median of their wider
+ * side. Shape of tree only depends on number of points, node i has children
+ * 2i + 1 and 2i + 2, so halves are built by different threads without any
+ * locking and tree is same for every parallelism.
+ *
+ * Queries keep no state in tree, many threads can query at the same time.
+ * Excluded points of nearest queries are kept by caller in arrays given to
+ * {@link #exclude}, so a single tree serves many independent searches.
+ *
+ * @author Murat AKIN
+ */
+public class BallTree {
+
+    /* Largest number of points in a leaf. */
+    private static final int LEAF_SIZE = 8;
+
+    /* Ranges smaller than this are built by a single task. */
+    private static final int MIN_TASK_SIZE = 16384;
+
+    private final double[] xs;
+    private final double[] ys;
+    private final Metric metric;
+
+    /* Points of node n are order[lows[n]] .. order[highs[n] - 1]. */
+    private final int[] order;
+    private final int[] lows;
+    private final int[] highs;
+
+    /* Ball of each node. */
+    private final double[] centerXs;
+    private final double[] centerYs;
+    private final double[] radii;
+
+    /* Leaf that contains each point. */
+    private final int[] leaves;
+
+    public BallTree(double[] xs, double[] ys, Metric metric, int parallelism) {
+        this.xs = xs;
+        this.ys = ys;
+        this.metric = metric;
+
+        int n = xs.length;
+        order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        leaves = new int[n];
+
+        int depth = 0;
+        while ((n + (1 << depth) - 1) >> depth > LEAF_SIZE) {
+            depth++;
+        }
+        int capacity = (1 << (depth + 1)) - 1;
+        lows = new int[capacity];
+        highs = new int[capacity];
+        centerXs = new double[capacity];
+        centerYs = new double[capacity];
+        radii = new double[capacity];
+
+        if (n == 0) {
+            return;
+        }
+
+        ForkJoinPool pool = ParallelBlocks.pool(parallelism);
+        if (pool == null || n < 2 * MIN_TASK_SIZE) {
+            build(0, 0, n);
+        } else {
+            pool.invoke(new BuildTask(0, 0, n));
+        }
+    }
+
+    /**
+     * It builds subtree of given node over given range, halves of large
+     * ranges are built by separate tasks.
+     */
+    private class BuildTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int node;
+        private final int low;
+        private final int high;
+
+        BuildTask(int node, int low, int high) {
+            this.node = node;
+            this.low = low;
+            this.high = high;
+        }
+
+        @Override
+        protected void compute() {
+            if (high - low < 2 * MIN_TASK_SIZE) {
+                build(node, low, high);
+                return;
+            }
+
+            int middle = split(node, low, high);
+            invokeAll(new BuildTask(2 * node + 1, low, middle),
+                    new BuildTask(2 * node + 2, middle, high));
+        }
+    }
+
+    private void build(int node, int low, int high) {
+        if (high - low <= LEAF_SIZE) {
+            makeNode(node, low, high);
+            for (int k = low; k < high; k++) {
+                leaves[order[k]] = node;
+            }
+            return;
+        }
+
+        int middle = split(node, low, high);
+        build(2 * node + 1, low, middle);
+        build(2 * node + 2, middle, high);
+    }
+
+    /**
+     * It makes ball of node and splits its range at the median of wider side.
+     *
+     * @return first position of right half.
+     */
+    private int split(int node, int low, int high) {
+        makeNode(node, low, high);
+
+        double minX = Double.MAX_VALUE, maxX = -Double.MAX_VALUE;
+        double minY = Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+        for (int k = low; k < high; k++) {
+            minX = Math.min(minX, xs[order[k]]);
+            maxX = Math.max(maxX, xs[order[k]]);
+            minY = Math.min(minY, ys[order[k]]);
+            maxY = Math.max(maxY, ys[order[k]]);
+        }
+
+        int middle = (low + high) >>> 1;
+        select(low, high - 1, middle, maxX - minX >= maxY - minY ? xs : ys);
+        return middle;
+    }
+
+    private void makeNode(int node, int low, int high) {
+        lows[node] = low;
+        highs[node] = high;
+
+        double sumX = 0, sumY = 0;
+        for (int k = low; k < high; k++) {
+            sumX += xs[order[k]];
+            sumY += ys[order[k]];
+        }
+        double centerX = sumX / (high - low);
+        double centerY = sumY / (high - low);
+
+        double radius = 0;
+        for (int k = low; k < high; k++) {
+            radius = Math.max(radius, metric.distance(centerX, centerY, xs[order[k]], ys[order[k]]));
+        }
+
+        centerXs[node] = centerX;
+        centerYs[node] = centerY;
+        radii[node] = radius;
+    }
+
+    /**
+     * It rearranges order[left..right] so that k-th position holds the point
+     * that would be there if range was sorted by given coordinate.
+     */
+    private void select(int left, int right, int k, double[] coords) {
+        while (right > left) {
+            double pivot = coords[order[(left + right) >>> 1]];
+            int i = left, j = right;
+            while (i <= j) {
+                while (coords[order[i]] < pivot) {
+                    i++;
+                }
+                while (coords[order[j]] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    int tmp = order[i];
+                    order[i] = order[j];
+                    order[j] = tmp;
+                    i++;
+                    j--;
+                }
+            }
+
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    /**
+     * It finds points nearest to given position, as many as length of result
+     * array, and writes them to result nearest first. Distances are written
+     * to dists.
+     *
+     * @return number of points found, it is smaller than length of result
+     * only if tree has fewer points.
+     */
+    public int nearest(double x, double y, int[] result, double[] dists) {
+        return nearest(x, y, -1, result, dists);
+    }
+
+    /**
+     * It finds nearest points like {@link #nearest(double, double, int[], double[])},
+     * but given point is skipped, so nearest points of a point of tree can
+     * be found.
+     */
+    public int nearest(double x, double y, int excluded, int[] result, double[] dists) {
+        if (result.length == 0 || xs.length == 0) {
+            return 0;
+        }
+
+        // Result is kept as a max heap by distance while searching.
+        int found = searchNearest(0, x, y, excluded, result, dists, 0);
+
+        for (int end = found - 1; end > 0; end--) {
+            swap(result, dists, 0, end);
+            siftDown(result, dists, 0, end);
+        }
+        return found;
+    }
+
+    private int searchNearest(int node, double x, double y, int excluded, int[] result, double[] dists, int found) {
+        if (isLeaf(node)) {
+            for (int k = lows[node]; k < highs[node]; k++) {
+                int i = order[k];
+                if (i == excluded) {
+                    continue;
+                }
+
+                double dist = metric.distance(x, y, xs[i], ys[i]);
+                if (found < result.length) {
+                    result[found] = i;
+                    dists[found] = dist;
+                    siftUp(result, dists, found);
+                    found++;
+                } else if (dist < dists[0]) {
+                    result[0] = i;
+                    dists[0] = dist;
+                    siftDown(result, dists, 0, found);
+                }
+            }
+            return found;
+        }
+
+        int near = 2 * node + 1;
+        int far = 2 * node + 2;
+        double nearDist = ballDistance(near, x, y);
+        double farDist = ballDistance(far, x, y);
+        if (farDist < nearDist) {
+            near = 2 * node + 2;
+            far = 2 * node + 1;
+            double tmp = nearDist;
+            nearDist = farDist;
+            farDist = tmp;
+        }
+
+        if (found < result.length || nearDist < dists[0]) {
+            found = searchNearest(near, x, y, excluded, result, dists, found);
+        }
+        if (found < result.length || farDist < dists[0]) {
+            found = searchNearest(far, x, y, excluded, result, dists, found);
+        }
+        return found;
+    }
+
+    /**
+     * It finds all points whose distance to given position is not more than
+     * radius.
+     *
+     * @return indexes of points, in no particular order.
+     */
+    public int[] within(double x, double y, double radius) {
+        int[] result = new int[16];
+        int found = 0;
+        if (xs.length == 0) {
+            return new int[0];
+        }
+
+        int[] stack = new int[64];
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            if (ballDistance(node, x, y) > radius) {
+                continue;
+            }
+
+            if (isLeaf(node)) {
+                for (int k = lows[node]; k < highs[node]; k++) {
+                    int i = order[k];
+                    if (metric.distance(x, y, xs[i], ys[i]) <= radius) {
+                        if (found == result.length) {
+                            result = Arrays.copyOf(result, 2 * found);
+                        }
+                        result[found++] = i;
+                    }
+                }
+            } else {
+                stack[top++] = 2 * node + 1;
+                stack[top++] = 2 * node + 2;
+            }
+        }
+
+        return Arrays.copyOf(result, found);
+    }
+
+    /**
+     * It marks a point excluded from {@link #nearest(double, double, boolean[], int[])}
+     * queries. Arrays belong to caller, excludedCounts has a count for every
+     * node.
+     *
+     * @return point was not excluded before or not.
+     */
+    public boolean exclude(int point, boolean[] excluded, int[] excludedCounts) {
+        if (excluded[point]) {
+            return false;
+        }
+
+        excluded[point] = true;
+        for (int node = leaves[point]; ; node = (node - 1) >>> 1) {
+            excludedCounts[node]++;
+            if (node == 0) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * It returns an array of excluded counts for {@link #exclude}.
+     */
+    public int[] newExcludedCounts() {
+        return new int[lows.length];
+    }
+
+    /**
+     * It finds the point nearest to given position among points not
+     * excluded. Subtrees whose all points are excluded are skipped. Ties go
+     * to the point with smaller index, same with a linear scan over points in
+     * index order.
+     *
+     * @return index of nearest point, -1 if all points are excluded.
+     */
+    public int nearest(double x, double y, boolean[] excluded, int[] excludedCounts) {
+        if (xs.length == 0 || excludedCounts[0] == xs.length) {
+            return -1;
+        }
+
+        Best best = new Best();
+        searchNearest(0, x, y, excluded, excludedCounts, best);
+        return best.point;
+    }
+
+    /**
+     * Best point found so far by a query and its distance.
+     */
+    private static class Best {
+
+        private int point = -1;
+        private double dist = Double.MAX_VALUE;
+    }
+
+    private void searchNearest(int node, double x, double y, boolean[] excluded, int[] excludedCounts, Best best) {
+        if (isLeaf(node)) {
+            for (int k = lows[node]; k < highs[node]; k++) {
+                int i = order[k];
+                if (excluded[i]) {
+                    continue;
+                }
+
+                double dist = metric.distance(x, y, xs[i], ys[i]);
+                if (dist < best.dist || (dist == best.dist && i < best.point)) {
+                    best.dist = dist;
+                    best.point = i;
+                }
+            }
+            return;
+        }
+
+        int left = 2 * node + 1;
+        int right = 2 * node + 2;
+        double leftDist = ballDistance(left, x, y);
+        double rightDist = ballDistance(right, x, y);
+
+        // Nearer child first, so farther one is pruned more often. Points at
+        // same distance are still searched, they may win the tie.
+        if (leftDist <= rightDist) {
+            visit(left, leftDist, x, y, excluded, excludedCounts, best);
+            visit(right, rightDist, x, y, excluded, excludedCounts, best);
+        } else {
+            visit(right, rightDist, x, y, excluded, excludedCounts, best);
+            visit(left, leftDist, x, y, excluded, excludedCounts, best);
+        }
+    }
+
+    private void visit(int node, double ballDist, double x, double y, boolean[] excluded, int[] excludedCounts, Best best) {
+        if (excludedCounts[node] < highs[node] - lows[node] && ballDist * (1 - 1e-12) <= best.dist) {
+            searchNearest(node, x, y, excluded, excludedCounts, best);
+        }
+    }
+
+    /**
+     * It returns a lower bound of distance between given position and points
+     * of node.
+     */
+    private double ballDistance(int node, double x, double y) {
+        return Math.max(0, metric.distance(x, y, centerXs[node], centerYs[node]) - radii[node]);
+    }
+
+    private boolean isLeaf(int node) {
+        return highs[node] - lows[node] <= LEAF_SIZE;
+    }
+
+    private static void siftUp(int[] heap, double[] keys, int k) {
+        while (k > 0) {
+            int parent = (k - 1) >>> 1;
+            if (keys[parent] >= keys[k]) {
+                return;
+            }
+            swap(heap, keys, parent, k);
+            k = parent;
+        }
+    }
+
+    private static void siftDown(int[] heap, double[] keys, int k, int size) {
+        while (true) {
+            int child = 2 * k + 1;
+            if (child >= size) {
+                return;
+            }
+            if (child + 1 < size && keys[child + 1] > keys[child]) {
+                child++;
+            }
+            if (keys[k] >= keys[child]) {
+                return;
+            }
+            swap(heap, keys, k, child);
+            k = child;
+        }
+    }
+
+    private static void swap(int[] heap, double[] keys, int a, int b) {
+        int tmp = heap[a];
+        heap[a] = heap[b];
+        heap[b] = tmp;
+        double tmpKey = keys[a];
+        keys[a] = keys[b];
+        keys[b] = tmpKey;
+    }
+
+    public Metric getMetric() {
+        return metric;
+    }
+
+    public double[] getXs() {
+        return xs;
+    }
+
+    public double[] getYs() {
+        return ys;
+    }
+}
@@ -0,0 +1,457 @@
+package algorithmvisualization;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class contains anything about bisecting K-Means algorithm
+ * visualization.
+ *
+ * Cluster shapes do not need to be placed in canvas, cluster shapes in canvas
+ * are replaced at first step. Algorithm starts with all points in a single
+ * cluster, and each step splits cluster with largest sum of squared
+ * distances (SSE) to its center in two by 2-means, until there are as many
+ * clusters as wanted. A split keeps cluster shape for one half and creates a
+ * new cluster shape in canvas for the other.
+ *
+ * Points of every cluster are a range of a single order of points, a split
+ * only reorders range of its cluster, so splits of different clusters are
+ * independent. Split of a cluster is found once, when cluster is created,
+ * then it waits until cluster has largest SSE. After each step only two new
+ * clusters need their splits, they are found concurrently. 2-means of a
+ * split is seeded by k-means++ with a seed of its own, so splits are same
+ * for every parallelism.
+ *
+ * @author Murat AKIN
+ */
+public class BisectingKMeans implements Algorithm {
+
+    /* Upper limit of Lloyd iterations of a 2-means split. */
+    private static final int MAX_SPLIT_ITERATION = 100;
+    /* Number of clusters listed in report. */
+    private static final int LISTED_CLUSTER_NUMBER = 20;
+
+    /* Speed of visualization animation. */
+    private int speed = 150;
+
+    /* Number of clusters wanted. */
+    private int clusterNumber = 16;
+    /* Seed of k-means++ seeding of splits. */
+    private long seed;
+    /* Number of threads that find splits. */
+    private int parallelism = 1;
+
+    private final List<Drawable> shapes;
+    private Point[] points;
+    private double[] xs;
+    private double[] ys;
+
+    /* Points of clusters, points of a cluster are consecutive. */
+    private int[] order;
+    private final List<Leaf> leaves = new ArrayList<>();
+    /* Number of clusters created so far, gives every cluster its own seed. */
+    private int createdNumber;
+    /* Cluster shapes in canvas are replaced by cluster of all points or not. */
+    private boolean placed;
+
+    /* Last split, index of split cluster and its SSE before split. */
+    private int splitLeaf = -1;
+    private double splitSse;
+    private double totalSse;
+
+    private int iteration;
+    private boolean finished;
+    private long stepNanos;
+
+    public BisectingKMeans(List<Drawable> shapes) {
+        this.shapes = shapes;
+        loadShapes(shapes);
+    }
+
+    /**
+     * It puts all points in a single cluster and finds its split. Canvas is
+     * not changed until first step.
+     */
+    @Override
+    public void prepare() {
+        order = new int[points.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        leaves.clear();
+        createdNumber = 0;
+        totalSse = 0;
+        splitLeaf = -1;
+        iteration = 0;
+        if (points.length == 0) {
+            // Without points there is no cluster to split, canvas is left as it is.
+            placed = true;
+            finished = true;
+            return;
+        }
+
+        Leaf root = new Leaf(0, points.length, createdNumber++);
+        double sumX = 0, sumY = 0;
+        for (int i = 0; i < points.length; i++) {
+            sumX += xs[i];
+            sumY += ys[i];
+        }
+        root.centerX = sumX / points.length;
+        root.centerY = sumY / points.length;
+        root.sse = sse(0, points.length, root.centerX, root.centerY);
+        root.cluster = new Cluster(root.centerX, root.centerY);
+        leaves.add(root);
+
+        totalSse = root.sse;
+        placed = false;
+        finished = leaves.size() >= clusterNumber;
+
+        findSplits(leaves);
+    }
+
+    /**
+     * It splits cluster with largest SSE and finds splits of its halves. At
+     * first step, cluster shapes in canvas are replaced by cluster of all
+     * points before.
+     */
+    @Override
+    public void step() {
+        long start = System.nanoTime();
+        if (!placed) {
+            placeRoot();
+        }
+        if (isFinished()) {
+            stepNanos = System.nanoTime() - start;
+            return;
+        }
+
+        splitLeaf = -1;
+        for (int l = 0; l < leaves.size(); l++) {
+            Leaf leaf = leaves.get(l);
+            if (leaf.splittable && (splitLeaf < 0 || leaf.sse > leaves.get(splitLeaf).sse)) {
+                splitLeaf = l;
+            }
+        }
+
+        if (splitLeaf < 0) {
+            // Every cluster has a single location, nothing is left to split.
+            finished = true;
+            stepNanos = System.nanoTime() - start;
+            return;
+        }
+
+        iteration++;
+        Leaf leaf = leaves.get(splitLeaf);
+        splitSse = leaf.sse;
+
+        Leaf right = new Leaf(leaf.middle, leaf.to, createdNumber++);
+        right.centerX = leaf.rightX;
+        right.centerY = leaf.rightY;
+        right.sse = leaf.rightSse;
+        right.cluster = new Cluster(right.centerX, right.centerY);
+        shapes.add(right.cluster);
+        leaves.add(right);
+
+        leaf.to = leaf.middle;
+        leaf.centerX = leaf.leftX;
+        leaf.centerY = leaf.leftY;
+        leaf.sse = leaf.leftSse;
+        leaf.seed = createdNumber++;
+        leaf.cluster.setLocation(leaf.centerX, leaf.centerY);
+
+        syncPoints(leaf);
+        syncPoints(right);
+        totalSse += leaf.sse + right.sse - splitSse;
+
+        List<Leaf> halves = new ArrayList<>();
+        halves.add(leaf);
+        halves.add(right);
+        findSplits(halves);
+
+        finished = leaves.size() >= clusterNumber;
+        stepNanos = System.nanoTime() - start;
+    }
+
+    /**
+     * It replaces cluster shapes in canvas by cluster of all points.
+     */
+    private void placeRoot() {
+        for (int i = shapes.size() - 1; i >= 0; i--) {
+            if (shapes.get(i) instanceof Cluster) {
+                shapes.remove(i);
+            }
+        }
+
+        Leaf root = leaves.get(0);
+        shapes.add(root.cluster);
+        syncPoints(root);
+        placed = true;
+    }
+
+    /**
+     * It finds splits of given clusters, every cluster is a task.
+     */
+    private void findSplits(final List<Leaf> pending) {
+        ParallelBlocks.run(ParallelBlocks.pool(parallelism), pending.size(), 1, new ParallelBlocks.BlockAction() {
+            @Override
+            public void run(int block, int from, int to) {
+                for (int l = from; l < to; l++) {
+                    findSplit(pending.get(l));
+                }
+            }
+        });
+    }
+
+    /**
+     * It splits points of given cluster in two by 2-means, seeded by
+     * k-means++, and orders range of cluster so first half comes first.
+     */
+    private void findSplit(Leaf leaf) {
+        int size = leaf.to - leaf.from;
+        leaf.splittable = false;
+        if (size < 2 || leaf.sse <= 0) {
+            return;
+        }
+
+        double[] subXs = new double[size];
+        double[] subYs = new double[size];
+        for (int s = 0; s < size; s++) {
+            subXs[s] = xs[order[leaf.from + s]];
+            subYs[s] = ys[order[leaf.from + s]];
+        }
+
+        double[] centerXs = new double[2];
+        double[] centerYs = new double[2];
+        new KMeansSeeder(subXs, subYs, seed + leaf.seed).seed(KMeansSeeding.KMEANS_PLUS_PLUS, centerXs, centerYs);
+
+        boolean[] right = new boolean[size];
+        int rightNumber = 0;
+        for (int iter = 0; iter < MAX_SPLIT_ITERATION; iter++) {
+            boolean changed = iter == 0;
+            double leftX = 0, leftY = 0, rightX = 0, rightY = 0;
+            rightNumber = 0;
+            for (int s = 0; s < size; s++) {
+                double dx0 = subXs[s] - centerXs[0], dy0 = subYs[s] - centerYs[0];
+                double dx1 = subXs[s] - centerXs[1], dy1 = subYs[s] - centerYs[1];
+                boolean toRight = dx1 * dx1 + dy1 * dy1 < dx0 * dx0 + dy0 * dy0;
+                changed |= toRight != right[s];
+                right[s] = toRight;
+                if (toRight) {
+                    rightX += subXs[s];
+                    rightY += subYs[s];
+                    rightNumber++;
+                } else {
+                    leftX += subXs[s];
+                    leftY += subYs[s];
+                }
+            }
+
+            if (rightNumber == 0 || rightNumber == size) {
+                return;
+            }
+            centerXs[0] = leftX / (size - rightNumber);
+            centerYs[0] = leftY / (size - rightNumber);
+            centerXs[1] = rightX / rightNumber;
+            centerYs[1] = rightY / rightNumber;
+            if (!changed) {
+                break;
+            }
+        }
+
+        // Points of first half are moved before points of second half, both keep their order.
+        int[] reordered = new int[size];
+        int left = 0;
+        int second = size - rightNumber;
+        for (int s = 0; s < size; s++) {
+            if (right[s]) {
+                reordered[second++] = order[leaf.from + s];
+            } else {
+                reordered[left++] = order[leaf.from + s];
+            }
+        }
+        System.arraycopy(reordered, 0, order, leaf.from, size);
+
+        leaf.middle = leaf.from + left;
+        leaf.leftX = centerXs[0];
+        leaf.leftY = centerYs[0];
+        leaf.rightX = centerXs[1];
+        leaf.rightY = centerYs[1];
+        leaf.leftSse = sse(leaf.from, leaf.middle, leaf.leftX, leaf.leftY);
+        leaf.rightSse = sse(leaf.middle, leaf.to, leaf.rightX, leaf.rightY);
+        leaf.splittable = true;
+    }
+
+    /**
+     * It returns sum of squared distances of points in given range of order
+     * to given center.
+     */
+    private double sse(int from, int to, double centerX, double centerY) {
+        double sum = 0;
+        for (int k = from; k < to; k++) {
+            double dx = xs[order[k]] - centerX;
+            double dy = ys[order[k]] - centerY;
+            sum += dx * dx + dy * dy;
+        }
+        return sum;
+    }
+
+    /**
+     * It gives points of given cluster their cluster shape.
+     */
+    private void syncPoints(Leaf leaf) {
+        Cluster cluster = leaf.cluster;
+        for (int k = leaf.from; k < leaf.to; k++) {
+            Point point = points[order[k]];
+            point.setColor(cluster.getColor());
+            point.setRayLine(cluster.getCenterX(), cluster.getCenterY());
+            point.setCluster(cluster);
+        }
+    }
+
+    /**
+     * It returns execution of algorithm done or not.
+     */
+    @Override
+    public boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * It loads all points in canvas to this context.
+     */
+    private void loadShapes(List<Drawable> shapes) {
+        List<Point> loadedPoints = new ArrayList<>();
+        for (Drawable shape : shapes) {
+            if (shape instanceof Point) {
+                loadedPoints.add((Point) shape);
+            }
+        }
+        points = loadedPoints.toArray(new Point[loadedPoints.size()]);
+
+        xs = new double[points.length];
+        ys = new double[points.length];
+        for (int i = 0; i < points.length; i++) {
+            xs[i] = points[i].getCenterX();
+            ys[i] = points[i].getCenterY();
+        }
+    }
+
+    /**
+     * It prepares and returns a report of last step as string.
+     */
+    @Override
+    public String report() {
+        StringBuilder strBuilder = new StringBuilder();
+
+        strBuilder.append("\nIteration: ").append(iteration).append("\n");
+        if (splitLeaf >= 0) {
+            strBuilder.append("Split: cluster ").append(splitLeaf).append(" of squared error ");
+            strBuilder.append(HelperMethods.scaleDouble(splitSse, 2)).append(" into cluster ").append(splitLeaf);
+            strBuilder.append(" and new cluster ").append(leaves.size() - 1).append("\n");
+        } else if (leaves.isEmpty()) {
+            strBuilder.append("No point to split\n");
+        } else if (leaves.size() < clusterNumber) {
+            strBuilder.append("No cluster can be split\n");
+        }
+        strBuilder.append("Clusters: ").append(leaves.size()).append(" of ").append(clusterNumber);
+        strBuilder.append(", squared error: ").append(HelperMethods.scaleDouble(totalSse, 2)).append("\n");
+        strBuilder.append("Step time: ").append(HelperMethods.scaleDouble(stepNanos / 1e6, 2)).append(" ms\n");
+
+        for (int c = 0; c < Math.min(leaves.size(), LISTED_CLUSTER_NUMBER); c++) {
+            Leaf leaf = leaves.get(c);
+            double x = HelperMethods.scaleDouble(leaf.centerX, 2);
+            double y = HelperMethods.scaleDouble(leaf.centerY, 2);
+
+            strBuilder.append("-->").append("Cluster: ").append(c).append("\n");
+            strBuilder.append("\t").append("Location: ").append(x).append(", ").append(y).append("\n");
+            strBuilder.append("\tContains ").append(leaf.to - leaf.from).append(" point!\n");
+        }
+        if (leaves.size() > LISTED_CLUSTER_NUMBER) {
+            strBuilder.append("\t... ").append(leaves.size() - LISTED_CLUSTER_NUMBER).append(" more clusters\n");
+        }
+
+        return strBuilder.toString();
+    }
+
+    /**
+     * It returns sum of squared distances of points to their cluster center.
+     */
+    public double getTotalSse() {
+        return totalSse;
+    }
+
+    /**
+     * It returns cluster shapes, in order they are created.
+     */
+    public Cluster[] getClusters() {
+        Cluster[] clusters = new Cluster[leaves.size()];
+        for (int c = 0; c < clusters.length; c++) {
+            clusters[c] = leaves.get(c).cluster;
+        }
+        return clusters;
+    }
+
+    /**
+     * It sets number of clusters wanted.
+     */
+    public void setClusterNumber(int clusterNumber) {
+        this.clusterNumber = Math.max(1, clusterNumber);
+    }
+
+    /**
+     * It sets seed of k-means++ seeding of splits, same seed gives same
+     * clusters.
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * It sets number of threads that find splits.
+     */
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    @Override
+    public int getSpeed() {
+        return speed;
+    }
+
+    @Override
+    public void setSpeed(int speed) {
+        this.speed = speed;
+    }
+
+    /**
+     * A cluster, its points are order[from] .. order[to - 1]. Its split is
+     * found before it is split, first half is order[from] .. order[middle -
+     * 1].
+     */
+    private static class Leaf {
+
+        int from;
+        int to;
+        double centerX;
+        double centerY;
+        double sse;
+        Cluster cluster;
+        /* Seed of 2-means of split, offset from seed of algorithm. */
+        int seed;
+
+        boolean splittable;
+        int middle;
+        double leftX;
+        double leftY;
+        double leftSse;
+        double rightX;
+        double rightY;
+        double rightSse;
+
+        Leaf(int from, int to, int seed) {
+            this.from = from;
+            this.to = to;
+            this.seed = seed;
+        }
+    }
+}
@@ -0,0 +1,508 @@
+package algorithmvisualization;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * This class contains anything about DBSCAN algorithm visualization.
+ *
+ * A point with at least minimum points within eps of it, itself included, is
+ * a core point. Core points within eps of each other are in same cluster, a
+ * point that is not core joins cluster of a core point within eps of it, a
+ * point without any is noise. Number of clusters is not given, no cluster
+ * shape is needed in canvas.
+ *
+ * Neighbours are found by a {@link GridIndex} of eps sized cells, a query
+ * only visits cell of point and eight cells around it. Core points are found
+ * when algorithm is prepared. Each step grows a cluster from its core points
+ * found by last step, a new cluster is started from first unclassified core
+ * point when a cluster can not grow more.
+ *
+ * In parallel mode all clusters are found at a single step. Core points within
+ * eps of each other are joined in a union-find by several threads, a root is
+ * always linked under a smaller root, so a cluster ends with its smallest core
+ * point as root for every parallelism. A border point joins cluster of its
+ * nearest core point, so clusters do not depend on order of points either.
+ * Clusters are numbered in order of their first core point in both modes.
+ *
+ * @author Murat AKIN
+ */
+public class Dbscan implements Algorithm {
+
+    /* Smallest number of points queried by a single task. */
+    private static final int MIN_BLOCK_SIZE = 2048;
+    /* Upper limit of blocks. */
+    private static final int MAX_BLOCK_NUMBER = 256;
+
+    /* Cluster of a point that is not classified yet. */
+    private static final int UNCLASSIFIED = -1;
+
+    /* Color of noise points, known when algorithm is finished. */
+    private static final Color NOISE_COLOR = Color.LIGHT_GRAY;
+    /* Number of clusters listed in report. */
+    private static final int LISTED_CLUSTER_NUMBER = 20;
+
+    /* Speed of visualization animation. */
+    private int speed = 150;
+
+    /* Neighbourhood radius and number of points in it that makes a core point. */
+    private double eps = 20;
+    private int minPoints = 5;
+    /* Metric of distances between points. */
+    private Metric metric = Metric.EUCLIDEAN;
+    /* All clusters are found at a single step by union-find or not. */
+    private boolean parallel;
+    /* Number of threads that find core points and clusters. */
+    private int parallelism = 1;
+
+    private Point[] points;
+    private double[] xs;
+    private double[] ys;
+
+    private GridIndex grid;
+    private boolean[] core;
+    private int coreNumber;
+
+    /* Cluster of each point, and size of each cluster. */
+    private int[] clusterOf;
+    private int[] clusterSizes;
+    private int clusterNumber;
+
+    /* Core points that grow current cluster at next step. */
+    private int[] frontier;
+    private int frontierSize;
+    /* Core points before it are all classified. */
+    private int nextSeed;
+
+    /* Points added to current cluster by last step, and start of it or not. */
+    private int addedNumber;
+    private boolean started;
+    private boolean finished;
+
+    /* Time spent on grid and core points, and on union-find mode. */
+    private long prepareNanos;
+    private long unionNanos;
+
+    /* Buffer of neighbour queries on animation thread. */
+    private int[] neighbours = new int[64];
+    private final int[] count = new int[1];
+
+    public Dbscan(List<Drawable> shapes) {
+        loadPoints(shapes);
+    }
+
+    /**
+     * It prepares the environment for visualization, it builds grid and finds
+     * core points.
+     */
+    @Override
+    public void prepare() {
+        long start = System.nanoTime();
+        final int n = points.length;
+        grid = new GridIndex(xs, ys, eps);
+
+        core = new boolean[n];
+        int blockSize = ParallelBlocks.blockSize(n, MIN_BLOCK_SIZE, MAX_BLOCK_NUMBER);
+        ParallelBlocks.run(ParallelBlocks.pool(parallelism), n, blockSize, new ParallelBlocks.BlockAction() {
+            @Override
+            public void run(int block, int from, int to) {
+                for (int i = from; i < to; i++) {
+                    core[i] = grid.countWithin(i, eps, metric, minPoints) >= minPoints;
+                }
+            }
+        });
+        coreNumber = 0;
+        for (int i = 0; i < n; i++) {
+            if (core[i]) {
+                coreNumber++;
+            }
+        }
+        prepareNanos = System.nanoTime() - start;
+
+        clusterOf = new int[n];
+        Arrays.fill(clusterOf, UNCLASSIFIED);
+        clusterSizes = new int[16];
+        clusterNumber = 0;
+        frontier = new int[16];
+        frontierSize = 0;
+        nextSeed = 0;
+        finished = false;
+
+        for (Point point : points) {
+            point.setRayLine(null);
+            point.setColor(Color.GRAY);
+        }
+    }
+
+    /**
+     * It grows current cluster by a step, or finds all clusters in parallel
+     * mode.
+     */
+    @Override
+    public void step() {
+        if (isFinished()) {
+            return;
+        }
+
+        if (parallel) {
+            long start = System.nanoTime();
+            findClusters();
+            unionNanos = System.nanoTime() - start;
+            finish();
+            return;
+        }
+
+        started = false;
+        if (frontierSize == 0) {
+            while (nextSeed < points.length && (!core[nextSeed] || clusterOf[nextSeed] != UNCLASSIFIED)) {
+                nextSeed++;
+            }
+            if (nextSeed == points.length) {
+                finish();
+                return;
+            }
+
+            startCluster(nextSeed);
+        }
+        grow();
+    }
+
+    /**
+     * It starts a new cluster from given core point.
+     */
+    private void startCluster(int seed) {
+        if (clusterNumber == clusterSizes.length) {
+            clusterSizes = Arrays.copyOf(clusterSizes, 2 * clusterNumber);
+        }
+        clusterNumber++;
+        addToCluster(seed);
+        frontier[0] = seed;
+        frontierSize = 1;
+        started = true;
+    }
+
+    /**
+     * It adds unclassified neighbours of core points in frontier to current
+     * cluster, the core ones among them are next frontier.
+     */
+    private void grow() {
+        int[] grown = frontier;
+        int grownSize = frontierSize;
+        int[] next = new int[16];
+        int nextSize = 0;
+        addedNumber = started ? 1 : 0;
+
+        for (int f = 0; f < grownSize; f++) {
+            neighbours = grid.within(grown[f], eps, metric, neighbours, count);
+            for (int k = 0; k < count[0]; k++) {
+                int j = neighbours[k];
+                if (clusterOf[j] != UNCLASSIFIED) {
+                    continue;
+                }
+
+                addToCluster(j);
+                addedNumber++;
+                if (core[j]) {
+                    if (nextSize == next.length) {
+                        next = Arrays.copyOf(next, 2 * nextSize);
+                    }
+                    next[nextSize++] = j;
+                }
+            }
+        }
+
+        frontier = next;
+        frontierSize = nextSize;
+    }
+
+    private void addToCluster(int i) {
+        int c = clusterNumber - 1;
+        clusterOf[i] = c;
+        clusterSizes[c]++;
+        points[i].setColor(colorOf(c));
+    }
+
+    /**
+     * It finds all clusters by union-find of core points.
+     */
+    private void findClusters() {
+        final int n = points.length;
+        final AtomicIntegerArray parents = new AtomicIntegerArray(n);
+        for (int i = 0; i < n; i++) {
+            parents.set(i, i);
+        }
+        int blockSize = ParallelBlocks.blockSize(n, MIN_BLOCK_SIZE, MAX_BLOCK_NUMBER);
+
+        // Core points within eps are joined, every pair is joined from its larger point.
+        ParallelBlocks.run(ParallelBlocks.pool(parallelism), n, blockSize, new ParallelBlocks.BlockAction() {
+            @Override
+            public void run(int block, int from, int to) {
+                int[] found = new int[64];
+                int[] foundCount = new int[1];
+                for (int i = from; i < to; i++) {
+                    if (!core[i]) {
+                        continue;
+                    }
+                    found = grid.within(i, eps, metric, found, foundCount);
+                    for (int k = 0; k < foundCount[0]; k++) {
+                        int j = found[k];
+                        if (j < i && core[j]) {
+                            union(parents, i, j);
+                        }
+                    }
+                }
+            }
+        });
+
+        // Core points take their root, border points take root of their nearest core point.
+        final int[] roots = new int[n];
+        ParallelBlocks.run(ParallelBlocks.pool(parallelism), n, blockSize, new ParallelBlocks.BlockAction() {
+            @Override
+            public void run(int block, int from, int to) {
+                int[] found = new int[64];
+                int[] foundCount = new int[1];
+                for (int i = from; i < to; i++) {
+                    if (core[i]) {
+                        roots[i] = find(parents, i);
+                        continue;
+                    }
+
+                    found = grid.within(i, eps, metric, found, foundCount);
+                    int nearest = -1;
+                    double nearestDist = Double.MAX_VALUE;
+                    for (int k = 0; k < foundCount[0]; k++) {
+                        int j = found[k];
+                        if (!core[j]) {
+                            continue;
+                        }
+                        double dist = metric.distance(xs[i], ys[i], xs[j], ys[j]);
+                        if (dist < nearestDist || (dist == nearestDist && j < nearest)) {
+                            nearest = j;
+                            nearestDist = dist;
+                        }
+                    }
+                    roots[i] = nearest < 0 ? UNCLASSIFIED : find(parents, nearest);
+                }
+            }
+        });
+
+        // Root of a cluster is its first core point, so clusters are numbered when their root is met.
+        clusterSizes = new int[16];
+        clusterNumber = 0;
+        for (int i = 0; i < n; i++) {
+            if (core[i] && roots[i] == i) {
+                if (clusterNumber == clusterSizes.length) {
+                    clusterSizes = Arrays.copyOf(clusterSizes, 2 * clusterNumber);
+                }
+                clusterOf[i] = clusterNumber++;
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            if (roots[i] != UNCLASSIFIED) {
+                clusterOf[i] = clusterOf[roots[i]];
+                clusterSizes[clusterOf[i]]++;
+                points[i].setColor(colorOf(clusterOf[i]));
+            }
+        }
+    }
+
+    /**
+     * It returns root of given point, parents of visited points are moved up
+     * on the way.
+     */
+    private static int find(AtomicIntegerArray parents, int i) {
+        while (true) {
+            int parent = parents.get(i);
+            if (parent == i) {
+                return i;
+            }
+            int grandParent = parents.get(parent);
+            if (grandParent != parent) {
+                parents.compareAndSet(i, parent, grandParent);
+            }
+            i = parent;
+        }
+    }
+
+    /**
+     * It joins sets of given points, larger root is linked under smaller one.
+     * Link is retried if root changed since it was found.
+     */
+    private static void union(AtomicIntegerArray parents, int a, int b) {
+        while (true) {
+            a = find(parents, a);
+            b = find(parents, b);
+            if (a == b) {
+                return;
+            }
+            if (a < b) {
+                int tmp = a;
+                a = b;
+                b = tmp;
+            }
+            if (parents.compareAndSet(a, a, b)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * It ends algorithm, points left unclassified are noise.
+     */
+    private void finish() {
+        for (int i = 0; i < points.length; i++) {
+            if (clusterOf[i] == UNCLASSIFIED) {
+                points[i].setColor(NOISE_COLOR);
+            }
+        }
+        frontierSize = 0;
+        finished = true;
+    }
+
+    /**
+     * It returns color of given cluster, hues of clusters are spread by
+     * golden ratio so close clusters get different colors.
+     */
+    private static Color colorOf(int cluster) {
+        float hue = (float) ((cluster * 0.618033988749895) % 1);
+        return Color.getHSBColor(hue, 0.85f, 0.85f);
+    }
+
+    /**
+     * It returns execution of algorithm done or not.
+     */
+    @Override
+    public boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * It loads all points in canvas to this context.
+     */
+    private void loadPoints(List<Drawable> shapes) {
+        List<Point> loaded = new ArrayList<>();
+        for (Drawable shape : shapes) {
+            if (shape instanceof Point) {
+                loaded.add((Point) shape);
+            }
+        }
+        points = loaded.toArray(new Point[loaded.size()]);
+
+        xs = new double[points.length];
+        ys = new double[points.length];
+        for (int i = 0; i < points.length; i++) {
+            xs[i] = points[i].getCenterX();
+            ys[i] = points[i].getCenterY();
+        }
+    }
+
+    /**
+     * It prepares and returns a report of last step as string.
+     */
+    @Override
+    public String report() {
+        StringBuilder strBuilder = new StringBuilder();
+
+        if (!finished) {
+            int c = clusterNumber - 1;
+            if (c < 0) {
+                strBuilder.append("\nClusters found: 0\n");
+                return strBuilder.toString();
+            }
+
+            strBuilder.append("\nCluster: ").append(c + 1).append("\n");
+            if (started) {
+                int seed = nextSeed;
+                strBuilder.append("-->Started at core point: ").append(HelperMethods.scaleDouble(xs[seed], 2));
+                strBuilder.append(", ").append(HelperMethods.scaleDouble(ys[seed], 2)).append("\n");
+            }
+            strBuilder.append("-->Points added: ").append(addedNumber);
+            strBuilder.append(", size: ").append(clusterSizes[c]).append("\n");
+            return strBuilder.toString();
+        }
+
+        int clustered = 0;
+        for (int c = 0; c < clusterNumber; c++) {
+            clustered += clusterSizes[c];
+        }
+        strBuilder.append("\nClusters found: ").append(clusterNumber).append("\n");
+        strBuilder.append("-->Core points: ").append(coreNumber);
+        strBuilder.append(", border points: ").append(clustered - coreNumber);
+        strBuilder.append(", noise points: ").append(points.length - clustered).append("\n");
+        strBuilder.append("-->Grid cells: ").append(grid.getCellNumber());
+        strBuilder.append(", core points found in ").append(HelperMethods.scaleDouble(prepareNanos / 1e6, 2)).append(" ms\n");
+        if (parallel) {
+            strBuilder.append("-->Clusters joined by union-find in ");
+            strBuilder.append(HelperMethods.scaleDouble(unionNanos / 1e6, 2)).append(" ms\n");
+        }
+
+        for (int c = 0; c < Math.min(clusterNumber, LISTED_CLUSTER_NUMBER); c++) {
+            strBuilder.append("\tCluster ").append(c + 1).append(": ").append(clusterSizes[c]).append(" points\n");
+        }
+        if (clusterNumber > LISTED_CLUSTER_NUMBER) {
+            strBuilder.append("\t... ").append(clusterNumber - LISTED_CLUSTER_NUMBER).append(" more clusters\n");
+        }
+
+        return strBuilder.toString();
+    }
+
+    /**
+     * It returns cluster of each point in canvas order, -1 for noise.
+     */
+    public int[] getClusters() {
+        return clusterOf;
+    }
+
+    public int getClusterNumber() {
+        return clusterNumber;
+    }
+
+    /**
+     * It sets neighbourhood radius.
+     */
+    public void setEps(double eps) {
+        this.eps = Math.max(0.01, eps);
+    }
+
+    /**
+     * It sets number of points within eps of a point, itself included, that
+     * makes it a core point.
+     */
+    public void setMinPoints(int minPoints) {
+        this.minPoints = Math.max(1, minPoints);
+    }
+
+    /**
+     * It sets metric of distances between points.
+     */
+    public void setMetric(Metric metric) {
+        this.metric = metric;
+    }
+
+    /**
+     * It sets all clusters are found at a single step by union-find or not.
+     */
+    public void setParallel(boolean parallel) {
+        this.parallel = parallel;
+    }
+
+    /**
+     * It sets number of threads that find core points and clusters.
+     */
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    @Override
+    public int getSpeed() {
+        return speed;
+    }
+
+    @Override
+    public void setSpeed(int speed) {
+        this.speed = speed;
+    }
+}
@@ -0,0 +1,71 @@
+package algorithmvisualization;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * This class is the merge tree of a hierarchical clustering of points.
+ *
+ * A cluster is named by one of its points, merge m joins cluster of point
+ * getFirst(m) with cluster of point getSecond(m) at getHeight(m). Merges are
+ * in order of height, so first n - k merges leave k clusters, which is the
+ * tree cut at k clusters.
+ *
+ * @author Murat AKIN
+ */
+public class Dendrogram {
+
+    private final int pointNumber;
+    private final int[] firsts;
+    private final int[] seconds;
+    private final double[] heights;
+
+    /**
+     * It builds tree of given merges, in any order that a merge comes after
+     * merges of its parts. Merges of same height keep their order.
+     */
+    public Dendrogram(int pointNumber, int[] firsts, int[] seconds, final double[] heights) {
+        this.pointNumber = pointNumber;
+        int m = heights.length;
+
+        Integer[] order = new Integer[m];
+        for (int i = 0; i < m; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer a, Integer b) {
+                return Double.compare(heights[a], heights[b]);
+            }
+        });
+
+        this.firsts = new int[m];
+        this.seconds = new int[m];
+        this.heights = new double[m];
+        for (int i = 0; i < m; i++) {
+            this.firsts[i] = firsts[order[i]];
+            this.seconds[i] = seconds[order[i]];
+            this.heights[i] = heights[order[i]];
+        }
+    }
+
+    public int getPointNumber() {
+        return pointNumber;
+    }
+
+    public int getMergeNumber() {
+        return heights.length;
+    }
+
+    public int getFirst(int merge) {
+        return firsts[merge];
+    }
+
+    public int getSecond(int merge) {
+        return seconds[merge];
+    }
+
+    public double getHeight(int merge) {
+        return heights[merge];
+    }
+}
@@ -0,0 +1,160 @@
+package algorithmvisualization;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * This class keeps pairwise distances of points in square tiles of TILE x
+ * TILE floats. A tile is computed when it is first needed, and tiles are kept
+ * in least recently used order until their size reaches memory budget, then
+ * least recently used ones are dropped. Only tiles on and above diagonal are
+ * kept, a tile below diagonal is read from its mirror.
+ *
+ * Many threads can ask tiles at the same time. A tile is computed by first
+ * thread that asks it, threads that ask it meanwhile wait for it, so a tile is
+ * computed once as long as it is kept.
+ *
+ * @author Murat AKIN
+ */
+public class DistanceCache {
+
+    /* Width and height of a tile. */
+    public static final int TILE = 256;
+
+    private final double[] xs;
+    private final double[] ys;
+    private final Metric metric;
+    private final int sideTileNumber;
+    private final int maxTiles;
+
+    /* Tiles by key, a tile being computed is kept as an incomplete future. */
+    private final LinkedHashMap<Long, CompletableFuture<float[]>> tiles;
+
+    /* Tiles found in cache, computed, and dropped from it. */
+    private long hitNumber;
+    private long missNumber;
+    private long evictionNumber;
+
+    /**
+     * It creates an empty cache of given points.
+     *
+     * @param budget largest number of bytes kept in tiles, at least one tile
+     * is kept.
+     */
+    public DistanceCache(double[] xs, double[] ys, Metric metric, long budget) {
+        this.xs = xs;
+        this.ys = ys;
+        this.metric = metric;
+        sideTileNumber = (xs.length + TILE - 1) / TILE;
+        maxTiles = (int) Math.max(1, Math.min(Integer.MAX_VALUE, budget / (4L * TILE * TILE)));
+
+        tiles = new LinkedHashMap<Long, CompletableFuture<float[]>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CompletableFuture<float[]>> eldest) {
+                if (size() > maxTiles) {
+                    evictionNumber++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * It returns distance of points i and j, same as the one kept in tiles.
+     */
+    public float distance(int i, int j) {
+        return (float) metric.distance(xs[i], ys[i], xs[j], ys[j]);
+    }
+
+    /**
+     * It returns tile of given rows and columns. If rowTile is not more than
+     * columnTile, distance of points i and j of tile is at
+     * (i - rowTile * TILE) * TILE + j - columnTile * TILE. Otherwise its
+     * mirror above diagonal is returned, and distance of points i and j is at
+     * (j - columnTile * TILE) * TILE + i - rowTile * TILE.
+     */
+    public float[] tile(int rowTile, int columnTile) {
+        int upperRow = Math.min(rowTile, columnTile);
+        int upperColumn = Math.max(rowTile, columnTile);
+        Long key = (long) upperRow * sideTileNumber + upperColumn;
+
+        CompletableFuture<float[]> tile;
+        boolean computing = false;
+        synchronized (tiles) {
+            tile = tiles.get(key);
+            if (tile == null) {
+                tile = new CompletableFuture<>();
+                tiles.put(key, tile);
+                missNumber++;
+                computing = true;
+            } else {
+                hitNumber++;
+            }
+        }
+
+        if (computing) {
+            try {
+                tile.complete(compute(upperRow, upperColumn));
+            } catch (RuntimeException | Error ex) {
+                synchronized (tiles) {
+                    tiles.remove(key);
+                }
+                tile.completeExceptionally(ex);
+                throw ex;
+            }
+        }
+        return tile.join();
+    }
+
+    /**
+     * It computes distances of tile of given rows and columns.
+     */
+    private float[] compute(int rowTile, int columnTile) {
+        float[] tile = new float[TILE * TILE];
+        int rowFrom = rowTile * TILE;
+        int rowTo = Math.min(xs.length, rowFrom + TILE);
+        int columnFrom = columnTile * TILE;
+        int columnTo = Math.min(xs.length, columnFrom + TILE);
+        for (int i = rowFrom; i < rowTo; i++) {
+            int offset = (i - rowFrom) * TILE - columnFrom;
+            for (int j = columnFrom; j < columnTo; j++) {
+                tile[offset + j] = distance(i, j);
+            }
+        }
+        return tile;
+    }
+
+    public int getSideTileNumber() {
+        return sideTileNumber;
+    }
+
+    public int getPointNumber() {
+        return xs.length;
+    }
+
+    public int getTileNumber() {
+        synchronized (tiles) {
+            return tiles.size();
+        }
+    }
+
+    public long getHitNumber() {
+        synchronized (tiles) {
+            return hitNumber;
+        }
+    }
+
+    public long getMissNumber() {
+        synchronized (tiles) {
+            return missNumber;
+        }
+    }
+
+    public long getEvictionNumber() {
+        synchronized (tiles) {
+            return evictionNumber;
+        }
+    }
+}
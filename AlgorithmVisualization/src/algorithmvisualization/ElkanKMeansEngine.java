@@ -0,0 +1,253 @@
+package algorithmvisualization;
+
+import java.awt.geom.Point2D;
+import java.util.Arrays;
+
+/**
+ * This class runs K-Means iterations with Elkan's bounds.
+ *
+ * Every point keeps an upper bound of distance to its cluster and a lower
+ * bound of distance to every cluster. Together with half distances between
+ * clusters, triangle inequality proves most distances cannot change the
+ * nearest cluster, so they are not computed. Clusters of points are exactly
+ * same with {@link KMeansEngine}.
+ *
+ * @author Murat AKIN
+ */
+public class ElkanKMeansEngine extends KMeansEngine {
+
+    /* Bounds are widened by this ratio, so rounding errors never make them wrong. */
+    private static final double SLACK = 1e-12;
+
+    /* Upper bound of distance between each point and its cluster. */
+    private final double[] upperBounds;
+    /* Upper bound of point is exact distance or not. */
+    private final boolean[] upperTight;
+    /* Lower bound of distance between point i and cluster c is at i * clusterNumber + c.
+       Floats are rounded down, so they halve memory without breaking bounds. */
+    private final float[] lowerBounds;
+
+    /* Half of distance between cluster a and cluster b is at a * clusterNumber + b. */
+    private final double[] halfCenterDists;
+    /* Half of distance between each cluster and its nearest other cluster. */
+    private final double[] halfNearestDists;
+
+    /* Total distance moved by cluster c in first t steps is at t * clusterNumber + c. */
+    private double[] cumulativeDrifts;
+    private final double[] previousXs;
+    private final double[] previousYs;
+
+    /* Number of executed steps. */
+    private int steps;
+    /* Bounds of each point are valid for clusters after this many steps. */
+    private final int[] boundSteps;
+
+    public ElkanKMeansEngine(double[] xs, double[] ys, double[] centerXs, double[] centerYs) {
+        super(xs, ys, centerXs, centerYs);
+
+        if ((long) pointNumber * clusterNumber > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many points and clusters for Elkan bounds.");
+        }
+
+        upperBounds = new double[pointNumber];
+        upperTight = new boolean[pointNumber];
+        lowerBounds = new float[pointNumber * clusterNumber];
+
+        halfCenterDists = new double[clusterNumber * clusterNumber];
+        halfNearestDists = new double[clusterNumber];
+
+        cumulativeDrifts = new double[16 * clusterNumber];
+        boundSteps = new int[pointNumber];
+        previousXs = new double[clusterNumber];
+        previousYs = new double[clusterNumber];
+    }
+
+    /**
+     * It computes half distances between clusters and keeps positions of
+     * clusters to find their drifts after update.
+     */
+    @Override
+    protected void beforeAssign() {
+        for (int a = 0; a < clusterNumber; a++) {
+            double nearest = Double.MAX_VALUE;
+            for (int b = 0; b < clusterNumber; b++) {
+                if (a == b) {
+                    continue;
+                }
+
+                double half = Point2D.distance(centerXs[a], centerYs[a], centerXs[b], centerYs[b])
+                        * 0.5 * (1 - SLACK);
+                halfCenterDists[a * clusterNumber + b] = half;
+                if (half < nearest) {
+                    nearest = half;
+                }
+            }
+            halfNearestDists[a] = nearest;
+        }
+
+        System.arraycopy(centerXs, 0, previousXs, 0, clusterNumber);
+        System.arraycopy(centerYs, 0, previousYs, 0, clusterNumber);
+    }
+
+    /**
+     * It finds how far every cluster moved. Bounds of a point are loosened by
+     * these drifts only when the point really needs them, so points that keep
+     * their cluster cost nothing more than a single comparison.
+     */
+    @Override
+    protected void afterUpdate() {
+        steps++;
+
+        if ((steps + 1) * clusterNumber > cumulativeDrifts.length) {
+            cumulativeDrifts = Arrays.copyOf(cumulativeDrifts, 2 * cumulativeDrifts.length);
+        }
+
+        int row = steps * clusterNumber;
+        for (int c = 0; c < clusterNumber; c++) {
+            cumulativeDrifts[row + c] = cumulativeDrifts[row - clusterNumber + c]
+                    + Point2D.distance(previousXs[c], previousYs[c], centerXs[c], centerYs[c]);
+        }
+    }
+
+    @Override
+    protected void assignBlock(int block, int from, int to) {
+        int offset = block * clusterNumber;
+        clearBlockSums(offset);
+
+        boolean anyChanged = false;
+        long distanceCount = 0;
+        for (int i = from; i < to; i++) {
+            int lowerOffset = i * clusterNumber;
+            int nearest = assignments[i];
+
+            if (nearest < 0) {
+                nearest = assignFirstTime(i, lowerOffset);
+                distanceCount += clusterNumber;
+                anyChanged = true;
+            } else {
+                int previous = nearest;
+                double pX = xs[i];
+                double pY = ys[i];
+
+                int oldRow = boundSteps[i] * clusterNumber;
+                int newRow = steps * clusterNumber;
+
+                double upper = upperBounds[i];
+                boolean tight = upperTight[i];
+                double drift = cumulativeDrifts[newRow + nearest] - cumulativeDrifts[oldRow + nearest];
+                if (drift > 0) {
+                    upper = (upper + drift) * (1 + SLACK) + cumulativeDrifts[newRow + nearest] * SLACK;
+                    tight = false;
+                }
+
+                if (upper >= halfNearestDists[nearest] && oldRow != newRow) {
+                    // Point may change its cluster, so lower bounds are needed.
+                    for (int c = 0; c < clusterNumber; c++) {
+                        double lowerDrift = cumulativeDrifts[newRow + c] - cumulativeDrifts[oldRow + c];
+                        if (lowerDrift > 0) {
+                            double lower = lowerBounds[lowerOffset + c];
+                            lowerBounds[lowerOffset + c] = roundDown(lower - lowerDrift
+                                    - (lower + cumulativeDrifts[newRow + c]) * SLACK);
+                        }
+                    }
+                    boundSteps[i] = steps;
+                    upperBounds[i] = upper;
+                    upperTight[i] = tight;
+                }
+
+                if (upper >= halfNearestDists[nearest]) {
+                    for (int c = 0; c < clusterNumber; c++) {
+                        if (c == nearest || upper < lowerBounds[lowerOffset + c]
+                                || upper < halfCenterDists[nearest * clusterNumber + c]) {
+                            continue;
+                        }
+
+                        if (!tight) {
+                            upper = Point2D.distance(pX, pY, centerXs[nearest], centerYs[nearest]);
+                            lowerBounds[lowerOffset + nearest] = roundDown(upper);
+                            tight = true;
+                            distanceCount++;
+
+                            if (upper < lowerBounds[lowerOffset + c]
+                                    || upper < halfCenterDists[nearest * clusterNumber + c]) {
+                                continue;
+                            }
+                        }
+
+                        double dist = Point2D.distance(pX, pY, centerXs[c], centerYs[c]);
+                        lowerBounds[lowerOffset + c] = roundDown(dist);
+                        distanceCount++;
+
+                        // Ties go to smaller index, same with a full scan.
+                        if (dist < upper || (dist == upper && c < nearest)) {
+                            nearest = c;
+                            upper = dist;
+                        }
+                    }
+                }
+
+                if (boundSteps[i] == steps) {
+                    upperBounds[i] = upper;
+                    upperTight[i] = tight;
+                }
+
+                if (nearest != previous) {
+                    anyChanged = true;
+                    assignments[i] = nearest;
+                }
+            }
+
+            addToBlockSums(offset, i, nearest);
+        }
+
+        setBlockResult(block, anyChanged, distanceCount);
+    }
+
+    /**
+     * It computes every distance of a point that has no cluster yet and
+     * initializes its bounds.
+     *
+     * @return nearest cluster of point.
+     */
+    private int assignFirstTime(int i, int lowerOffset) {
+        double pX = xs[i];
+        double pY = ys[i];
+
+        double minDist = Double.MAX_VALUE;
+        int nearest = -1;
+        for (int c = 0; c < clusterNumber; c++) {
+            double newDist = Point2D.distance(pX, pY, centerXs[c], centerYs[c]);
+            lowerBounds[lowerOffset + c] = roundDown(newDist);
+            if (newDist < minDist) {
+                minDist = newDist;
+                nearest = c;
+            }
+        }
+
+        assignments[i] = nearest;
+        upperBounds[i] = minDist;
+        upperTight[i] = true;
+        boundSteps[i] = steps;
+        return nearest;
+    }
+
+    /**
+     * It converts a lower bound to float without making it larger.
+     */
+    private static float roundDown(double value) {
+        if (value <= 0) {
+            return 0f;
+        }
+
+        float rounded = (float) value;
+        return rounded > value ? Math.nextDown(rounded) : rounded;
+    }
+
+    /**
+     * Bounds of every point would be broken by edits.
+     */
+    @Override
+    public boolean isEditable() {
+        return false;
+    }
+}
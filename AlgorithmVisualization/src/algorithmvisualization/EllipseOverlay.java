@@ -0,0 +1,70 @@
+package algorithmvisualization;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Ellipse2D;
+
+/**
+ * This class draws ellipses of 2x2 covariances over canvas. An ellipse is
+ * centered at its mean, its axes are along eigenvectors of its covariance and
+ * they are SIGMAS times square roots of eigenvalues long.
+ *
+ * @author Murat AKIN
+ */
+public class EllipseOverlay implements Overlay {
+
+    /* Number of standard deviations covered by an ellipse. */
+    private static final double SIGMAS = 2;
+
+    private double[] centerXs = new double[0];
+    private double[] centerYs = new double[0];
+    /* Half lengths of axes, and angle of first axis. */
+    private double[] radiusXs = new double[0];
+    private double[] radiusYs = new double[0];
+    private double[] angles = new double[0];
+    private Color[] colors = new Color[0];
+
+    /**
+     * It sets ellipses of given means and covariances, covariance of ellipse
+     * c is [[covXXs[c], covXYs[c]], [covXYs[c], covYYs[c]]].
+     */
+    public void setEllipses(double[] meanXs, double[] meanYs, double[] covXXs, double[] covXYs,
+            double[] covYYs, Color[] colors) {
+        int k = meanXs.length;
+        centerXs = meanXs.clone();
+        centerYs = meanYs.clone();
+        radiusXs = new double[k];
+        radiusYs = new double[k];
+        angles = new double[k];
+        this.colors = colors.clone();
+
+        for (int c = 0; c < k; c++) {
+            double half = (covXXs[c] + covYYs[c]) / 2;
+            double spread = Math.sqrt((covXXs[c] - covYYs[c]) * (covXXs[c] - covYYs[c]) / 4 + covXYs[c] * covXYs[c]);
+            radiusXs[c] = SIGMAS * Math.sqrt(Math.max(0, half + spread));
+            radiusYs[c] = SIGMAS * Math.sqrt(Math.max(0, half - spread));
+            angles[c] = Math.atan2(2 * covXYs[c], covXXs[c] - covYYs[c]) / 2;
+        }
+    }
+
+    @Override
+    public void draw(Graphics g) {
+        Graphics2D g2d = (Graphics2D) g.create();
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2d.setStroke(new BasicStroke(2));
+        AffineTransform base = g2d.getTransform();
+
+        for (int c = 0; c < centerXs.length; c++) {
+            g2d.setTransform(base);
+            g2d.translate(centerXs[c], centerYs[c]);
+            g2d.rotate(angles[c]);
+            g2d.setColor(colors[c]);
+            g2d.draw(new Ellipse2D.Double(-radiusXs[c], -radiusYs[c], 2 * radiusXs[c], 2 * radiusYs[c]));
+        }
+        g2d.dispose();
+    }
+}
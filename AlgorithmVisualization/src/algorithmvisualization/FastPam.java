@@ -0,0 +1,218 @@
+package algorithmvisualization;
+
+import java.util.Arrays;
+
+/**
+ * This class runs swap phases of FastPAM1 on a set of points.
+ *
+ * PAM looks for the swap of a medoid and a point that lowers total distance
+ * of points to their nearest medoid most. Trying every pair costs k x n
+ * swaps of n points each. FastPAM1 keeps distance of every point to its
+ * nearest and second nearest medoid, so change of every medoid swapped with a
+ * point is found in one pass over points, and a swap phase costs n x n.
+ *
+ * For swap of medoid m with point c, a point o whose nearest is m moves to
+ * the nearer of c and its second medoid, any other point moves to c if c is
+ * nearer. Part of change that is same for every m is summed once.
+ *
+ * Candidate points are split into blocks of a {@link DistanceCache} tile row.
+ * A block walks tiles of its row once, and sums changes of all of its
+ * candidates from each tile, so a cache smaller than a row of tiles is not
+ * read over and over. Blocks are computed by several threads and their best
+ * swaps are compared in block order, so a phase is same for every
+ * parallelism.
+ *
+ * @author Murat AKIN
+ */
+public class FastPam {
+
+    private final DistanceCache cache;
+    private final int n;
+    private final int parallelism;
+
+    private final int[] medoids;
+    private final boolean[] medoid;
+
+    /* Nearest medoid of each point, and distances to nearest and second nearest medoids. */
+    private final int[] nearests;
+    private final float[] nearestDists;
+    private final float[] secondDists;
+
+    /* Last swap, its medoid index, new medoid and change of cost. */
+    private int swappedMedoid = -1;
+    private int swappedPoint = -1;
+    private double swapChange;
+
+    /**
+     * It creates engine with given medoids, they are indexes of points of
+     * cache and they must be different.
+     */
+    public FastPam(DistanceCache cache, int[] medoids, int parallelism) {
+        this.cache = cache;
+        this.n = cache.getPointNumber();
+        this.parallelism = parallelism;
+        this.medoids = medoids.clone();
+        medoid = new boolean[n];
+        for (int m : medoids) {
+            medoid[m] = true;
+        }
+
+        nearests = new int[n];
+        nearestDists = new float[n];
+        secondDists = new float[n];
+        updateNearests();
+    }
+
+    /**
+     * It finds nearest and second nearest medoid of every point.
+     */
+    private void updateNearests() {
+        Arrays.fill(nearestDists, Float.MAX_VALUE);
+        Arrays.fill(secondDists, Float.MAX_VALUE);
+        for (int m = 0; m < medoids.length; m++) {
+            for (int o = 0; o < n; o++) {
+                float dist = cache.distance(medoids[m], o);
+                if (dist < nearestDists[o]) {
+                    secondDists[o] = nearestDists[o];
+                    nearestDists[o] = dist;
+                    nearests[o] = m;
+                } else if (dist < secondDists[o]) {
+                    secondDists[o] = dist;
+                }
+            }
+        }
+    }
+
+    /**
+     * It runs a swap phase, best swap is done if it lowers cost.
+     *
+     * @return true if a swap is done.
+     */
+    public boolean swap() {
+        final int k = medoids.length;
+        final int tiles = cache.getSideTileNumber();
+        final double[] bestChanges = new double[tiles];
+        final int[] bestMedoids = new int[tiles];
+        final int[] bestPoints = new int[tiles];
+
+        ParallelBlocks.run(ParallelBlocks.pool(parallelism), n, DistanceCache.TILE, new ParallelBlocks.BlockAction() {
+            @Override
+            public void run(int block, int from, int to) {
+                // Changes of candidates of block are summed tile by tile, a tile is asked once.
+                double[] shared = new double[to - from];
+                double[] changes = new double[(to - from) * k];
+                for (int columnTile = 0; columnTile < tiles; columnTile++) {
+                    int columnFrom = columnTile * DistanceCache.TILE;
+                    int columnTo = Math.min(n, columnFrom + DistanceCache.TILE);
+                    boolean mirrored = block > columnTile;
+                    float[] tile = cache.tile(block, columnTile);
+
+                    for (int c = from; c < to; c++) {
+                        if (medoid[c]) {
+                            continue;
+                        }
+                        int local = c - from;
+                        double sum = 0;
+                        for (int o = columnFrom; o < columnTo; o++) {
+                            double dist = mirrored
+                                    ? tile[(o - columnFrom) * DistanceCache.TILE + local]
+                                    : tile[local * DistanceCache.TILE + o - columnFrom];
+                            double nearest = nearestDists[o];
+                            double toCandidate = Math.min(dist - nearest, 0);
+                            sum += toCandidate;
+                            changes[local * k + nearests[o]] += Math.min(dist, secondDists[o]) - nearest - toCandidate;
+                        }
+                        shared[local] += sum;
+                    }
+                }
+
+                double bestChange = 0;
+                int bestMedoid = -1;
+                int bestPoint = -1;
+                for (int c = from; c < to; c++) {
+                    if (medoid[c]) {
+                        continue;
+                    }
+                    for (int m = 0; m < k; m++) {
+                        double change = changes[(c - from) * k + m] + shared[c - from];
+                        if (change < bestChange) {
+                            bestChange = change;
+                            bestMedoid = m;
+                            bestPoint = c;
+                        }
+                    }
+                }
+
+                bestChanges[block] = bestChange;
+                bestMedoids[block] = bestMedoid;
+                bestPoints[block] = bestPoint;
+            }
+        });
+
+        swappedMedoid = -1;
+        swappedPoint = -1;
+        swapChange = 0;
+        for (int b = 0; b < tiles; b++) {
+            if (bestChanges[b] < swapChange) {
+                swapChange = bestChanges[b];
+                swappedMedoid = bestMedoids[b];
+                swappedPoint = bestPoints[b];
+            }
+        }
+
+        // Changes below rounding of summed distances are not swaps.
+        if (swappedMedoid < 0 || swapChange > -1e-9 * Math.max(1, getCost())) {
+            swappedMedoid = -1;
+            swappedPoint = -1;
+            return false;
+        }
+
+        medoid[medoids[swappedMedoid]] = false;
+        medoids[swappedMedoid] = swappedPoint;
+        medoid[swappedPoint] = true;
+        updateNearests();
+        return true;
+    }
+
+    /**
+     * It returns sum of distances of points to their nearest medoid.
+     */
+    public double getCost() {
+        double cost = 0;
+        for (int o = 0; o < n; o++) {
+            cost += nearestDists[o];
+        }
+        return cost;
+    }
+
+    public int[] getMedoids() {
+        return medoids.clone();
+    }
+
+    /**
+     * It returns index of nearest medoid of every point.
+     */
+    public int[] getNearests() {
+        return nearests;
+    }
+
+    /**
+     * It returns index of medoid replaced by last swap, -1 if there was no
+     * swap.
+     */
+    public int getSwappedMedoid() {
+        return swappedMedoid;
+    }
+
+    public int getSwappedPoint() {
+        return swappedPoint;
+    }
+
+    public double getSwapChange() {
+        return swapChange;
+    }
+
+    public DistanceCache getCache() {
+        return cache;
+    }
+}
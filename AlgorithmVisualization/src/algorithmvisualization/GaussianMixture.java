@@ -0,0 +1,422 @@
+package algorithmvisualization;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class contains anything about Gaussian mixture clustering
+ * visualization.
+ *
+ * Every cluster shape in canvas is a component with a weight, a mean and a
+ * full 2x2 covariance. Components start from a single hard assignment of
+ * points to nearest cluster shape. Each step is an EM iteration, probability
+ * of every component for every point is found, and components are fitted to
+ * points weighted by them. Iterations go on until log-likelihood of points
+ * stops growing.
+ *
+ * Points are split into blocks computed by several threads. A block sums its
+ * weighted points into its own statistics, which are added in block order,
+ * so a step is same for every parallelism. Statistics are summed around
+ * means of last step, so covariances do not lose precision on large
+ * coordinates. Probabilities are found by log-sum-exp, a far point does not
+ * underflow to zero for every component.
+ *
+ * A point takes color and cluster of its most probable component, cluster
+ * shapes are moved to means and covariance ellipses are drawn by an
+ * {@link EllipseOverlay}.
+ *
+ * @author Murat AKIN
+ */
+public class GaussianMixture implements Algorithm {
+
+    /* Smallest number of points computed by a single task. */
+    private static final int MIN_BLOCK_SIZE = 4096;
+    /* Upper limit of blocks. */
+    private static final int MAX_BLOCK_NUMBER = 256;
+
+    /* Statistics of a component in a block: weight, first and second moments. */
+    private static final int STATISTICS = 6;
+    /* Variance added to covariances, so a component on a few points stays invertible. */
+    private static final double REGULARIZATION = 1e-2;
+    /* Relative growth of log-likelihood that ends iterations. */
+    private static final double TOLERANCE = 1e-7;
+    /* Upper limit of iterations. */
+    private static final int MAX_ITERATION = 1000;
+
+    /* Speed of visualization animation. */
+    private int speed = 150;
+
+    /* Number of threads that compute blocks. */
+    private int parallelism = 1;
+
+    private Point[] points;
+    private Cluster[] clusters;
+    private double[] xs;
+    private double[] ys;
+
+    /* Parameters of components. */
+    private double[] weights;
+    private double[] meanXs;
+    private double[] meanYs;
+    private double[] covXXs;
+    private double[] covXYs;
+    private double[] covYYs;
+
+    /* Most probable component of each point. */
+    private int[] labels;
+
+    private int iteration;
+    private double logLikelihood;
+    private double lastLogLikelihood;
+    private boolean finished;
+    private long stepNanos;
+
+    /* Ellipses of components, null if they are not drawn. */
+    private EllipseOverlay overlay;
+
+    public GaussianMixture(List<Drawable> shapes) {
+        loadShapes(shapes);
+    }
+
+    /**
+     * It starts every component from points nearest to its cluster shape.
+     */
+    @Override
+    public void prepare() {
+        int k = clusters.length;
+        int n = points.length;
+        weights = new double[k];
+        meanXs = new double[k];
+        meanYs = new double[k];
+        covXXs = new double[k];
+        covXYs = new double[k];
+        covYYs = new double[k];
+        labels = new int[n];
+
+        for (int c = 0; c < k; c++) {
+            meanXs[c] = clusters[c].getCenterX();
+            meanYs[c] = clusters[c].getCenterY();
+        }
+
+        iteration = 0;
+        logLikelihood = Double.NEGATIVE_INFINITY;
+        lastLogLikelihood = Double.NEGATIVE_INFINITY;
+        if (k == 0 || n == 0) {
+            // There is nothing to fit, canvas is left as it is.
+            finished = true;
+            return;
+        }
+
+        double[] sums = new double[STATISTICS * k];
+        double[] all = new double[STATISTICS];
+        for (int i = 0; i < n; i++) {
+            int nearest = 0;
+            double nearestDist = Double.MAX_VALUE;
+            for (int c = 0; c < k; c++) {
+                double dx = xs[i] - meanXs[c];
+                double dy = ys[i] - meanYs[c];
+                if (dx * dx + dy * dy < nearestDist) {
+                    nearestDist = dx * dx + dy * dy;
+                    nearest = c;
+                }
+            }
+            labels[i] = nearest;
+            accumulate(sums, STATISTICS * nearest, 1, xs[i] - meanXs[nearest], ys[i] - meanYs[nearest]);
+            accumulate(all, 0, 1, xs[i] - xs[0], ys[i] - ys[0]);
+        }
+
+        // A component without points starts with covariance of all points.
+        double[] allMoments = moments(all, 0);
+        for (int c = 0; c < k; c++) {
+            if (sums[STATISTICS * c] > 0) {
+                fit(c, sums, STATISTICS * c, n);
+            } else {
+                weights[c] = 1.0 / Math.max(1, n);
+                covXXs[c] = allMoments[2] + REGULARIZATION;
+                covXYs[c] = allMoments[3];
+                covYYs[c] = allMoments[4] + REGULARIZATION;
+            }
+        }
+        normalizeWeights();
+
+        finished = false;
+        syncShapes();
+    }
+
+    /**
+     * It runs an EM iteration.
+     */
+    @Override
+    public void step() {
+        if (isFinished()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        final int k = clusters.length;
+        final int n = points.length;
+
+        // Constant part of log density and inverse covariance of each component.
+        final double[] logNorms = new double[k];
+        final double[] inverseXXs = new double[k];
+        final double[] inverseXYs = new double[k];
+        final double[] inverseYYs = new double[k];
+        for (int c = 0; c < k; c++) {
+            double det = covXXs[c] * covYYs[c] - covXYs[c] * covXYs[c];
+            inverseXXs[c] = covYYs[c] / det;
+            inverseXYs[c] = -covXYs[c] / det;
+            inverseYYs[c] = covXXs[c] / det;
+            logNorms[c] = Math.log(weights[c]) - Math.log(2 * Math.PI) - Math.log(det) / 2;
+        }
+
+        final int blockSize = ParallelBlocks.blockSize(n, MIN_BLOCK_SIZE, MAX_BLOCK_NUMBER);
+        int blocks = ParallelBlocks.blockCount(n, blockSize);
+        final double[][] blockSums = new double[blocks][];
+        final double[] blockLogLikelihoods = new double[blocks];
+
+        ParallelBlocks.run(ParallelBlocks.pool(parallelism), n, blockSize, new ParallelBlocks.BlockAction() {
+            @Override
+            public void run(int block, int from, int to) {
+                double[] sums = new double[STATISTICS * k];
+                double[] logDensities = new double[k];
+                double sumLogLikelihood = 0;
+
+                for (int i = from; i < to; i++) {
+                    double max = Double.NEGATIVE_INFINITY;
+                    int best = 0;
+                    for (int c = 0; c < k; c++) {
+                        double dx = xs[i] - meanXs[c];
+                        double dy = ys[i] - meanYs[c];
+                        double mahalanobis = inverseXXs[c] * dx * dx + 2 * inverseXYs[c] * dx * dy + inverseYYs[c] * dy * dy;
+                        logDensities[c] = logNorms[c] - mahalanobis / 2;
+                        if (logDensities[c] > max) {
+                            max = logDensities[c];
+                            best = c;
+                        }
+                    }
+
+                    double sum = 0;
+                    for (int c = 0; c < k; c++) {
+                        logDensities[c] = Math.exp(logDensities[c] - max);
+                        sum += logDensities[c];
+                    }
+                    sumLogLikelihood += max + Math.log(sum);
+                    labels[i] = best;
+
+                    for (int c = 0; c < k; c++) {
+                        double responsibility = logDensities[c] / sum;
+                        if (responsibility > 0) {
+                            accumulate(sums, STATISTICS * c, responsibility, xs[i] - meanXs[c], ys[i] - meanYs[c]);
+                        }
+                    }
+                }
+
+                blockSums[block] = sums;
+                blockLogLikelihoods[block] = sumLogLikelihood;
+            }
+        });
+
+        double[] sums = new double[STATISTICS * k];
+        lastLogLikelihood = logLikelihood;
+        logLikelihood = 0;
+        for (int b = 0; b < blocks; b++) {
+            for (int s = 0; s < sums.length; s++) {
+                sums[s] += blockSums[b][s];
+            }
+            logLikelihood += blockLogLikelihoods[b];
+        }
+
+        for (int c = 0; c < k; c++) {
+            // A component that lost all points keeps its place.
+            if (sums[STATISTICS * c] > 1e-9) {
+                fit(c, sums, STATISTICS * c, n);
+            } else {
+                weights[c] = 1e-9;
+            }
+        }
+        normalizeWeights();
+
+        iteration++;
+        double growth = logLikelihood - lastLogLikelihood;
+        finished = iteration >= MAX_ITERATION || growth <= TOLERANCE * Math.abs(logLikelihood);
+        syncShapes();
+        stepNanos = System.nanoTime() - start;
+    }
+
+    /**
+     * It adds a point at (dx, dy) from mean with given weight to statistics at
+     * given offset.
+     */
+    private static void accumulate(double[] sums, int offset, double weight, double dx, double dy) {
+        sums[offset] += weight;
+        sums[offset + 1] += weight * dx;
+        sums[offset + 2] += weight * dy;
+        sums[offset + 3] += weight * dx * dx;
+        sums[offset + 4] += weight * dx * dy;
+        sums[offset + 5] += weight * dy * dy;
+    }
+
+    /**
+     * It returns mean offset and covariance of statistics at given offset,
+     * as dx, dy, xx, xy, yy.
+     */
+    private static double[] moments(double[] sums, int offset) {
+        double weight = sums[offset];
+        double dx = sums[offset + 1] / weight;
+        double dy = sums[offset + 2] / weight;
+        return new double[]{dx, dy,
+            sums[offset + 3] / weight - dx * dx,
+            sums[offset + 4] / weight - dx * dy,
+            sums[offset + 5] / weight - dy * dy};
+    }
+
+    /**
+     * It fits component c to statistics summed around its mean.
+     */
+    private void fit(int c, double[] sums, int offset, int n) {
+        double[] moments = moments(sums, offset);
+        weights[c] = sums[offset] / n;
+        meanXs[c] += moments[0];
+        meanYs[c] += moments[1];
+        covXXs[c] = moments[2] + REGULARIZATION;
+        covXYs[c] = moments[3];
+        covYYs[c] = moments[4] + REGULARIZATION;
+    }
+
+    private void normalizeWeights() {
+        double sum = 0;
+        for (double weight : weights) {
+            sum += weight;
+        }
+        for (int c = 0; c < weights.length; c++) {
+            weights[c] /= sum;
+        }
+    }
+
+    /**
+     * It moves cluster shapes to means, colors points by their most probable
+     * component and updates ellipses.
+     */
+    private void syncShapes() {
+        Color[] colors = new Color[clusters.length];
+        for (int c = 0; c < clusters.length; c++) {
+            clusters[c].setLocation(meanXs[c], meanYs[c]);
+            colors[c] = clusters[c].getColor();
+        }
+
+        if (clusters.length > 0) {
+            for (int i = 0; i < points.length; i++) {
+                Cluster cluster = clusters[labels[i]];
+                points[i].setColor(cluster.getColor());
+                points[i].setRayLine(null);
+                points[i].setCluster(cluster);
+            }
+        }
+
+        if (overlay != null) {
+            overlay.setEllipses(meanXs, meanYs, covXXs, covXYs, covYYs, colors);
+        }
+    }
+
+    /**
+     * It returns execution of algorithm done or not.
+     */
+    @Override
+    public boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * It loads all points and clusters in canvas to this context.
+     */
+    private void loadShapes(List<Drawable> shapes) {
+        List<Point> loadedPoints = new ArrayList<>();
+        List<Cluster> loadedClusters = new ArrayList<>();
+        for (Drawable shape : shapes) {
+            if (shape instanceof Point) {
+                loadedPoints.add((Point) shape);
+            } else if (shape instanceof Cluster) {
+                loadedClusters.add((Cluster) shape);
+            }
+        }
+        points = loadedPoints.toArray(new Point[loadedPoints.size()]);
+        clusters = loadedClusters.toArray(new Cluster[loadedClusters.size()]);
+
+        xs = new double[points.length];
+        ys = new double[points.length];
+        for (int i = 0; i < points.length; i++) {
+            xs[i] = points[i].getCenterX();
+            ys[i] = points[i].getCenterY();
+        }
+    }
+
+    /**
+     * It prepares and returns a report of last step as string.
+     */
+    @Override
+    public String report() {
+        StringBuilder strBuilder = new StringBuilder();
+
+        strBuilder.append("\nIteration: ").append(iteration).append("\n");
+        if (iteration == 0) {
+            return strBuilder.toString();
+        }
+
+        strBuilder.append("Log-likelihood: ").append(HelperMethods.scaleDouble(logLikelihood, 2));
+        strBuilder.append(", per point: ").append(HelperMethods.scaleDouble(logLikelihood / points.length, 2)).append("\n");
+        strBuilder.append("Step time: ").append(HelperMethods.scaleDouble(stepNanos / 1e6, 2)).append(" ms\n");
+        if (finished) {
+            strBuilder.append(iteration >= MAX_ITERATION ? "Stopped at iteration limit\n" : "Converged\n");
+        }
+
+        for (int c = 0; c < clusters.length; c++) {
+            double x = HelperMethods.scaleDouble(meanXs[c], 2);
+            double y = HelperMethods.scaleDouble(meanYs[c], 2);
+
+            strBuilder.append("-->").append("Component: ").append(c).append("\n");
+            strBuilder.append("\t").append("Mean: ").append(x).append(", ").append(y);
+            strBuilder.append("\tWeight: ").append(HelperMethods.scaleDouble(weights[c], 2)).append("\n");
+            strBuilder.append("\tCovariance: ").append(HelperMethods.scaleDouble(covXXs[c], 2));
+            strBuilder.append(", ").append(HelperMethods.scaleDouble(covXYs[c], 2));
+            strBuilder.append(", ").append(HelperMethods.scaleDouble(covYYs[c], 2)).append("\n");
+        }
+
+        return strBuilder.toString();
+    }
+
+    public double getLogLikelihood() {
+        return logLikelihood;
+    }
+
+    public int[] getLabels() {
+        return labels;
+    }
+
+    /**
+     * It sets number of threads that compute blocks.
+     */
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * It sets overlay that ellipses of components are drawn on.
+     */
+    public void setOverlay(EllipseOverlay overlay) {
+        this.overlay = overlay;
+        if (weights != null) {
+            syncShapes();
+        }
+    }
+
+    @Override
+    public int getSpeed() {
+        return speed;
+    }
+
+    @Override
+    public void setSpeed(int speed) {
+        this.speed = speed;
+    }
+}
@@ -0,0 +1,99 @@
+package algorithmvisualization;
+
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+
+/**
+ * This class draws edges of a {@link KnnGraph} over canvas. There is no
+ * shape for every edge, all edges are rasterized once into an image when
+ * graph is given, and canvas draws that image by a single call at every
+ * repaint. Java2D fills a path of many edges in time that grows faster than
+ * number of edges, an image is drawn in same time for any graph. An edge
+ * found in rows of both of its points is rasterized once.
+ *
+ * @author Murat AKIN
+ */
+public class GraphOverlay implements Overlay {
+
+    /* Translucent gray, as ARGB. */
+    private static final int COLOR = 0x5A5A5A5A;
+
+    /* Largest width and height of image, edges out of it are clipped. */
+    private static final int MAX_SIZE = 8192;
+
+    /* Edges of graph, null until a graph is given. */
+    private BufferedImage image;
+    private int[] pixels;
+    private int width;
+    private int height;
+
+    /**
+     * It rasterizes edges of given graph.
+     */
+    public void setGraph(KnnGraph graph) {
+        double[] xs = graph.getTree().getXs();
+        double[] ys = graph.getTree().getYs();
+        int[] offsets = graph.getOffsets();
+        int[] neighbours = graph.getNeighbours();
+
+        double maxX = 0;
+        double maxY = 0;
+        for (int i = 0; i < xs.length; i++) {
+            maxX = Math.max(maxX, xs[i]);
+            maxY = Math.max(maxY, ys[i]);
+        }
+        width = (int) Math.min(MAX_SIZE, Math.ceil(maxX) + 1);
+        height = (int) Math.min(MAX_SIZE, Math.ceil(maxY) + 1);
+        image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+
+        for (int i = 0; i < graph.getPointNumber(); i++) {
+            for (int e = offsets[i]; e < offsets[i + 1]; e++) {
+                int j = neighbours[e];
+                if (j < i && graph.isNeighbour(j, i)) {
+                    continue;
+                }
+                rasterize((int) Math.round(xs[i]), (int) Math.round(ys[i]),
+                        (int) Math.round(xs[j]), (int) Math.round(ys[j]));
+            }
+        }
+    }
+
+    /**
+     * It sets pixels of line between given pixels, Bresenham's algorithm.
+     */
+    private void rasterize(int x0, int y0, int x1, int y1) {
+        int dx = Math.abs(x1 - x0);
+        int dy = -Math.abs(y1 - y0);
+        int stepX = x0 < x1 ? 1 : -1;
+        int stepY = y0 < y1 ? 1 : -1;
+        int error = dx + dy;
+
+        while (true) {
+            if (x0 >= 0 && x0 < width && y0 >= 0 && y0 < height) {
+                pixels[y0 * width + x0] = COLOR;
+            }
+            if (x0 == x1 && y0 == y1) {
+                return;
+            }
+
+            int doubleError = 2 * error;
+            if (doubleError >= dy) {
+                error += dy;
+                x0 += stepX;
+            }
+            if (doubleError <= dx) {
+                error += dx;
+                y0 += stepY;
+            }
+        }
+    }
+
+    @Override
+    public void draw(Graphics g) {
+        if (image != null) {
+            g.drawImage(image, 0, 0, null);
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package algorithmvisualization;
+
+import java.util.Arrays;
+
+/**
+ * This class is a uniform grid over point coordinates, cells are squares of
+ * given size. Only cells that contain points are kept, in an open addressing
+ * hash table, so a fine grid over sparse points costs no memory for empty
+ * cells. Points are ordered by cell, points of a cell are consecutive.
+ *
+ * Distance of two points under any {@link Metric} is at least their largest
+ * coordinate difference, so points within cell size of a point are all in
+ * its cell or in the eight cells around it.
+ *
+ * Queries keep no state in grid, many threads can query at the same time.
+ *
+ * @author Murat AKIN
+ */
+public class GridIndex {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private final double[] xs;
+    private final double[] ys;
+    private final double cellSize;
+    private final double originX;
+    private final double originY;
+
+    /* Hash table of cells, key of a cell and its index. */
+    private final long[] keys;
+    private final int[] cells;
+    private final int mask;
+
+    /* Points of cell c are order[starts[c]] .. order[starts[c + 1] - 1]. */
+    private final int[] starts;
+    private final int[] order;
+
+    public GridIndex(double[] xs, double[] ys, double cellSize) {
+        this.xs = xs;
+        this.ys = ys;
+        this.cellSize = cellSize;
+
+        int n = xs.length;
+        double minX = 0, minY = 0;
+        if (n > 0) {
+            minX = Double.MAX_VALUE;
+            minY = Double.MAX_VALUE;
+            for (int i = 0; i < n; i++) {
+                minX = Math.min(minX, xs[i]);
+                minY = Math.min(minY, ys[i]);
+            }
+        }
+        originX = minX;
+        originY = minY;
+
+        int capacity = Integer.highestOneBit(Math.max(4, 2 * n - 1)) << 1;
+        keys = new long[capacity];
+        cells = new int[capacity];
+        mask = capacity - 1;
+        Arrays.fill(keys, EMPTY);
+
+        // Cell of every point, cells are numbered when they are first seen.
+        int[] cellOfPoint = new int[n];
+        int[] counts = new int[n + 1];
+        int cellNumber = 0;
+        for (int i = 0; i < n; i++) {
+            long key = key(cellX(xs[i]), cellY(ys[i]));
+            int slot = slot(key);
+            if (keys[slot] == EMPTY) {
+                keys[slot] = key;
+                cells[slot] = cellNumber++;
+            }
+            cellOfPoint[i] = cells[slot];
+            counts[cells[slot] + 1]++;
+        }
+
+        starts = Arrays.copyOf(counts, cellNumber + 1);
+        for (int c = 0; c < cellNumber; c++) {
+            starts[c + 1] += starts[c];
+        }
+        order = new int[n];
+        int[] next = Arrays.copyOf(starts, cellNumber);
+        for (int i = 0; i < n; i++) {
+            order[next[cellOfPoint[i]]++] = i;
+        }
+    }
+
+    /**
+     * It finds points whose distance to given point is not more than radius,
+     * radius must not be more than cell size. Point itself is found too.
+     *
+     * @param result array that points are written to, it is grown if it is
+     * short.
+     * @return array that points are written to, number of them is written to
+     * first element of count.
+     */
+    public int[] within(int point, double radius, Metric metric, int[] result, int[] count) {
+        double x = xs[point];
+        double y = ys[point];
+        int cellX = cellX(x);
+        int cellY = cellY(y);
+        int found = 0;
+
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dy = -1; dy <= 1; dy++) {
+                int slot = slot(key(cellX + dx, cellY + dy));
+                if (keys[slot] == EMPTY) {
+                    continue;
+                }
+
+                int cell = cells[slot];
+                for (int k = starts[cell]; k < starts[cell + 1]; k++) {
+                    int i = order[k];
+                    if (metric.distance(x, y, xs[i], ys[i]) <= radius) {
+                        if (found == result.length) {
+                            result = Arrays.copyOf(result, 2 * found + 16);
+                        }
+                        result[found++] = i;
+                    }
+                }
+            }
+        }
+
+        count[0] = found;
+        return result;
+    }
+
+    /**
+     * It counts points whose distance to given point is not more than
+     * radius, like {@link #within}, counting stops at limit.
+     */
+    public int countWithin(int point, double radius, Metric metric, int limit) {
+        double x = xs[point];
+        double y = ys[point];
+        int cellX = cellX(x);
+        int cellY = cellY(y);
+        int found = 0;
+
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dy = -1; dy <= 1; dy++) {
+                int slot = slot(key(cellX + dx, cellY + dy));
+                if (keys[slot] == EMPTY) {
+                    continue;
+                }
+
+                int cell = cells[slot];
+                for (int k = starts[cell]; k < starts[cell + 1]; k++) {
+                    int i = order[k];
+                    if (metric.distance(x, y, xs[i], ys[i]) <= radius && ++found >= limit) {
+                        return found;
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * It sums coordinates of points whose distance to given location is not
+     * more than radius, radius must not be more than cell size.
+     *
+     * @param sums array that sums of x and y of points are written to.
+     * @return number of points.
+     */
+    public int sumWithin(double x, double y, double radius, Metric metric, double[] sums) {
+        int cellX = cellX(x);
+        int cellY = cellY(y);
+        int found = 0;
+        double sumX = 0, sumY = 0;
+
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dy = -1; dy <= 1; dy++) {
+                int slot = slot(key(cellX + dx, cellY + dy));
+                if (keys[slot] == EMPTY) {
+                    continue;
+                }
+
+                int cell = cells[slot];
+                for (int k = starts[cell]; k < starts[cell + 1]; k++) {
+                    int i = order[k];
+                    if (metric.distance(x, y, xs[i], ys[i]) <= radius) {
+                        sumX += xs[i];
+                        sumY += ys[i];
+                        found++;
+                    }
+                }
+            }
+        }
+
+        sums[0] = sumX;
+        sums[1] = sumY;
+        return found;
+    }
+
+    private int cellX(double x) {
+        return (int) Math.floor((x - originX) / cellSize);
+    }
+
+    private int cellY(double y) {
+        return (int) Math.floor((y - originY) / cellSize);
+    }
+
+    private static long key(int cellX, int cellY) {
+        return ((long) cellX << 32) | (cellY & 0xffffffffL);
+    }
+
+    /**
+     * It returns slot of given key, or the empty slot that it would be put.
+     */
+    private int slot(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        int slot = (int) (hash ^ (hash >>> 32)) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * It returns number of cells that contain points.
+     */
+    public int getCellNumber() {
+        return starts.length - 1;
+    }
+
+    public double getCellSize() {
+        return cellSize;
+    }
+}
@@ -0,0 +1,191 @@
+package algorithmvisualization;
+
+import java.awt.geom.Point2D;
+
+/**
+ * This class runs K-Means iterations with Hamerly's bounds.
+ *
+ * Every point keeps an upper bound of distance to its cluster and a single
+ * lower bound of distance to its second nearest cluster. If upper bound is
+ * less than lower bound or half distance to nearest other cluster, point
+ * keeps its cluster without computing any distance. It needs much less memory
+ * than {@link ElkanKMeansEngine} and suits low dimensional points well.
+ * Clusters of points are exactly same with {@link KMeansEngine}.
+ *
+ * @author Murat AKIN
+ */
+public class HamerlyKMeansEngine extends KMeansEngine {
+
+    /* Bounds are widened by this ratio, so rounding errors never make them wrong. */
+    private static final double SLACK = 1e-12;
+
+    /* Upper bound of distance between each point and its cluster. */
+    private final double[] upperBounds;
+    /* Lower bound of distance between each point and its second nearest cluster. */
+    private final double[] lowerBounds;
+
+    /* Half of distance between each cluster and its nearest other cluster. */
+    private final double[] halfNearestDists;
+
+    /* Distance moved by each cluster at last step. */
+    private final double[] drifts;
+    /* Largest drift and the cluster that has it, and second largest drift. */
+    private double maxDrift;
+    private int maxDriftCluster = -1;
+    private double secondMaxDrift;
+
+    private final double[] previousXs;
+    private final double[] previousYs;
+
+    public HamerlyKMeansEngine(double[] xs, double[] ys, double[] centerXs, double[] centerYs) {
+        super(xs, ys, centerXs, centerYs);
+
+        upperBounds = new double[pointNumber];
+        lowerBounds = new double[pointNumber];
+        halfNearestDists = new double[clusterNumber];
+
+        drifts = new double[clusterNumber];
+        previousXs = new double[clusterNumber];
+        previousYs = new double[clusterNumber];
+    }
+
+    /**
+     * It computes half distance between every cluster and its nearest other
+     * cluster and keeps positions of clusters to find their drifts.
+     */
+    @Override
+    protected void beforeAssign() {
+        for (int a = 0; a < clusterNumber; a++) {
+            double nearest = Double.MAX_VALUE;
+            for (int b = 0; b < clusterNumber; b++) {
+                if (a == b) {
+                    continue;
+                }
+
+                double dist = Point2D.distance(centerXs[a], centerYs[a], centerXs[b], centerYs[b]);
+                if (dist < nearest) {
+                    nearest = dist;
+                }
+            }
+            halfNearestDists[a] = nearest * 0.5 * (1 - SLACK);
+        }
+
+        System.arraycopy(centerXs, 0, previousXs, 0, clusterNumber);
+        System.arraycopy(centerYs, 0, previousYs, 0, clusterNumber);
+    }
+
+    /**
+     * It finds how far every cluster moved and keeps two largest drifts.
+     */
+    @Override
+    protected void afterUpdate() {
+        maxDrift = 0;
+        secondMaxDrift = 0;
+        maxDriftCluster = -1;
+
+        for (int c = 0; c < clusterNumber; c++) {
+            double drift = Point2D.distance(previousXs[c], previousYs[c], centerXs[c], centerYs[c]);
+            drifts[c] = drift;
+
+            if (drift > maxDrift) {
+                secondMaxDrift = maxDrift;
+                maxDrift = drift;
+                maxDriftCluster = c;
+            } else if (drift > secondMaxDrift) {
+                secondMaxDrift = drift;
+            }
+        }
+    }
+
+    @Override
+    protected void assignBlock(int block, int from, int to) {
+        int offset = block * clusterNumber;
+        clearBlockSums(offset);
+
+        boolean anyChanged = false;
+        long distanceCount = 0;
+        for (int i = from; i < to; i++) {
+            int nearest = assignments[i];
+
+            if (nearest >= 0) {
+                // Loosen bounds by drifts of last step.
+                double otherDrift = nearest == maxDriftCluster ? secondMaxDrift : maxDrift;
+                double upper = upperBounds[i];
+                double lower = lowerBounds[i];
+                if (drifts[nearest] > 0) {
+                    upper = (upper + drifts[nearest]) * (1 + SLACK);
+                }
+                if (otherDrift > 0) {
+                    lower = (lower - otherDrift) - lower * SLACK;
+                }
+
+                double bound = Math.max(halfNearestDists[nearest], lower);
+                if (upper < bound) {
+                    upperBounds[i] = upper;
+                    lowerBounds[i] = lower;
+                    addToBlockSums(offset, i, nearest);
+                    continue;
+                }
+
+                upper = Point2D.distance(xs[i], ys[i], centerXs[nearest], centerYs[nearest]);
+                distanceCount++;
+                if (upper < bound) {
+                    upperBounds[i] = upper;
+                    lowerBounds[i] = lower;
+                    addToBlockSums(offset, i, nearest);
+                    continue;
+                }
+            }
+
+            int previous = nearest;
+            nearest = scan(i);
+            distanceCount += clusterNumber;
+
+            if (nearest != previous) {
+                anyChanged = true;
+                assignments[i] = nearest;
+            }
+
+            addToBlockSums(offset, i, nearest);
+        }
+
+        setBlockResult(block, anyChanged, distanceCount);
+    }
+
+    /**
+     * It computes distances to all clusters and resets bounds of point.
+     * Squared distances are compared, only the two bounds take square root.
+     *
+     * @return nearest cluster of point.
+     */
+    private int scan(int i) {
+        double pX = xs[i];
+        double pY = ys[i];
+
+        double minDist = Double.MAX_VALUE;
+        double secondDist = Double.MAX_VALUE;
+        int nearest = -1;
+        for (int c = 0; c < clusterNumber; c++) {
+            double newDist = Point2D.distanceSq(pX, pY, centerXs[c], centerYs[c]);
+            if (newDist < minDist) {
+                secondDist = minDist;
+                minDist = newDist;
+                nearest = c;
+            } else if (newDist < secondDist) {
+                secondDist = newDist;
+            }
+        }
+
+        upperBounds[i] = Math.sqrt(minDist);
+        lowerBounds[i] = secondDist == Double.MAX_VALUE ? Double.MAX_VALUE : Math.sqrt(secondDist);
+        return nearest;
+    }
+
+    /**
+     * Bounds of every point would be broken by edits.
+     */
+    @Override
+    public boolean isEditable() {
+        return false;
+    }
+}
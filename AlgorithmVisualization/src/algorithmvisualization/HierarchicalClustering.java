@@ -0,0 +1,293 @@
+package algorithmvisualization;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class contains anything about hierarchical agglomerative clustering
+ * visualization.
+ *
+ * Every point starts as its own cluster, closest two clusters are merged
+ * until number of clusters is number of cluster shapes in canvas. Whole
+ * {@link Dendrogram} is built by {@link NearestNeighbourChain} at first step,
+ * then merges are shown in order of height. Points of a cluster share a
+ * color, points of the smaller cluster are recolored at a merge, so every
+ * point is recolored a few times at most.
+ *
+ * A step shows a part of merges that are left, so clusters merge fast while
+ * they are many, and one by one when they are near to number of cluster
+ * shapes. At the end, cluster shapes are moved to centroids of clusters and
+ * points take their cluster and color.
+ *
+ * @author Murat AKIN
+ */
+public class HierarchicalClustering implements Algorithm {
+
+    /* Merges shown at a step are this part of merges left. */
+    private static final int STEP_DIVISOR = 16;
+
+    /* Speed of visualization animation. */
+    private int speed = 150;
+
+    /* Linkage of clusters, and metric of average linkage. */
+    private Linkage linkage = Linkage.WARD;
+    private Metric metric = Metric.EUCLIDEAN;
+
+    private Point[] points;
+    private Cluster[] clusters;
+    private double[] xs;
+    private double[] ys;
+
+    /* Merge tree of points, null until first step. */
+    private Dendrogram dendrogram;
+    /* Number of merges shown, and number of them at end. */
+    private int mergeNumber;
+    private int targetMergeNumber;
+    /* Merges shown by last step. */
+    private int lastFrom;
+
+    /* Clusters of shown merges, a cluster is a list of points from its head. */
+    private int[] heads;
+    private int[] nexts;
+    private int[] tails;
+    private int[] sizes;
+
+    private long buildNanos;
+    private boolean finished;
+
+    public HierarchicalClustering(List<Drawable> shapes) {
+        loadShapes(shapes);
+    }
+
+    /**
+     * It prepares the environment for visualization.
+     */
+    @Override
+    public void prepare() {
+        int n = points.length;
+        dendrogram = null;
+        mergeNumber = 0;
+        targetMergeNumber = Math.max(0, n - Math.max(1, clusters.length));
+        finished = false;
+
+        heads = new int[n];
+        nexts = new int[n];
+        tails = new int[n];
+        sizes = new int[n];
+        for (int i = 0; i < n; i++) {
+            heads[i] = i;
+            nexts[i] = -1;
+            tails[i] = i;
+            sizes[i] = 1;
+            points[i].setRayLine(null);
+            points[i].setCluster(null);
+            points[i].setColor(Color.GRAY);
+        }
+    }
+
+    /**
+     * It builds dendrogram at first step, and shows next merges at every
+     * step.
+     */
+    @Override
+    public void step() {
+        if (isFinished()) {
+            return;
+        }
+
+        if (dendrogram == null) {
+            long start = System.nanoTime();
+            dendrogram = NearestNeighbourChain.build(xs, ys, linkage, metric);
+            buildNanos = System.nanoTime() - start;
+        }
+
+        lastFrom = mergeNumber;
+        int count = Math.max(1, (targetMergeNumber - mergeNumber) / STEP_DIVISOR);
+        int end = Math.min(targetMergeNumber, mergeNumber + count);
+        for (; mergeNumber < end; mergeNumber++) {
+            merge(dendrogram.getFirst(mergeNumber), dendrogram.getSecond(mergeNumber));
+        }
+
+        if (mergeNumber == targetMergeNumber) {
+            finish();
+        }
+    }
+
+    /**
+     * It merges clusters of given points, smaller one joins larger one.
+     */
+    private void merge(int i, int j) {
+        int a = heads[i];
+        int b = heads[j];
+        if (sizes[a] < sizes[b]) {
+            int tmp = a;
+            a = b;
+            b = tmp;
+        }
+
+        Color color = colorOf(a);
+        if (sizes[a] == 1) {
+            points[a].setColor(color);
+        }
+        for (int k = b; k >= 0; k = nexts[k]) {
+            heads[k] = a;
+            points[k].setColor(color);
+        }
+        nexts[tails[a]] = b;
+        tails[a] = tails[b];
+        sizes[a] += sizes[b];
+    }
+
+    /**
+     * It moves cluster shapes to clusters left, in order of their first
+     * point, and gives points their cluster.
+     */
+    private void finish() {
+        int c = 0;
+        for (int i = 0; i < points.length && c < clusters.length; i++) {
+            if (heads[i] != i) {
+                continue;
+            }
+
+            Cluster cluster = clusters[c++];
+            double sumX = 0;
+            double sumY = 0;
+            for (int k = i; k >= 0; k = nexts[k]) {
+                sumX += xs[k];
+                sumY += ys[k];
+            }
+            cluster.setLocation(sumX / sizes[i], sumY / sizes[i]);
+
+            for (int k = i; k >= 0; k = nexts[k]) {
+                points[k].setColor(cluster.getColor());
+                points[k].setRayLine(cluster.getCenterX(), cluster.getCenterY());
+                points[k].setCluster(cluster);
+            }
+        }
+        finished = true;
+    }
+
+    /**
+     * It returns color of cluster named by given point, hues are spread by
+     * golden ratio so close names get different colors.
+     */
+    private static Color colorOf(int head) {
+        float hue = (float) ((head * 0.618033988749895) % 1);
+        return Color.getHSBColor(hue, 0.85f, 0.85f);
+    }
+
+    /**
+     * It returns execution of algorithm done or not.
+     */
+    @Override
+    public boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * It loads all points and clusters in canvas to this context.
+     */
+    private void loadShapes(List<Drawable> shapes) {
+        List<Point> loadedPoints = new ArrayList<>();
+        List<Cluster> loadedClusters = new ArrayList<>();
+        for (Drawable shape : shapes) {
+            if (shape instanceof Point) {
+                loadedPoints.add((Point) shape);
+            } else if (shape instanceof Cluster) {
+                loadedClusters.add((Cluster) shape);
+            }
+        }
+        points = loadedPoints.toArray(new Point[loadedPoints.size()]);
+        clusters = loadedClusters.toArray(new Cluster[loadedClusters.size()]);
+
+        xs = new double[points.length];
+        ys = new double[points.length];
+        for (int i = 0; i < points.length; i++) {
+            xs[i] = points[i].getCenterX();
+            ys[i] = points[i].getCenterY();
+        }
+    }
+
+    /**
+     * It prepares and returns a report of last step as string.
+     */
+    @Override
+    public String report() {
+        StringBuilder strBuilder = new StringBuilder();
+
+        if (dendrogram == null) {
+            strBuilder.append("\nMerges: 0\n");
+            return strBuilder.toString();
+        }
+
+        if (lastFrom == 0) {
+            strBuilder.append("\nDendrogram of ").append(points.length).append(" points built by nearest-neighbour chain");
+            strBuilder.append(NearestNeighbourChain.usesGrid(linkage, points.length) ? " on grid" : " on distance matrix");
+            strBuilder.append(" in ").append(HelperMethods.scaleDouble(buildNanos / 1e6, 2)).append(" ms\n");
+            strBuilder.append("-->Linkage: ").append(linkage);
+            strBuilder.append(linkage == Linkage.WARD ? ", metric: EUCLIDEAN\n" : ", metric: " + metric + "\n");
+        }
+
+        if (mergeNumber > lastFrom) {
+            strBuilder.append("\nMerges: ").append(lastFrom + 1).append(" - ").append(mergeNumber);
+            strBuilder.append(" of ").append(targetMergeNumber).append("\n");
+        }
+        strBuilder.append("-->Clusters: ").append(points.length - mergeNumber);
+        if (mergeNumber > 0) {
+            strBuilder.append(", last merge height: ");
+            strBuilder.append(HelperMethods.scaleDouble(dendrogram.getHeight(mergeNumber - 1), 2));
+        }
+        strBuilder.append("\n");
+
+        if (finished) {
+            for (Cluster cluster : clusters) {
+                int size = 0;
+                for (Point point : points) {
+                    if (point.getCluster() == cluster) {
+                        size++;
+                    }
+                }
+                if (size > 0) {
+                    double x = HelperMethods.scaleDouble(cluster.getCenterX(), 2);
+                    double y = HelperMethods.scaleDouble(cluster.getCenterY(), 2);
+                    strBuilder.append("\tCluster at: ").append(x).append(", ").append(y);
+                    strBuilder.append("\tPoints: ").append(size).append("\n");
+                }
+            }
+        }
+
+        return strBuilder.toString();
+    }
+
+    /**
+     * It returns merge tree of points, null until first step.
+     */
+    public Dendrogram getDendrogram() {
+        return dendrogram;
+    }
+
+    /**
+     * It sets linkage of clusters.
+     */
+    public void setLinkage(Linkage linkage) {
+        this.linkage = linkage;
+    }
+
+    /**
+     * It sets metric of distances used by average linkage.
+     */
+    public void setMetric(Metric metric) {
+        this.metric = metric;
+    }
+
+    @Override
+    public int getSpeed() {
+        return speed;
+    }
+
+    @Override
+    public void setSpeed(int speed) {
+        this.speed = speed;
+    }
+}
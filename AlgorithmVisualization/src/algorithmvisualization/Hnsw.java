@@ -0,0 +1,459 @@
+package algorithmvisualization;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * This class is an approximate nearest neighbour index of vectors, a
+ * Hierarchical Navigable Small World graph. Vectors may have any dimension,
+ * exact trees degrade to linear scans when it is high but graph does not.
+ *
+ * Every vector is a node on layers 0 .. level of it. Level is drawn from an
+ * exponential distribution, so every layer has about 1 / M of nodes of layer
+ * below. On every layer a node is linked to at most M near nodes, 2M on layer
+ * 0. Links are chosen by the neighbour heuristic, a candidate is skipped if
+ * it is nearer to an already chosen neighbour than to the node, so links go
+ * to different directions. A query walks greedily from entry point down to
+ * layer 1, then a best first search keeps ef nearest nodes on layer 0. Larger
+ * ef gives higher recall and slower queries.
+ *
+ * Vectors are inserted one by one, so index grows without a rebuild. Deleted
+ * vectors are only marked, they still route searches but are never returned.
+ *
+ * Inserts and deletes must not run together with other calls. Every thread
+ * keeps its own visited marks, many threads can query at the same time.
+ *
+ * @author Murat AKIN
+ */
+public class Hnsw {
+
+    /* Default number of links of a node on upper layers. */
+    public static final int DEFAULT_M = 16;
+    /* Default number of candidates kept while a node is inserted. */
+    public static final int DEFAULT_EF_CONSTRUCTION = 100;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final int dimension;
+    private final Metric metric;
+    private final int m;
+    private final int maxM0;
+    private final int efConstruction;
+    /* Level of a new node is floor(-ln(U) * levelFactor). */
+    private final double levelFactor;
+    private final Random random;
+
+    /* Vector of node i starts at vectors[i * dimension]. */
+    private double[] vectors;
+    /* Links of node i on layer l are links[i][l], first element is their count. */
+    private int[][][] links;
+    private boolean[] deleted;
+
+    private int size;
+    private int deletedNumber;
+    private int entryPoint = -1;
+    private int maxLevel = -1;
+
+    /* Visited marks are kept for every thread, so searches do not allocate them. */
+    private final ThreadLocal<Visited> visitedOfThread = new ThreadLocal<Visited>() {
+        @Override
+        protected Visited initialValue() {
+            return new Visited();
+        }
+    };
+
+    /**
+     * It creates an empty index.
+     *
+     * @param m number of links of a node on upper layers.
+     * @param efConstruction number of candidates kept while a node is
+     * inserted.
+     * @param seed seed of random levels, same inserts build same graph.
+     */
+    public Hnsw(int dimension, Metric metric, int m, int efConstruction, long seed) {
+        this.dimension = dimension;
+        this.metric = metric;
+        this.m = Math.max(2, m);
+        this.maxM0 = 2 * this.m;
+        this.efConstruction = Math.max(this.m, efConstruction);
+        this.levelFactor = 1 / Math.log(this.m);
+        this.random = new Random(seed);
+
+        vectors = new double[INITIAL_CAPACITY * dimension];
+        links = new int[INITIAL_CAPACITY][][];
+        deleted = new boolean[INITIAL_CAPACITY];
+    }
+
+    /**
+     * It inserts a vector, it is copied.
+     *
+     * @return index of new node, nodes are numbered in insert order.
+     */
+    public int insert(double[] vector) {
+        int node = size;
+        if (node == deleted.length) {
+            int capacity = 2 * node;
+            vectors = Arrays.copyOf(vectors, capacity * dimension);
+            links = Arrays.copyOf(links, capacity);
+            deleted = Arrays.copyOf(deleted, capacity);
+        }
+        System.arraycopy(vector, 0, vectors, node * dimension, dimension);
+
+        int level = (int) (-Math.log(1 - random.nextDouble()) * levelFactor);
+        links[node] = new int[level + 1][];
+        for (int l = 0; l <= level; l++) {
+            links[node][l] = new int[maxLinks(l) + 1];
+        }
+        size++;
+
+        if (entryPoint < 0) {
+            entryPoint = node;
+            maxLevel = level;
+            return node;
+        }
+
+        int from = node * dimension;
+        int current = entryPoint;
+        for (int l = maxLevel; l > level; l--) {
+            current = greedySearch(vectors, from, current, l);
+        }
+
+        for (int l = Math.min(level, maxLevel); l >= 0; l--) {
+            Heap found = searchLayer(vectors, from, current, efConstruction, l, false);
+            int count = found.size;
+            int[] candidates = new int[count];
+            double[] dists = new double[count];
+            found.drainSorted(candidates, dists);
+
+            int[] selected = selectNeighbours(candidates, dists, count, m);
+            int[] nodeLinks = links[node][l];
+            nodeLinks[0] = selected.length;
+            System.arraycopy(selected, 0, nodeLinks, 1, selected.length);
+
+            for (int neighbour : selected) {
+                addLink(neighbour, node, l);
+            }
+            current = candidates[0];
+        }
+
+        if (level > maxLevel) {
+            entryPoint = node;
+            maxLevel = level;
+        }
+        return node;
+    }
+
+    /**
+     * It marks a node deleted, it is not returned by queries anymore.
+     *
+     * @return node was not deleted before or not.
+     */
+    public boolean delete(int node) {
+        if (deleted[node]) {
+            return false;
+        }
+        deleted[node] = true;
+        deletedNumber++;
+        return true;
+    }
+
+    /**
+     * It finds nodes approximately nearest to given vector, as many as
+     * length of result array, and writes them to result nearest first.
+     * Distances are written to dists.
+     *
+     * @param ef number of candidates kept by search, it is at least length of
+     * result.
+     * @return number of nodes found, it is smaller than length of result only
+     * if index has fewer nodes that are not deleted.
+     */
+    public int nearest(double[] query, int ef, int[] result, double[] dists) {
+        int k = result.length;
+        if (k == 0 || size == deletedNumber) {
+            return 0;
+        }
+
+        int current = entryPoint;
+        for (int l = maxLevel; l > 0; l--) {
+            current = greedySearch(query, 0, current, l);
+        }
+
+        Heap found = searchLayer(query, 0, current, Math.max(ef, k), 0, true);
+        while (found.size > k) {
+            found.pop();
+        }
+        int count = found.size;
+        found.drainSorted(result, dists);
+        return count;
+    }
+
+    /**
+     * It moves to nearer neighbours on given layer as long as there is one.
+     */
+    private int greedySearch(double[] query, int from, int start, int layer) {
+        int current = start;
+        double currentDist = distance(query, from, current);
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            int[] nodeLinks = links[current][layer];
+            for (int j = 1; j <= nodeLinks[0]; j++) {
+                int neighbour = nodeLinks[j];
+                double dist = distance(query, from, neighbour);
+                if (dist < currentDist) {
+                    current = neighbour;
+                    currentDist = dist;
+                    changed = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * It searches given layer best first from start node and returns a max
+     * heap of ef nearest nodes found.
+     *
+     * @param liveOnly deleted nodes are walked through but not returned.
+     */
+    private Heap searchLayer(double[] query, int from, int start, int ef, int layer, boolean liveOnly) {
+        Visited visited = visitedOfThread.get();
+        visited.clear(size);
+        // Candidates are a max heap of negative distances, nearest on top.
+        Heap candidates = new Heap(ef + 1);
+        Heap results = new Heap(ef + 1);
+
+        double startDist = distance(query, from, start);
+        visited.visit(start);
+        candidates.push(start, -startDist);
+        if (!liveOnly || !deleted[start]) {
+            results.push(start, startDist);
+        }
+
+        while (candidates.size > 0) {
+            double candidateDist = -candidates.topKey();
+            if (results.size >= ef && candidateDist > results.topKey()) {
+                break;
+            }
+            int candidate = candidates.pop();
+
+            int[] nodeLinks = links[candidate][layer];
+            for (int j = 1; j <= nodeLinks[0]; j++) {
+                int neighbour = nodeLinks[j];
+                if (!visited.visit(neighbour)) {
+                    continue;
+                }
+
+                double dist = distance(query, from, neighbour);
+                if (results.size < ef || dist < results.topKey()) {
+                    candidates.push(neighbour, -dist);
+                    if (!liveOnly || !deleted[neighbour]) {
+                        results.push(neighbour, dist);
+                        if (results.size > ef) {
+                            results.pop();
+                        }
+                    }
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * It chooses at most max neighbours among candidates sorted nearest
+     * first. A candidate is chosen only if it is nearer to the node than to
+     * all chosen ones.
+     */
+    private int[] selectNeighbours(int[] candidates, double[] dists, int count, int max) {
+        int[] selected = new int[Math.min(count, max)];
+        int selectedNumber = 0;
+        for (int c = 0; c < count && selectedNumber < selected.length; c++) {
+            int candidate = candidates[c];
+            int candidateFrom = candidate * dimension;
+            boolean good = true;
+            for (int s = 0; s < selectedNumber && good; s++) {
+                good = distance(vectors, candidateFrom, selected[s]) > dists[c];
+            }
+            if (good) {
+                selected[selectedNumber++] = candidate;
+            }
+        }
+        return Arrays.copyOf(selected, selectedNumber);
+    }
+
+    /**
+     * It links node to target on given layer. If links of node are full, they
+     * are chosen again among old ones and target.
+     */
+    private void addLink(int node, int target, int layer) {
+        int[] nodeLinks = links[node][layer];
+        int count = nodeLinks[0];
+        if (count < nodeLinks.length - 1) {
+            nodeLinks[++count] = target;
+            nodeLinks[0] = count;
+            return;
+        }
+
+        int from = node * dimension;
+        Heap heap = new Heap(count + 1);
+        for (int j = 1; j <= count; j++) {
+            heap.push(nodeLinks[j], distance(vectors, from, nodeLinks[j]));
+        }
+        heap.push(target, distance(vectors, from, target));
+
+        int[] candidates = new int[count + 1];
+        double[] dists = new double[count + 1];
+        heap.drainSorted(candidates, dists);
+
+        int[] selected = selectNeighbours(candidates, dists, count + 1, count);
+        nodeLinks[0] = selected.length;
+        System.arraycopy(selected, 0, nodeLinks, 1, selected.length);
+    }
+
+    private int maxLinks(int layer) {
+        return layer == 0 ? maxM0 : m;
+    }
+
+    private double distance(double[] query, int from, int node) {
+        return metric.distance(query, from, vectors, node * dimension, dimension);
+    }
+
+    /**
+     * A max heap of nodes by their keys.
+     */
+    private static class Heap {
+
+        private int[] nodes;
+        private double[] keys;
+        private int size;
+
+        private Heap(int capacity) {
+            nodes = new int[Math.max(1, capacity)];
+            keys = new double[nodes.length];
+        }
+
+        private void push(int node, double key) {
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, 2 * size);
+                keys = Arrays.copyOf(keys, 2 * size);
+            }
+            nodes[size] = node;
+            keys[size] = key;
+
+            int k = size++;
+            while (k > 0) {
+                int parent = (k - 1) >>> 1;
+                if (keys[parent] >= keys[k]) {
+                    return;
+                }
+                swap(parent, k);
+                k = parent;
+            }
+        }
+
+        private int pop() {
+            int top = nodes[0];
+            size--;
+            swap(0, size);
+
+            int k = 0;
+            while (true) {
+                int child = 2 * k + 1;
+                if (child >= size) {
+                    return top;
+                }
+                if (child + 1 < size && keys[child + 1] > keys[child]) {
+                    child++;
+                }
+                if (keys[k] >= keys[child]) {
+                    return top;
+                }
+                swap(k, child);
+                k = child;
+            }
+        }
+
+        private double topKey() {
+            return keys[0];
+        }
+
+        /**
+         * It empties heap into given arrays, smallest key first.
+         */
+        private void drainSorted(int[] sortedNodes, double[] sortedKeys) {
+            for (int k = size - 1; k >= 0; k--) {
+                sortedKeys[k] = keys[0];
+                sortedNodes[k] = pop();
+            }
+        }
+
+        private void swap(int a, int b) {
+            int tmp = nodes[a];
+            nodes[a] = nodes[b];
+            nodes[b] = tmp;
+            double tmpKey = keys[a];
+            keys[a] = keys[b];
+            keys[b] = tmpKey;
+        }
+    }
+
+    /**
+     * Visited marks of searches of a single thread. A node is visited by
+     * current search if its mark is current stamp, so marks are cleared by
+     * only changing stamp.
+     */
+    private static class Visited {
+
+        private int[] marks = new int[0];
+        private int stamp;
+
+        /**
+         * It starts a new search over given number of nodes.
+         */
+        private void clear(int nodeNumber) {
+            if (marks.length < nodeNumber) {
+                marks = new int[Math.max(nodeNumber, 2 * marks.length)];
+                stamp = 0;
+            }
+            stamp++;
+            if (stamp == 0) {
+                Arrays.fill(marks, 0);
+                stamp = 1;
+            }
+        }
+
+        /**
+         * @return node was not visited before by current search or not.
+         */
+        private boolean visit(int node) {
+            if (marks[node] == stamp) {
+                return false;
+            }
+            marks[node] = stamp;
+            return true;
+        }
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getDeletedNumber() {
+        return deletedNumber;
+    }
+
+    /**
+     * It returns number of layers of graph.
+     */
+    public int getLayerNumber() {
+        return maxLevel + 1;
+    }
+
+    public int getDimension() {
+        return dimension;
+    }
+
+    public Metric getMetric() {
+        return metric;
+    }
+}
@@ -1,17 +1,25 @@
 package algorithmvisualization;
 
-import java.awt.geom.Point2D;
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * This class contains anything about KMeans algorithm visualization.
  *
+ * Iterations are executed by {@link KMeansEngine} on primitive arrays, shapes
+ * in canvas are only updated when they will be drawn.
+ *
  * @author Murat AKIN
  */
-public class KMeans {
+public class KMeans implements Algorithm {
 
     /* Speed of visualization animation. */
     private int speed = 150;
@@ -23,175 +31,678 @@ public class KMeans {
     /* Which iteration executed at any time */
     private int iteration;
 
-    /* It keeps clusters that changed positions at last step - flag for finish */
-    private boolean pointClusterChanged;
+    /* Shapes in canvas, their indexes are same with indexes in engine. */
+    private Point[] points;
+    private Cluster[] clusters;
+
+    /* Coordinates of points and clusters in canvas. */
+    private double[] xs;
+    private double[] ys;
+    private double[] centerXs;
+    private double[] centerYs;
+
+    private KMeansEngine engine;
+
+    /* Which variant of iteration is executed by engine. */
+    private KMeansVariant variant;
+
+    /* Settings of engine, they are applied when algorithm is prepared. */
+    private int parallelism = 1;
+    private int groupNumber;
+    private int batchSize = 1024;
+
+    /* How clusters are placed before first step, and seed of its random choices. */
+    private KMeansSeeding seeding = KMeansSeeding.CANVAS;
+    private long seed;
+
+    /* Number of iterations needed when clusters are placed randomly, and flag that stops that run. */
+    private Future<Integer> randomIterations;
+    private AtomicBoolean randomRunCancelled;
+
+    /* Number of independent runs before animation, clusters of best run are shown. */
+    private int restartNumber = 1;
+    /* Sum of squared errors of each run and index of best run. */
+    private double[] restartErrors;
+    private int bestRestart;
+
+    /* Shapes in canvas are out of date with engine or not. */
+    private boolean dirty;
+    /* All points are out of date or only the ones in dirtyPoints. */
+    private boolean allPointsDirty;
+    /* Points updated by engine since last sync, and marks to add them once. */
+    private int[] dirtyPoints;
+    private int dirtyPointNumber;
+    private boolean[] pointDirty;
+
+    /* Points grouped by cluster, points of cluster c are members[memberStarts[c] .. memberStarts[c + 1] - 1].
+       They are built only when asked, for the iteration in membersIteration. */
+    private Point[] members;
+    private int[] memberStarts;
+    private int membersIteration = -1;
+
+    /* Shapes in canvas, edits are read from here when engine is built again. */
+    private List<Drawable> shapes;
+    /* Index of every point shape in engine, it is built at first edit. */
+    private Map<Point, Integer> pointIndexes;
+    /* Edits could not be given to engine, so it is built again before next step. */
+    private boolean stale;
+
+    public KMeans(List<Drawable> shapes) {
+        this(shapes, KMeansVariant.LLOYD);
+    }
 
-    private List<Point> points;
+    public KMeans(List<Drawable> shapes, KMeansVariant variant) {
+        this.variant = variant;
+        this.shapes = shapes;
 
-    private List<Cluster> clusters;
+        loadShapes(shapes);
+    }
 
+//    public void run() {}
     /**
-     * This data structure stores points and their clusters properly.
+     * It places clusters by selected seeding and builds the engine. Unless
+     * seeding is random, same algorithm is run with random placement in
+     * background, to report how many iterations seeding saved.
+     *
+     * If there are restarts, several runs are completed first and clusters
+     * start from the result of the run with least squared error.
      */
-    private Map<Cluster, List<Point>> pointsInClustersMap;
+    @Override
+    public void prepare() {
+        restartErrors = null;
+        if (restartNumber > 1 && pointNumber > 0 && clusterNumber > 0) {
+            runRestarts();
+        } else {
+            KMeansSeeder seeder = new KMeansSeeder(xs, ys, seed);
+            seeder.setParallelism(parallelism);
+            seeder.seed(seeding, centerXs, centerYs);
+        }
 
-    public KMeans(List<Drawable> shapes) {
-        points = new ArrayList<>();
-        clusters = new ArrayList<>();
+        engine = createEngine(centerXs, centerYs);
+        engine.setParallelism(parallelism);
+        iteration = 0;
+        membersIteration = -1;
+        dirty = true;
+
+        cancel();
+        if (seeding != KMeansSeeding.RANDOM && restartErrors == null && pointNumber > 0 && clusterNumber > 0) {
+            // Background run has its own copy of points and settings, edits in canvas change fields of this context.
+            final double[] runXs = Arrays.copyOf(xs, pointNumber);
+            final double[] runYs = Arrays.copyOf(ys, pointNumber);
+            final double[] randomXs = new double[clusterNumber];
+            final double[] randomYs = new double[clusterNumber];
+            final KMeansVariant runVariant = variant;
+            final int runGroupNumber = groupNumber;
+            final int runBatchSize = batchSize;
+            final int runParallelism = parallelism;
+            final long runSeed = seed;
+            final AtomicBoolean cancelled = new AtomicBoolean();
+            randomRunCancelled = cancelled;
+            randomIterations = ForkJoinPool.commonPool().submit(new Callable<Integer>() {
+                @Override
+                public Integer call() {
+                    new KMeansSeeder(runXs, runYs, runSeed).seed(KMeansSeeding.RANDOM, randomXs, randomYs);
+
+                    KMeansEngine randomEngine = createEngine(runVariant, runGroupNumber, runBatchSize,
+                            runXs, runYs, randomXs, randomYs, runSeed);
+                    randomEngine.setParallelism(runParallelism);
+                    int steps = 0;
+                    boolean changed;
+                    do {
+                        changed = randomEngine.step();
+                        steps++;
+                    } while (changed && !cancelled.get());
+                    return steps;
+                }
+            });
+        }
+    }
 
-        pointsInClustersMap = new HashMap<>();
+    /**
+     * It stops the run with random placement in background, if there is one.
+     * It should be called when this algorithm is not used anymore.
+     */
+    public void cancel() {
+        if (randomIterations != null) {
+            randomRunCancelled.set(true);
+            randomIterations.cancel(false);
+            randomIterations = null;
+            randomRunCancelled = null;
+        }
+    }
 
-        loadShapes(shapes);
+    /**
+     * It completes independent runs concurrently and copies clusters of the
+     * run with least squared error to centerXs and centerYs. Runs share point
+     * arrays, each of them has its own seed, centers and engine. Run r is
+     * seeded with seed + r, and with random placement instead of canvas
+     * positions if r > 0.
+     */
+    private void runRestarts() {
+        final double[][] restartXs = new double[restartNumber][];
+        final double[][] restartYs = new double[restartNumber][];
+        restartErrors = new double[restartNumber];
+
+        ParallelBlocks.run(ParallelBlocks.pool(parallelism), restartNumber, 1, new ParallelBlocks.BlockAction() {
+            @Override
+            public void run(int block, int from, int to) {
+                for (int r = from; r < to; r++) {
+                    double[] runXs = centerXs.clone();
+                    double[] runYs = centerYs.clone();
+                    KMeansSeeding runSeeding = seeding == KMeansSeeding.CANVAS && r > 0 ? KMeansSeeding.RANDOM : seeding;
+                    new KMeansSeeder(xs, ys, seed + r).seed(runSeeding, runXs, runYs);
+
+                    KMeansEngine runEngine = createEngine(xs, ys, runXs, runYs, seed + r);
+                    while (runEngine.step()) {
+                        // Run until no point changes its cluster.
+                    }
+
+                    for (int c = 0; c < clusterNumber; c++) {
+                        runXs[c] = runEngine.getCenterX(c);
+                        runYs[c] = runEngine.getCenterY(c);
+                    }
+                    restartXs[r] = runXs;
+                    restartYs[r] = runYs;
+                    restartErrors[r] = runEngine.getSquaredError();
+                }
+            }
+        });
+
+        // Ties go to the earlier run, so result does not depend on parallelism.
+        bestRestart = 0;
+        for (int r = 1; r < restartNumber; r++) {
+            if (restartErrors[r] < restartErrors[bestRestart]) {
+                bestRestart = r;
+            }
+        }
+
+        System.arraycopy(restartXs[bestRestart], 0, centerXs, 0, clusterNumber);
+        System.arraycopy(restartYs[bestRestart], 0, centerYs, 0, clusterNumber);
     }
 
-//    public void run() {}
-    public void prepare() {}
+    /**
+     * It builds an engine of selected variant with settings of this context.
+     */
+    private KMeansEngine createEngine(double[] centerXs, double[] centerYs) {
+        return createEngine(xs, ys, centerXs, centerYs, seed);
+    }
+
+    /**
+     * It builds an engine of selected variant on given points, a mini-batch
+     * engine samples points with given seed.
+     */
+    private KMeansEngine createEngine(double[] pointXs, double[] pointYs, double[] centerXs, double[] centerYs, long engineSeed) {
+        return createEngine(variant, groupNumber, batchSize, pointXs, pointYs, centerXs, centerYs, engineSeed);
+    }
+
+    /**
+     * It builds an engine of given variant and settings on given points, it
+     * does not read this context, so it can run in background.
+     */
+    private static KMeansEngine createEngine(KMeansVariant variant, int groupNumber, int batchSize,
+            double[] pointXs, double[] pointYs, double[] centerXs, double[] centerYs, long engineSeed) {
+        KMeansEngine newEngine = KMeansEngine.create(variant, pointXs, pointYs, centerXs, centerYs, engineSeed);
+
+        if (newEngine instanceof YinyangKMeansEngine) {
+            ((YinyangKMeansEngine) newEngine).setGroupNumber(groupNumber);
+        }
+        if (newEngine instanceof MiniBatchKMeansEngine) {
+            ((MiniBatchKMeansEngine) newEngine).setBatchSize(batchSize);
+        }
+        return newEngine;
+    }
 
     /**
      * This execute a single step of algorithm.
      *
-     * @see KMeans#pointClustering()
-     * @see KMeans#updatePoisitonsOfClusters()
+     * @see KMeansEngine#step()
      */
+    @Override
     public void step() {
-        pointClustering();
-        updatePoisitonsOfClusters();
+        if (stale) {
+            rebuild();
+        }
+        if (clusterNumber == 0) {
+            // All clusters are removed from canvas, there is nothing to iterate.
+            return;
+        }
+
+        engine.step();
         iteration++;
+        dirty = true;
+
+        markUpdatedPoints(engine.getUpdatedPoints());
+    }
+
+    /**
+     * It keeps points updated by last step until shapes are synchronized.
+     * Several steps may be executed between two syncs.
+     */
+    private void markUpdatedPoints(int[] updated) {
+        if (allPointsDirty) {
+            return;
+        }
+
+        if (updated == null || dirtyPointNumber + updated.length > pointNumber / 2) {
+            allPointsDirty = true;
+            return;
+        }
+
+        for (int i : updated) {
+            markPoint(i);
+        }
+    }
+
+    /**
+     * It adds a point to points out of date, unless it is already added.
+     */
+    private void markPoint(int i) {
+        if (pointDirty == null) {
+            pointDirty = new boolean[points.length];
+            dirtyPoints = new int[16];
+        } else if (pointDirty.length < points.length) {
+            pointDirty = Arrays.copyOf(pointDirty, points.length);
+        }
+
+        if (pointDirty[i]) {
+            return;
+        }
+
+        if (dirtyPointNumber == dirtyPoints.length) {
+            dirtyPoints = Arrays.copyOf(dirtyPoints, 2 * dirtyPoints.length);
+        }
+        pointDirty[i] = true;
+        dirtyPoints[dirtyPointNumber++] = i;
     }
 
     /**
      * It returns execution of algorithm done or not.
      */
+    @Override
     public boolean isFinished() {
-        return !pointClusterChanged;
+        return !stale && !engine.isChanged();
     }
 
     /**
-     * It put points to clusters as algorithm logic properly.
+     * It copies clusters of points and positions of clusters from engine to
+     * shapes in canvas. It should be called just before shapes are drawn.
      */
-    private void pointClustering() {
-        double pX, pY;
-        double cX, cY;
-        double minDist, newDist;
-        Cluster nearestCluster;
+    public void syncShapes() {
+        if (!dirty) {
+            return;
+        }
 
-        for (Map.Entry<Cluster, List<Point>> entry : pointsInClustersMap.entrySet()) {
-            List<Point> value = entry.getValue();
+        for (int c = 0; c < clusterNumber; c++) {
+            clusters[c].setLocation(engine.getCenterX(c), engine.getCenterY(c));
+        }
 
-            value.clear();
+        if (allPointsDirty) {
+            for (int i = 0; i < pointNumber; i++) {
+                syncPoint(i);
+            }
         }
 
-        pointClusterChanged = false;
-        for (Point point : points) {
-            pX = point.getCenterX();
-            pY = point.getCenterY();
+        for (int k = 0; k < dirtyPointNumber; k++) {
+            // Removed points may be left in the list.
+            if (!allPointsDirty && dirtyPoints[k] < pointNumber) {
+                syncPoint(dirtyPoints[k]);
+            }
+            pointDirty[dirtyPoints[k]] = false;
+        }
 
-            minDist = Integer.MAX_VALUE;
-            nearestCluster = null;
-            for (Cluster cluster : clusters) {
+        allPointsDirty = false;
+        dirtyPointNumber = 0;
+        dirty = false;
+    }
 
-                cX = cluster.getCenterX();
-                cY = cluster.getCenterY();
+    /**
+     * It copies cluster of a point from engine to its shape.
+     */
+    private void syncPoint(int i) {
+        int c = engine.getAssignment(i);
+        if (c < 0) {
+            return;
+        }
 
-                newDist = Point2D.distance(pX, pY, cX, cY);
-                if (newDist < minDist) {
-                    minDist = newDist;
-                    nearestCluster = cluster;
-                }
+        Cluster cluster = clusters[c];
+        Point point = points[i];
+
+        point.setColor(cluster.getColor());
+        point.setRayLine(cluster.getCenterX(), cluster.getCenterY());
+        point.setCluster(cluster);
+    }
+
+    /**
+     * It lets algorithm follow a shape added to canvas. A point is given to
+     * engine if it can be edited, otherwise engine is built again before
+     * next step.
+     */
+    public void shapeAdded(Drawable shape) {
+        if (!stale && shape instanceof Point && engine.isEditable()) {
+            Point point = (Point) shape;
+            int i = engine.addPoint(point.getCenterX(), point.getCenterY());
+            if (i == points.length) {
+                points = Arrays.copyOf(points, Math.max(16, 2 * points.length));
             }
 
-            if (nearestCluster != point.getCluster()) {
-                pointClusterChanged = true;
+            points[i] = point;
+            pointNumber++;
+            getPointIndexes().put(point, i);
+            edited(i);
+        } else if (shape instanceof Point || shape instanceof Cluster) {
+            stale = true;
+        }
+    }
+
+    /**
+     * It lets algorithm follow a shape removed from canvas.
+     */
+    public void shapeRemoved(Drawable shape) {
+        if (!stale && shape instanceof Point && engine.isEditable()) {
+            Integer index = getPointIndexes().remove(shape);
+            if (index == null) {
+                return;
             }
 
-            point.setColor(nearestCluster.getColor());
-            point.setRayLine(nearestCluster.getCenterX(), nearestCluster.getCenterY());
-            point.setCluster(nearestCluster);
-            pointsInClustersMap.get(nearestCluster).add(point);
+            int i = index;
+            engine.removePoint(i);
+
+            // Engine moves last point to index of removed point.
+            int last = --pointNumber;
+            points[i] = points[last];
+            points[last] = null;
+            if (i != last) {
+                pointIndexes.put(points[i], i);
+                edited(i);
+            } else {
+                edited(-1);
+            }
+        } else if (shape instanceof Point || shape instanceof Cluster) {
+            stale = true;
+        }
+    }
+
+    /**
+     * It lets algorithm follow a shape moved in canvas.
+     */
+    public void shapeMoved(Drawable shape) {
+        if (stale) {
+            return;
         }
 
+        if (!engine.isEditable()) {
+            stale = shape instanceof Point || shape instanceof Cluster;
+        } else if (shape instanceof Point) {
+            Integer index = getPointIndexes().get(shape);
+            if (index != null) {
+                engine.movePoint(index, shape.getCenterX(), shape.getCenterY());
+                edited(index);
+            }
+        } else if (shape instanceof Cluster) {
+            for (int c = 0; c < clusterNumber; c++) {
+                if (clusters[c] == shape) {
+                    engine.moveCluster(c, shape.getCenterX(), shape.getCenterY());
+                    edited(-1);
+                    break;
+                }
+            }
+        }
     }
 
     /**
-     * It updates position of clusters before next iteration because of logic of
-     * algorithm.
+     * It marks shapes out of date after an edit, -1 means no point.
      */
-    private void updatePoisitonsOfClusters() {
-        for (Map.Entry<Cluster, List<Point>> entry : pointsInClustersMap.entrySet()) {
-            Cluster cluster = entry.getKey();
-            List<Point> points = entry.getValue();
+    private void edited(int point) {
+        if (point >= 0) {
+            markPoint(point);
+        }
+        membersIteration = -1;
+        dirty = true;
+    }
 
-            if (points.isEmpty()) {
-                continue;
+    private Map<Point, Integer> getPointIndexes() {
+        if (pointIndexes == null) {
+            pointIndexes = new HashMap<>();
+            for (int i = 0; i < pointNumber; i++) {
+                pointIndexes.put(points[i], i);
             }
+        }
+        return pointIndexes;
+    }
+
+    /**
+     * It builds engine again from shapes in canvas. Clusters that were
+     * already in engine start from their positions in engine, so work done
+     * so far is kept.
+     */
+    private void rebuild() {
+        // Run with random placement was started on shapes before edits, it can not be compared anymore.
+        cancel();
+
+        Map<Cluster, Integer> oldIndexes = new HashMap<>();
+        for (int c = 0; c < clusterNumber; c++) {
+            oldIndexes.put(clusters[c], c);
+        }
+        KMeansEngine oldEngine = engine;
 
-            double xSum = 0, ySum = 0;
-            for (Point point : points) {
-                xSum += point.getCenterX();
-                ySum += point.getCenterY();
+        loadShapes(shapes);
+        for (int c = 0; c < clusterNumber; c++) {
+            Integer old = oldIndexes.get(clusters[c]);
+            if (old != null) {
+                centerXs[c] = oldEngine.getCenterX(old);
+                centerYs[c] = oldEngine.getCenterY(old);
             }
+        }
 
-            int n = points.size();
-            double newX = xSum / n;
-            double newY = ySum / n;
+        engine = createEngine(centerXs, centerYs);
+        engine.setParallelism(parallelism);
 
-            cluster.setLocation(newX, newY);
+        pointIndexes = null;
+        pointDirty = null;
+        dirtyPointNumber = 0;
+        allPointsDirty = false;
+        members = null;
+        membersIteration = -1;
+        stale = false;
+    }
+
+    /**
+     * It returns points of given cluster at last step. Lists are built from
+     * clusters of points in engine only when they are asked, once for an
+     * iteration.
+     */
+    public List<Point> getClusterPoints(int cluster) {
+        if (membersIteration != iteration) {
+            buildMembers();
+        }
+
+        List<Point> all = Arrays.asList(members);
+        return Collections.unmodifiableList(all.subList(memberStarts[cluster], memberStarts[cluster + 1]));
+    }
+
+    /**
+     * It groups points by their clusters with a counting sort.
+     */
+    private void buildMembers() {
+        if (members == null || members.length < pointNumber) {
+            members = new Point[pointNumber];
+            memberStarts = new int[clusterNumber + 1];
+        }
 
-            for (Point point : points) {
-                point.setRayLine(cluster.getCenterX(), cluster.getCenterY());
+        Arrays.fill(memberStarts, 0);
+        for (int i = 0; i < pointNumber; i++) {
+            int c = engine.getAssignment(i);
+            if (c >= 0) {
+                memberStarts[c + 1]++;
             }
+        }
+        for (int c = 0; c < clusterNumber; c++) {
+            memberStarts[c + 1] += memberStarts[c];
+        }
 
+        int[] next = Arrays.copyOf(memberStarts, clusterNumber);
+        for (int i = 0; i < pointNumber; i++) {
+            int c = engine.getAssignment(i);
+            if (c >= 0) {
+                members[next[c]++] = points[i];
+            }
         }
+
+        membersIteration = iteration;
     }
 
     /**
      * It prepares and returns a report of last step as string.
      */
+    @Override
     public String report() {
         StringBuilder strBuilder = new StringBuilder();
 
         strBuilder.append("\nIteration: ").append(iteration).append("\n");
 
-        int count = 0;
-        for (Map.Entry<Cluster, List<Point>> entry : pointsInClustersMap.entrySet()) {
-            Cluster c = entry.getKey();
-            List<Point> pList = entry.getValue();
+        if (iteration == 1 && restartErrors != null) {
+            strBuilder.append("Restarts: ").append(restartNumber).append(", best: ").append(bestRestart).append("\n");
+            for (int r = 0; r < restartNumber; r++) {
+                strBuilder.append("\t").append("Run ").append(r).append(" squared error: ");
+                strBuilder.append(HelperMethods.scaleDouble(restartErrors[r], 2)).append("\n");
+            }
+        }
 
-            double x = HelperMethods.scaleDouble(c.getCenterX(), 2);
-            double y = HelperMethods.scaleDouble(c.getCenterY(), 2);
+        if (variant != KMeansVariant.LLOYD) {
+            strBuilder.append("Distances computed: ").append(engine.getDistanceCount());
+            strBuilder.append(", skipped: ").append(engine.getSkippedDistanceCount()).append("\n");
+        }
 
-            strBuilder.append("-->").append("Cluster: ").append(count).append("\n");
-            strBuilder.append("\t").append("Location: ").append(x).append(", ").append(y).append("\n");
-            strBuilder.append("\tContains ").append(pList.size()).append(" point!\n");
+        if (engine instanceof MiniBatchKMeansEngine) {
+            double movement = ((MiniBatchKMeansEngine) engine).getMovement();
+            strBuilder.append("Largest cluster movement: ").append(HelperMethods.scaleDouble(movement, 4)).append("\n");
+        }
 
-            count++;
+        if (isFinished() && randomIterations != null) {
+            appendSavedIterations(strBuilder);
+        }
+
+        for (int c = 0; c < clusterNumber; c++) {
+            double x = HelperMethods.scaleDouble(engine.getCenterX(c), 2);
+            double y = HelperMethods.scaleDouble(engine.getCenterY(c), 2);
+
+            strBuilder.append("-->").append("Cluster: ").append(c).append("\n");
+            strBuilder.append("\t").append("Location: ").append(x).append(", ").append(y).append("\n");
+            strBuilder.append("\tContains ").append(engine.getClusterSize(c)).append(" point!\n");
         }
 
         return strBuilder.toString();
     }
 
     /**
-     * It loads all shapes in canvas to this context properly.
+     * It appends how many iterations seeding saved, or that the run with
+     * random placement is still pending. It does not wait for that run.
+     */
+    private void appendSavedIterations(StringBuilder strBuilder) {
+        if (!randomIterations.isDone()) {
+            strBuilder.append("Iterations with random placement: pending\n");
+            return;
+        }
+        try {
+            int randomSteps = randomIterations.get();
+            strBuilder.append("Iterations with random placement: ").append(randomSteps);
+            strBuilder.append(", saved by ").append(seeding).append(": ").append(randomSteps - iteration).append("\n");
+        } catch (InterruptedException | ExecutionException ex) {
+            strBuilder.append("Iterations with random placement could not be computed.\n");
+        }
+    }
+
+    /**
+     * It loads all shapes in canvas to this context properly and keeps their
+     * coordinates for the engine.
      */
     private void loadShapes(List<Drawable> shapes) {
+        pointNumber = 0;
+        clusterNumber = 0;
         for (Drawable shape : shapes) {
             if (shape instanceof Point) {
-                points.add((Point) shape);
                 pointNumber++;
             } else if (shape instanceof Cluster) {
-                Cluster cluster = (Cluster) shape;
-                clusters.add(cluster);
                 clusterNumber++;
+            }
+        }
+
+        points = new Point[pointNumber];
+        clusters = new Cluster[clusterNumber];
+
+        xs = new double[pointNumber];
+        ys = new double[pointNumber];
+        centerXs = new double[clusterNumber];
+        centerYs = new double[clusterNumber];
 
-                pointsInClustersMap.put(cluster, new ArrayList<>());
+        int p = 0, c = 0;
+        for (Drawable shape : shapes) {
+            if (shape instanceof Point) {
+                points[p] = (Point) shape;
+                xs[p] = shape.getCenterX();
+                ys[p] = shape.getCenterY();
+                p++;
+            } else if (shape instanceof Cluster) {
+                clusters[c] = (Cluster) shape;
+                centerXs[c] = shape.getCenterX();
+                centerYs[c] = shape.getCenterY();
+                c++;
             }
         }
     }
 
+    /**
+     * It sets number of threads used by iterations, 1 means sequential.
+     */
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * It sets number of cluster groups used by Yinyang variant, 0 means
+     * automatic. Other variants ignore it.
+     */
+    public void setGroupNumber(int groupNumber) {
+        this.groupNumber = groupNumber;
+    }
+
+    /**
+     * It sets number of points sampled at each step by mini-batch variant.
+     * Other variants ignore it.
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * It sets number of independent runs completed when algorithm is
+     * prepared, 1 means a single animated run.
+     */
+    public void setRestartNumber(int restartNumber) {
+        this.restartNumber = Math.max(1, restartNumber);
+    }
+
+    /**
+     * It sets how clusters are placed when algorithm is prepared.
+     */
+    public void setSeeding(KMeansSeeding seeding) {
+        this.seeding = seeding;
+    }
+
+    /**
+     * It sets seed of random choices of seeding and of mini-batch sampling,
+     * same seed places clusters same and samples same batches.
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    @Override
     public int getSpeed() {
         return speed;
     }
 
+    @Override
     public void setSpeed(int speed) {
         this.speed = speed;
     }
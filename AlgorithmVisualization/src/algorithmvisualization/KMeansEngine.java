@@ -0,0 +1,459 @@
+package algorithmvisualization;
+
+import java.awt.geom.Point2D;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * This class runs K-Means iterations on primitive arrays. It does not know
+ * anything about shapes in canvas, so hot loops do not chase any pointer.
+ *
+ * @author Murat AKIN
+ */
+public class KMeansEngine {
+
+    /* Smallest number of points processed by a single task. */
+    private static final int MIN_BLOCK_SIZE = 4096;
+    /* Upper limit of blocks, it bounds memory of partial sums. */
+    private static final int MAX_BLOCK_NUMBER = 256;
+
+    /* Coordinates of points, arrays may be longer than pointNumber after edits. */
+    protected double[] xs;
+    protected double[] ys;
+
+    /* Index of nearest cluster of each point, -1 means not assigned yet. */
+    protected int[] assignments;
+
+    /* Coordinates of cluster centers. */
+    protected final double[] centerXs;
+    protected final double[] centerYs;
+
+    /* Number of points in each cluster and sums of their coordinates at last step. */
+    protected final int[] clusterSizes;
+    protected final double[] clusterXSums;
+    protected final double[] clusterYSums;
+
+    protected int pointNumber;
+    protected final int clusterNumber;
+
+    /* Any point changed its cluster at last step or not - flag for finish */
+    protected boolean changed;
+    /* Cluster sums contain every assigned point, so edits can adjust them. */
+    private boolean summed;
+
+    /* Points are processed in blocks of this size, it does not depend on parallelism. */
+    protected final int blockSize;
+    protected int blockNumber;
+
+    /* Partial sums of blocks, cluster c of block b is at index b * clusterNumber + c */
+    private double[] blockXSums;
+    private double[] blockYSums;
+    private int[] blockCounts;
+    private boolean[] blockChanged;
+    /* Number of distances computed by each block at last step */
+    private long[] blockDistanceCounts;
+
+    /* Pool that runs blocks, null means sequential execution. */
+    protected ForkJoinPool pool;
+
+    private final ParallelBlocks.BlockAction blockAction = new ParallelBlocks.BlockAction() {
+        @Override
+        public void run(int block, int from, int to) {
+            assignBlock(block, from, to);
+        }
+    };
+
+    /**
+     * Point arrays are used as they are, center arrays are copied.
+     */
+    public KMeansEngine(double[] xs, double[] ys, double[] centerXs, double[] centerYs) {
+        this.xs = xs;
+        this.ys = ys;
+        this.pointNumber = xs.length;
+
+        this.centerXs = centerXs.clone();
+        this.centerYs = centerYs.clone();
+        this.clusterNumber = centerXs.length;
+
+        this.assignments = new int[pointNumber];
+        this.clusterSizes = new int[clusterNumber];
+        this.clusterXSums = new double[clusterNumber];
+        this.clusterYSums = new double[clusterNumber];
+
+        for (int i = 0; i < pointNumber; i++) {
+            assignments[i] = -1;
+        }
+
+        this.blockSize = ParallelBlocks.blockSize(pointNumber, MIN_BLOCK_SIZE, MAX_BLOCK_NUMBER);
+        allocateBlocks();
+    }
+
+    /**
+     * It allocates partial sums for blocks needed by current number of
+     * points.
+     */
+    private void allocateBlocks() {
+        blockNumber = ParallelBlocks.blockCount(pointNumber, blockSize);
+
+        blockXSums = new double[blockNumber * clusterNumber];
+        blockYSums = new double[blockNumber * clusterNumber];
+        blockCounts = new int[blockNumber * clusterNumber];
+        blockChanged = new boolean[blockNumber];
+        blockDistanceCounts = new long[blockNumber];
+    }
+
+    /**
+     * It creates an engine which runs given variant of algorithm. Seed is
+     * used by variants that sample points.
+     */
+    public static KMeansEngine create(KMeansVariant variant,
+            double[] xs, double[] ys, double[] centerXs, double[] centerYs, long seed) {
+        switch (variant) {
+            case ELKAN:
+                return new ElkanKMeansEngine(xs, ys, centerXs, centerYs);
+            case HAMERLY:
+                return new HamerlyKMeansEngine(xs, ys, centerXs, centerYs);
+            case YINYANG:
+                return new YinyangKMeansEngine(xs, ys, centerXs, centerYs);
+            case KD_TREE:
+                return new KdTreeKMeansEngine(xs, ys, centerXs, centerYs);
+            case MINI_BATCH:
+                return new MiniBatchKMeansEngine(xs, ys, centerXs, centerYs, seed);
+            default:
+                return new KMeansEngine(xs, ys, centerXs, centerYs);
+        }
+    }
+
+    /**
+     * It executes a single Lloyd iteration.
+     *
+     * @return any point changed its cluster or not.
+     */
+    public boolean step() {
+        beforeAssign();
+        changed = assignPoints();
+        summed = true;
+        updateCenters();
+        afterUpdate();
+        return changed;
+    }
+
+    /**
+     * It puts every point to its nearest cluster and sums coordinates of
+     * points of every cluster to clusterXSums, clusterYSums and clusterSizes.
+     * Points are assigned block by block, every block sums its points per
+     * cluster and these partial sums are reduced in block order.
+     *
+     * @return any point changed its cluster or not.
+     */
+    protected boolean assignPoints() {
+        if (ParallelBlocks.blockCount(pointNumber, blockSize) != blockNumber) {
+            allocateBlocks();
+        }
+        ParallelBlocks.run(pool, pointNumber, blockSize, blockAction);
+
+        boolean anyChanged = false;
+        for (int b = 0; b < blockNumber; b++) {
+            anyChanged |= blockChanged[b];
+        }
+
+        for (int c = 0; c < clusterNumber; c++) {
+            double xSum = 0, ySum = 0;
+            int n = 0;
+            for (int b = 0, offset = c; b < blockNumber; b++, offset += clusterNumber) {
+                xSum += blockXSums[offset];
+                ySum += blockYSums[offset];
+                n += blockCounts[offset];
+            }
+
+            clusterXSums[c] = xSum;
+            clusterYSums[c] = ySum;
+            clusterSizes[c] = n;
+        }
+
+        return anyChanged;
+    }
+
+    /**
+     * It is called before points are assigned at every step.
+     */
+    protected void beforeAssign() {
+    }
+
+    /**
+     * It is called after clusters are moved at every step.
+     */
+    protected void afterUpdate() {
+    }
+
+    /**
+     * It puts every point of block to its nearest cluster and sums
+     * coordinates of these points per cluster. Squared distances are compared,
+     * so no square root is taken.
+     */
+    protected void assignBlock(int block, int from, int to) {
+        int offset = block * clusterNumber;
+        clearBlockSums(offset);
+
+        boolean anyChanged = false;
+        for (int i = from; i < to; i++) {
+            double pX = xs[i];
+            double pY = ys[i];
+
+            double minDist = Double.MAX_VALUE;
+            int nearest = -1;
+            for (int c = 0; c < clusterNumber; c++) {
+                double newDist = Point2D.distanceSq(pX, pY, centerXs[c], centerYs[c]);
+                if (newDist < minDist) {
+                    minDist = newDist;
+                    nearest = c;
+                }
+            }
+
+            if (nearest != assignments[i]) {
+                anyChanged = true;
+                assignments[i] = nearest;
+            }
+
+            addToBlockSums(offset, i, nearest);
+        }
+
+        setBlockResult(block, anyChanged, (long) (to - from) * clusterNumber);
+    }
+
+    /**
+     * It adds point to partial sums of given cluster in the block starts at
+     * given offset.
+     */
+    protected final void addToBlockSums(int offset, int point, int cluster) {
+        blockXSums[offset + cluster] += xs[point];
+        blockYSums[offset + cluster] += ys[point];
+        blockCounts[offset + cluster]++;
+    }
+
+    /**
+     * It keeps whether any point of block changed its cluster and how many
+     * distances are computed for the block.
+     */
+    protected final void setBlockResult(int block, boolean anyChanged, long distanceCount) {
+        blockChanged[block] = anyChanged;
+        blockDistanceCounts[block] = distanceCount;
+    }
+
+    /**
+     * It resets partial sums of the block starts at given offset.
+     */
+    protected void clearBlockSums(int offset) {
+        for (int c = 0; c < clusterNumber; c++) {
+            blockXSums[offset + c] = 0;
+            blockYSums[offset + c] = 0;
+            blockCounts[offset + c] = 0;
+        }
+    }
+
+    /**
+     * It moves every non-empty cluster to the mean of its points.
+     */
+    private void updateCenters() {
+        for (int c = 0; c < clusterNumber; c++) {
+            updateCenter(c);
+        }
+    }
+
+    /**
+     * It moves a non-empty cluster to the mean of its points.
+     */
+    private void updateCenter(int c) {
+        int n = clusterSizes[c];
+        if (n == 0) {
+            return;
+        }
+
+        centerXs[c] = clusterXSums[c] / n;
+        centerYs[c] = clusterYSums[c] / n;
+    }
+
+    /**
+     * It returns whether points and clusters can be edited between steps.
+     * Variants that keep bounds or a tree for every point can not be edited,
+     * they should be built again.
+     */
+    public boolean isEditable() {
+        return true;
+    }
+
+    /**
+     * It adds a point, puts it to its nearest cluster and moves that cluster
+     * to the new mean of its points. Other points are not visited. Clusters
+     * are not moved by edits before first step.
+     *
+     * @return index of new point.
+     */
+    public int addPoint(double x, double y) {
+        if (pointNumber == xs.length) {
+            int capacity = Math.max(16, 2 * pointNumber);
+            xs = Arrays.copyOf(xs, capacity);
+            ys = Arrays.copyOf(ys, capacity);
+            assignments = Arrays.copyOf(assignments, capacity);
+        }
+
+        int i = pointNumber++;
+        xs[i] = x;
+        ys[i] = y;
+        assignments[i] = -1;
+        assignEdited(i);
+        return i;
+    }
+
+    /**
+     * It moves a point, puts it to its nearest cluster and moves its old and
+     * new clusters to the new means of their points.
+     */
+    public void movePoint(int i, double x, double y) {
+        unassignEdited(i);
+        xs[i] = x;
+        ys[i] = y;
+        assignEdited(i);
+    }
+
+    /**
+     * It removes a point and moves its cluster to the new mean of its points.
+     * Last point takes index of removed point.
+     */
+    public void removePoint(int i) {
+        unassignEdited(i);
+
+        int last = --pointNumber;
+        xs[i] = xs[last];
+        ys[i] = ys[last];
+        assignments[i] = assignments[last];
+        changed = true;
+    }
+
+    /**
+     * It moves a cluster. Points are put to their nearest clusters again at
+     * next step.
+     */
+    public void moveCluster(int c, double x, double y) {
+        centerXs[c] = x;
+        centerYs[c] = y;
+        changed = true;
+    }
+
+    /**
+     * It puts an edited point to its nearest cluster and adds it to sums of
+     * that cluster.
+     */
+    private void assignEdited(int i) {
+        double minDist = Double.MAX_VALUE;
+        int nearest = -1;
+        for (int c = 0; c < clusterNumber; c++) {
+            double newDist = Point2D.distanceSq(xs[i], ys[i], centerXs[c], centerYs[c]);
+            if (newDist < minDist) {
+                minDist = newDist;
+                nearest = c;
+            }
+        }
+
+        assignments[i] = nearest;
+        if (summed && nearest >= 0) {
+            clusterXSums[nearest] += xs[i];
+            clusterYSums[nearest] += ys[i];
+            clusterSizes[nearest]++;
+            updateCenter(nearest);
+        }
+        changed = true;
+    }
+
+    /**
+     * It removes an edited point from sums of its cluster.
+     */
+    private void unassignEdited(int i) {
+        int c = assignments[i];
+        if (!summed || c < 0) {
+            return;
+        }
+
+        clusterXSums[c] -= xs[i];
+        clusterYSums[c] -= ys[i];
+        clusterSizes[c]--;
+        updateCenter(c);
+    }
+
+    /**
+     * It sets number of threads used by iterations, 1 means sequential.
+     * Assignments do not depend on this value.
+     */
+    public void setParallelism(int parallelism) {
+        this.pool = ParallelBlocks.pool(parallelism);
+    }
+
+    /**
+     * It returns number of point-cluster distances computed at last step.
+     */
+    public long getDistanceCount() {
+        long count = 0;
+        for (int b = 0; b < blockNumber; b++) {
+            count += blockDistanceCounts[b];
+        }
+        return count;
+    }
+
+    /**
+     * It returns number of point-cluster distances that are not computed at
+     * last step, compared with a full Lloyd iteration.
+     */
+    public long getSkippedDistanceCount() {
+        return Math.max(0, (long) pointNumber * clusterNumber - getDistanceCount());
+    }
+
+    /**
+     * It returns sum of squared distances between points and their clusters.
+     */
+    public double getSquaredError() {
+        double error = 0;
+        for (int i = 0; i < pointNumber; i++) {
+            int c = assignments[i];
+            if (c >= 0) {
+                error += Point2D.distanceSq(xs[i], ys[i], centerXs[c], centerYs[c]);
+            }
+        }
+        return error;
+    }
+
+    /**
+     * It returns points whose clusters may be changed at last step, null
+     * means all points. Returned array is valid until next step.
+     */
+    public int[] getUpdatedPoints() {
+        return null;
+    }
+
+    public boolean isChanged() {
+        return changed;
+    }
+
+    public int getAssignment(int point) {
+        return assignments[point];
+    }
+
+    public double getCenterX(int cluster) {
+        return centerXs[cluster];
+    }
+
+    public double getCenterY(int cluster) {
+        return centerYs[cluster];
+    }
+
+    public int getClusterSize(int cluster) {
+        return clusterSizes[cluster];
+    }
+
+    public int getPointNumber() {
+        return pointNumber;
+    }
+
+    public int getClusterNumber() {
+        return clusterNumber;
+    }
+}
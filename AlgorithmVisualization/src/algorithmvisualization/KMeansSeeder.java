@@ -0,0 +1,363 @@
+package algorithmvisualization;
+
+import java.awt.geom.Point2D;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * This class places clusters before K-Means iterations.
+ *
+ * k-means++ picks every cluster among points with probability proportional to
+ * squared distance to nearest cluster picked so far. k-means|| picks many
+ * candidates at a few rounds independently, then reduces them to clusters by
+ * weighted k-means++. Same seed always gives same clusters, for every
+ * parallelism.
+ *
+ * @author Murat AKIN
+ */
+public class KMeansSeeder {
+
+    /* Smallest number of points processed by a single task. */
+    private static final int MIN_BLOCK_SIZE = 4096;
+    /* Upper limit of blocks, it bounds memory of partial sums. */
+    private static final int MAX_BLOCK_NUMBER = 256;
+
+    /* Number of sampling rounds of k-means||. */
+    private static final int PARALLEL_ROUNDS = 5;
+
+    private final double[] xs;
+    private final double[] ys;
+    private final int pointNumber;
+
+    private final long seed;
+    private Random random;
+
+    private final int blockSize;
+    private final int blockNumber;
+
+    /* Squared distance of each point to its nearest chosen center. */
+    private double[] minDists;
+    /* Index of nearest chosen center of each point. */
+    private int[] nearestCenters;
+    /* Sum of minDists in each block. */
+    private final double[] blockSums;
+
+    /* Chosen centers, new ones are in [updateFrom, updateTo). */
+    private double[] chosenXs;
+    private double[] chosenYs;
+    private int chosenNumber;
+    private int updateFrom;
+    private int updateTo;
+
+    /* Points sampled by each block at current k-means|| round. */
+    private boolean[] sampled;
+    private int round;
+    private double oversampling;
+    private double potential;
+
+    /* Pool that runs blocks, null means sequential execution. */
+    private ForkJoinPool pool;
+
+    private final ParallelBlocks.BlockAction updateAction = new ParallelBlocks.BlockAction() {
+        @Override
+        public void run(int block, int from, int to) {
+            updateBlock(block, from, to);
+        }
+    };
+
+    private final ParallelBlocks.BlockAction sampleAction = new ParallelBlocks.BlockAction() {
+        @Override
+        public void run(int block, int from, int to) {
+            sampleBlock(block, from, to);
+        }
+    };
+
+    public KMeansSeeder(double[] xs, double[] ys, long seed) {
+        this.xs = xs;
+        this.ys = ys;
+        this.pointNumber = xs.length;
+        this.seed = seed;
+
+        this.blockSize = ParallelBlocks.blockSize(pointNumber, MIN_BLOCK_SIZE, MAX_BLOCK_NUMBER);
+        this.blockNumber = ParallelBlocks.blockCount(pointNumber, blockSize);
+        this.blockSums = new double[blockNumber];
+    }
+
+    /**
+     * It sets number of threads used by seeding, 1 means sequential.
+     */
+    public void setParallelism(int parallelism) {
+        this.pool = ParallelBlocks.pool(parallelism);
+    }
+
+    /**
+     * It writes positions of clusters chosen by given seeding to center
+     * arrays. Length of arrays is number of clusters.
+     */
+    public void seed(KMeansSeeding seeding, double[] centerXs, double[] centerYs) {
+        if (seeding == KMeansSeeding.CANVAS || pointNumber == 0 || centerXs.length == 0) {
+            return;
+        }
+
+        random = new Random(seed);
+        switch (seeding) {
+            case RANDOM:
+                seedRandom(centerXs, centerYs);
+                break;
+            case KMEANS_PLUS_PLUS:
+                seedPlusPlus(centerXs, centerYs);
+                break;
+            case KMEANS_PARALLEL:
+                seedParallel(centerXs, centerYs);
+                break;
+        }
+
+        minDists = null;
+        nearestCenters = null;
+        sampled = null;
+    }
+
+    /**
+     * It places clusters uniformly in bounding box of points.
+     */
+    private void seedRandom(double[] centerXs, double[] centerYs) {
+        double minX = Double.MAX_VALUE, maxX = -Double.MAX_VALUE;
+        double minY = Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+        for (int i = 0; i < pointNumber; i++) {
+            minX = Math.min(minX, xs[i]);
+            maxX = Math.max(maxX, xs[i]);
+            minY = Math.min(minY, ys[i]);
+            maxY = Math.max(maxY, ys[i]);
+        }
+
+        for (int c = 0; c < centerXs.length; c++) {
+            centerXs[c] = minX + random.nextDouble() * (maxX - minX);
+            centerYs[c] = minY + random.nextDouble() * (maxY - minY);
+        }
+    }
+
+    /**
+     * It picks clusters one by one with D² sampling.
+     */
+    private void seedPlusPlus(double[] centerXs, double[] centerYs) {
+        int k = centerXs.length;
+        startChoosing(k);
+
+        choose(random.nextInt(pointNumber));
+        updateDistances();
+        while (chosenNumber < k) {
+            choose(pickByDistance());
+            updateDistances();
+        }
+
+        System.arraycopy(chosenXs, 0, centerXs, 0, k);
+        System.arraycopy(chosenYs, 0, centerYs, 0, k);
+    }
+
+    /**
+     * It samples about 2k candidates at each round, then picks clusters among
+     * candidates by k-means++ weighted by number of points nearest to them.
+     */
+    private void seedParallel(double[] centerXs, double[] centerYs) {
+        int k = centerXs.length;
+        startChoosing(k);
+        sampled = new boolean[pointNumber];
+        oversampling = 2.0 * k;
+
+        choose(random.nextInt(pointNumber));
+        updateDistances();
+        for (round = 0; round < PARALLEL_ROUNDS; round++) {
+            potential = totalDistance();
+            if (potential == 0) {
+                break;
+            }
+
+            ParallelBlocks.run(pool, pointNumber, blockSize, sampleAction);
+            for (int i = 0; i < pointNumber; i++) {
+                if (sampled[i]) {
+                    sampled[i] = false;
+                    choose(i);
+                }
+            }
+            updateDistances();
+        }
+
+        if (chosenNumber <= k) {
+            // Too few candidates, rest of clusters are picked by k-means++.
+            while (chosenNumber < k) {
+                choose(pickByDistance());
+                updateDistances();
+            }
+
+            System.arraycopy(chosenXs, 0, centerXs, 0, k);
+            System.arraycopy(chosenYs, 0, centerYs, 0, k);
+            return;
+        }
+
+        double[] weights = new double[chosenNumber];
+        for (int i = 0; i < pointNumber; i++) {
+            weights[nearestCenters[i]]++;
+        }
+        reduceCandidates(weights, centerXs, centerYs);
+    }
+
+    /**
+     * It picks clusters among chosen candidates by weighted k-means++.
+     */
+    private void reduceCandidates(double[] weights, double[] centerXs, double[] centerYs) {
+        int m = chosenNumber;
+        int k = centerXs.length;
+        double[] dists = new double[m];
+        Arrays.fill(dists, Double.MAX_VALUE);
+
+        int first = pickWeighted(weights, null);
+        for (int c = 0; c < k; c++) {
+            int picked = c == 0 ? first : pickWeighted(weights, dists);
+            centerXs[c] = chosenXs[picked];
+            centerYs[c] = chosenYs[picked];
+
+            for (int j = 0; j < m; j++) {
+                double dist = Point2D.distanceSq(chosenXs[j], chosenYs[j], centerXs[c], centerYs[c]);
+                if (dist < dists[j]) {
+                    dists[j] = dist;
+                }
+            }
+        }
+    }
+
+    /**
+     * It picks a candidate with probability proportional to its weight, times
+     * its squared distance if distances are given.
+     */
+    private int pickWeighted(double[] weights, double[] dists) {
+        double total = 0;
+        for (int j = 0; j < weights.length; j++) {
+            total += dists == null ? weights[j] : weights[j] * dists[j];
+        }
+        if (total == 0) {
+            return random.nextInt(weights.length);
+        }
+
+        double target = random.nextDouble() * total;
+        int last = 0;
+        for (int j = 0; j < weights.length; j++) {
+            double value = dists == null ? weights[j] : weights[j] * dists[j];
+            if (value > 0) {
+                last = j;
+                target -= value;
+                if (target < 0) {
+                    return j;
+                }
+            }
+        }
+        return last;
+    }
+
+    /**
+     * It picks a point with probability proportional to its squared distance
+     * to nearest chosen center.
+     */
+    private int pickByDistance() {
+        double total = totalDistance();
+        if (total == 0) {
+            return random.nextInt(pointNumber);
+        }
+
+        double target = random.nextDouble() * total;
+        int block = 0;
+        while (block < blockNumber - 1 && target >= blockSums[block]) {
+            target -= blockSums[block];
+            block++;
+        }
+
+        int last = -1;
+        int to = Math.min(pointNumber, (block + 1) * blockSize);
+        for (int i = block * blockSize; i < to; i++) {
+            if (minDists[i] > 0) {
+                last = i;
+                target -= minDists[i];
+                if (target < 0) {
+                    return i;
+                }
+            }
+        }
+        return last >= 0 ? last : random.nextInt(pointNumber);
+    }
+
+    /**
+     * It returns sum of squared distances, it is reduced in block order.
+     */
+    private double totalDistance() {
+        double total = 0;
+        for (int b = 0; b < blockNumber; b++) {
+            total += blockSums[b];
+        }
+        return total;
+    }
+
+    private void startChoosing(int k) {
+        minDists = new double[pointNumber];
+        nearestCenters = new int[pointNumber];
+        Arrays.fill(minDists, Double.MAX_VALUE);
+
+        chosenXs = new double[Math.max(16, k)];
+        chosenYs = new double[Math.max(16, k)];
+        chosenNumber = 0;
+        updateFrom = 0;
+        updateTo = 0;
+    }
+
+    private void choose(int point) {
+        if (chosenNumber == chosenXs.length) {
+            chosenXs = Arrays.copyOf(chosenXs, 2 * chosenNumber);
+            chosenYs = Arrays.copyOf(chosenYs, 2 * chosenNumber);
+        }
+
+        chosenXs[chosenNumber] = xs[point];
+        chosenYs[chosenNumber] = ys[point];
+        chosenNumber++;
+    }
+
+    /**
+     * It updates distances of points by centers chosen since last update.
+     */
+    private void updateDistances() {
+        updateFrom = updateTo;
+        updateTo = chosenNumber;
+        ParallelBlocks.run(pool, pointNumber, blockSize, updateAction);
+    }
+
+    private void updateBlock(int block, int from, int to) {
+        double sum = 0;
+        for (int i = from; i < to; i++) {
+            double minDist = minDists[i];
+            int nearest = nearestCenters[i];
+            for (int c = updateFrom; c < updateTo; c++) {
+                double dist = Point2D.distanceSq(xs[i], ys[i], chosenXs[c], chosenYs[c]);
+                if (dist < minDist) {
+                    minDist = dist;
+                    nearest = c;
+                }
+            }
+
+            minDists[i] = minDist;
+            nearestCenters[i] = nearest;
+            sum += minDist;
+        }
+        blockSums[block] = sum;
+    }
+
+    /**
+     * It samples points of block for current k-means|| round. Every block has
+     * its own random generator, so samples do not depend on parallelism.
+     */
+    private void sampleBlock(int block, int from, int to) {
+        Random blockRandom = new Random(seed + 31L * (round * (long) blockNumber + block + 1));
+        for (int i = from; i < to; i++) {
+            if (blockRandom.nextDouble() * potential < oversampling * minDists[i]) {
+                sampled[i] = true;
+            }
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package algorithmvisualization;
+
+/**
+ *  Ways of placing clusters before K-Means iterations. CANVAS keeps clusters
+ *  where they are in canvas, others move them before first step.
+ * 
+ * @author Murat AKIN
+ */
+public enum KMeansSeeding {
+    CANVAS, RANDOM, KMEANS_PLUS_PLUS, KMEANS_PARALLEL;
+}
@@ -0,0 +1,13 @@
+package algorithmvisualization;
+
+/**
+ *  Variants of K-Means iteration. All of them produce same clusters, they
+ *  only differ in how much work a step needs. KD_TREE sums points of a tree
+ *  node at once, so its cluster positions may differ by rounding. MINI_BATCH
+ *  only samples some points at each step, so it finds approximate clusters.
+ * 
+ * @author Murat AKIN
+ */
+public enum KMeansVariant {
+    LLOYD, ELKAN, HAMERLY, YINYANG, KD_TREE, MINI_BATCH;
+}
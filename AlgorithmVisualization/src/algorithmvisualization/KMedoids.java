@@ -0,0 +1,392 @@
+package algorithmvisualization;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * This class contains anything about K-Medoids algorithm visualization.
+ *
+ * Every cluster shape snaps to a point, its medoid, and points belong to
+ * their nearest medoid. Medoids start from points nearest to cluster shapes
+ * in canvas, each step is a swap phase of {@link FastPam}, which replaces a
+ * medoid by the point that lowers total distance of points most. Distances
+ * of points are kept in a {@link DistanceCache} of given memory budget.
+ *
+ * Up to PAM_LIMIT points, swaps are searched on all points. For more points
+ * CLARA is used, swaps are searched on random samples of SAMPLE_SIZE points,
+ * each sample holds best medoids found so far. When a sample has no swap
+ * left, its medoids are measured on all points and kept if they are better.
+ * Algorithm ends after SAMPLE_NUMBER samples.
+ *
+ * @author Murat AKIN
+ */
+public class KMedoids implements Algorithm {
+
+    /* Largest number of points whose swaps are searched on all points. */
+    public static final int PAM_LIMIT = 10000;
+    /* Number of points and number of CLARA samples. */
+    private static final int SAMPLE_SIZE = 2000;
+    private static final int SAMPLE_NUMBER = 5;
+
+    /* Smallest number of points assigned by a single task. */
+    private static final int MIN_BLOCK_SIZE = 4096;
+    /* Upper limit of blocks. */
+    private static final int MAX_BLOCK_NUMBER = 256;
+
+    /* Speed of visualization animation. */
+    private int speed = 150;
+
+    /* Metric of distances between points. */
+    private Metric metric = Metric.EUCLIDEAN;
+    /* Number of threads that search swaps and assign points. */
+    private int parallelism = 1;
+    /* Largest number of bytes kept in distance cache. */
+    private long cacheBudget = 256L << 20;
+    /* Seed of CLARA samples. */
+    private long seed;
+
+    private Point[] points;
+    private Cluster[] clusters;
+    private double[] xs;
+    private double[] ys;
+
+    /* Swap engine of all points, or of current sample. */
+    private FastPam engine;
+    /* Points of current sample, null if all points are searched. */
+    private int[] sample;
+    private int sampleIndex;
+    private Random random;
+
+    /* Medoids shown in canvas, and best medoids of samples with their cost. */
+    private int[] medoids;
+    private int[] bestMedoids;
+    private double bestCost;
+    /* Nearest medoid of each point and sum of distances to them. */
+    private int[] assignments;
+    private double cost;
+
+    private int iteration;
+    private boolean swapped;
+    private boolean sampleFinished;
+    private boolean finished;
+    private long stepNanos;
+
+    public KMedoids(List<Drawable> shapes) {
+        loadShapes(shapes);
+    }
+
+    /**
+     * It places medoids at points nearest to cluster shapes and builds swap
+     * engine.
+     */
+    @Override
+    public void prepare() {
+        int k = Math.min(clusters.length, points.length);
+        boolean[] taken = new boolean[points.length];
+        medoids = new int[k];
+        for (int c = 0; c < k; c++) {
+            int nearest = -1;
+            double nearestDist = Double.MAX_VALUE;
+            for (int i = 0; i < points.length; i++) {
+                double dist = metric.distance(clusters[c].getCenterX(), clusters[c].getCenterY(), xs[i], ys[i]);
+                if (!taken[i] && dist < nearestDist) {
+                    nearestDist = dist;
+                    nearest = i;
+                }
+            }
+            medoids[c] = nearest;
+            taken[nearest] = true;
+        }
+
+        iteration = 0;
+        swapped = false;
+        sampleFinished = false;
+        finished = false;
+        assignments = new int[points.length];
+        if (k == 0) {
+            // Without clusters or points there is nothing to place, canvas is left as it is.
+            cost = 0;
+            finished = true;
+            return;
+        }
+
+        assign();
+        bestMedoids = medoids.clone();
+        bestCost = cost;
+
+        random = new Random(seed);
+        sampleIndex = 0;
+        if (points.length <= PAM_LIMIT) {
+            sample = null;
+            engine = new FastPam(new DistanceCache(xs, ys, metric, cacheBudget), medoids, parallelism);
+        } else {
+            startSample();
+        }
+        syncShapes();
+    }
+
+    /**
+     * It starts a new CLARA sample from best medoids and random points.
+     */
+    private void startSample() {
+        int k = bestMedoids.length;
+        int size = Math.max(Math.min(points.length, SAMPLE_SIZE), 40 + 2 * k);
+        sample = new int[size];
+        boolean[] chosen = new boolean[points.length];
+        for (int c = 0; c < k; c++) {
+            sample[c] = bestMedoids[c];
+            chosen[bestMedoids[c]] = true;
+        }
+        for (int s = k; s < size; s++) {
+            int i;
+            do {
+                i = random.nextInt(points.length);
+            } while (chosen[i]);
+            chosen[i] = true;
+            sample[s] = i;
+        }
+
+        double[] sampleXs = new double[size];
+        double[] sampleYs = new double[size];
+        for (int s = 0; s < size; s++) {
+            sampleXs[s] = xs[sample[s]];
+            sampleYs[s] = ys[sample[s]];
+        }
+        int[] local = new int[k];
+        for (int c = 0; c < k; c++) {
+            local[c] = c;
+        }
+        engine = new FastPam(new DistanceCache(sampleXs, sampleYs, metric, cacheBudget), local, parallelism);
+    }
+
+    /**
+     * It runs a swap phase, or ends current sample if it has no swap left.
+     */
+    @Override
+    public void step() {
+        if (isFinished()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        iteration++;
+        swapped = engine.swap();
+        sampleFinished = false;
+
+        int[] engineMedoids = engine.getMedoids();
+        for (int c = 0; c < medoids.length; c++) {
+            medoids[c] = sample == null ? engineMedoids[c] : sample[engineMedoids[c]];
+        }
+        assign();
+
+        if (!swapped) {
+            if (sample == null) {
+                finished = true;
+            } else {
+                sampleFinished = true;
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    bestMedoids = medoids.clone();
+                }
+                sampleIndex++;
+                if (sampleIndex == SAMPLE_NUMBER) {
+                    medoids = bestMedoids.clone();
+                    assign();
+                    finished = true;
+                } else {
+                    startSample();
+                }
+            }
+        }
+
+        syncShapes();
+        stepNanos = System.nanoTime() - start;
+    }
+
+    /**
+     * It finds nearest medoid of every point and total distance to them.
+     */
+    private void assign() {
+        final int n = points.length;
+        final int k = medoids.length;
+        int blockSize = ParallelBlocks.blockSize(n, MIN_BLOCK_SIZE, MAX_BLOCK_NUMBER);
+        final double[] blockCosts = new double[ParallelBlocks.blockCount(n, blockSize)];
+
+        ParallelBlocks.run(ParallelBlocks.pool(parallelism), n, blockSize, new ParallelBlocks.BlockAction() {
+            @Override
+            public void run(int block, int from, int to) {
+                double sum = 0;
+                for (int i = from; i < to; i++) {
+                    int nearest = 0;
+                    double nearestDist = Double.MAX_VALUE;
+                    for (int c = 0; c < k; c++) {
+                        double dist = metric.distance(xs[i], ys[i], xs[medoids[c]], ys[medoids[c]]);
+                        if (dist < nearestDist) {
+                            nearestDist = dist;
+                            nearest = c;
+                        }
+                    }
+                    assignments[i] = nearest;
+                    sum += nearestDist;
+                }
+                blockCosts[block] = sum;
+            }
+        });
+
+        cost = 0;
+        for (double blockCost : blockCosts) {
+            cost += blockCost;
+        }
+    }
+
+    /**
+     * It snaps cluster shapes to medoids and gives points their cluster.
+     */
+    private void syncShapes() {
+        for (int c = 0; c < medoids.length; c++) {
+            clusters[c].setLocation(xs[medoids[c]], ys[medoids[c]]);
+        }
+        for (int i = 0; i < points.length; i++) {
+            Cluster cluster = clusters[assignments[i]];
+            points[i].setColor(cluster.getColor());
+            points[i].setRayLine(cluster.getCenterX(), cluster.getCenterY());
+            points[i].setCluster(cluster);
+        }
+    }
+
+    /**
+     * It returns execution of algorithm done or not.
+     */
+    @Override
+    public boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * It loads all points and clusters in canvas to this context.
+     */
+    private void loadShapes(List<Drawable> shapes) {
+        List<Point> loadedPoints = new ArrayList<>();
+        List<Cluster> loadedClusters = new ArrayList<>();
+        for (Drawable shape : shapes) {
+            if (shape instanceof Point) {
+                loadedPoints.add((Point) shape);
+            } else if (shape instanceof Cluster) {
+                loadedClusters.add((Cluster) shape);
+            }
+        }
+        points = loadedPoints.toArray(new Point[loadedPoints.size()]);
+        clusters = loadedClusters.toArray(new Cluster[loadedClusters.size()]);
+
+        xs = new double[points.length];
+        ys = new double[points.length];
+        for (int i = 0; i < points.length; i++) {
+            xs[i] = points[i].getCenterX();
+            ys[i] = points[i].getCenterY();
+        }
+    }
+
+    /**
+     * It prepares and returns a report of last step as string.
+     */
+    @Override
+    public String report() {
+        StringBuilder strBuilder = new StringBuilder();
+
+        strBuilder.append("\nIteration: ").append(iteration).append("\n");
+        if (medoids.length == 0) {
+            strBuilder.append("No medoid is placed, there are no clusters or no points\n");
+            return strBuilder.toString();
+        }
+        if (sample != null) {
+            strBuilder.append("CLARA sample: ").append(Math.min(sampleIndex + 1, SAMPLE_NUMBER)).append(" of ");
+            strBuilder.append(SAMPLE_NUMBER).append(", ").append(sample.length).append(" points\n");
+        }
+
+        if (swapped) {
+            int c = engine.getSwappedMedoid();
+            strBuilder.append("Swap: cluster ").append(c).append(" moved to point at ");
+            strBuilder.append(HelperMethods.scaleDouble(clusters[c].getCenterX(), 2)).append(", ");
+            strBuilder.append(HelperMethods.scaleDouble(clusters[c].getCenterY(), 2));
+            strBuilder.append(", change: ").append(HelperMethods.scaleDouble(engine.getSwapChange(), 2)).append("\n");
+        } else if (iteration > 0) {
+            strBuilder.append("No swap lowers total distance\n");
+        }
+        if (sampleFinished) {
+            strBuilder.append("Best total distance of samples: ").append(HelperMethods.scaleDouble(bestCost, 2)).append("\n");
+        }
+        strBuilder.append("Total distance: ").append(HelperMethods.scaleDouble(cost, 2)).append("\n");
+
+        DistanceCache cache = engine.getCache();
+        strBuilder.append("Distance tiles kept: ").append(cache.getTileNumber());
+        strBuilder.append(", computed: ").append(cache.getMissNumber());
+        strBuilder.append(", reused: ").append(cache.getHitNumber());
+        strBuilder.append(", dropped: ").append(cache.getEvictionNumber()).append("\n");
+        strBuilder.append("Step time: ").append(HelperMethods.scaleDouble(stepNanos / 1e6, 2)).append(" ms\n");
+
+        int[] sizes = new int[medoids.length];
+        for (int assignment : assignments) {
+            sizes[assignment]++;
+        }
+        for (int c = 0; c < medoids.length; c++) {
+            double x = HelperMethods.scaleDouble(xs[medoids[c]], 2);
+            double y = HelperMethods.scaleDouble(ys[medoids[c]], 2);
+
+            strBuilder.append("-->").append("Cluster: ").append(c).append("\n");
+            strBuilder.append("\t").append("Medoid: ").append(x).append(", ").append(y).append("\n");
+            strBuilder.append("\tContains ").append(sizes[c]).append(" point!\n");
+        }
+
+        return strBuilder.toString();
+    }
+
+    /**
+     * It returns points that are medoids, in order of cluster shapes.
+     */
+    public int[] getMedoids() {
+        return medoids.clone();
+    }
+
+    public double getCost() {
+        return cost;
+    }
+
+    /**
+     * It sets metric of distances between points.
+     */
+    public void setMetric(Metric metric) {
+        this.metric = metric;
+    }
+
+    /**
+     * It sets number of threads that search swaps and assign points.
+     */
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * It sets largest number of bytes kept in distance cache.
+     */
+    public void setCacheBudget(long cacheBudget) {
+        this.cacheBudget = cacheBudget;
+    }
+
+    /**
+     * It sets seed of CLARA samples, same seed draws same samples.
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    @Override
+    public int getSpeed() {
+        return speed;
+    }
+
+    @Override
+    public void setSpeed(int speed) {
+        this.speed = speed;
+    }
+}
@@ -0,0 +1,488 @@
+package algorithmvisualization;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class contains anything about k-Nearest Neighbours classification
+ * visualization.
+ *
+ * Points that have a cluster, for example after a K-Means run, are labeled
+ * points. Other points are queries, every query gets the cluster that most of
+ * its k nearest labeled points have. Ties go to the cluster whose point is
+ * nearer. Labeled points are kept in a ball tree under selected metric.
+ * Queries are answered in order of a Hilbert curve, so consecutive queries
+ * visit same part of tree.
+ *
+ * A step classifies a single query, or in bulk mode all queries. Bulk queries
+ * are split into blocks answered by several threads.
+ *
+ * In approximate mode neighbours are found by a {@link Hnsw} graph instead of
+ * tree. Same queries are answered by tree too, so report shows recall and
+ * speed of graph against exact search. After a bulk step, a sample of queries
+ * is answered with growing ef, it shows how recall is traded for latency.
+ *
+ * @author Murat AKIN
+ */
+public class KNearestNeighbours implements Algorithm {
+
+    /* Smallest number of queries answered by a single task. */
+    private static final int MIN_BLOCK_SIZE = 1024;
+    /* Upper limit of blocks. */
+    private static final int MAX_BLOCK_NUMBER = 256;
+
+    /* Largest number of queries answered by recall and latency benchmark. */
+    private static final int BENCHMARK_SIZE = 2000;
+    /* Largest ef tried by benchmark. */
+    private static final int BENCHMARK_MAX_EF = 256;
+
+    /* Speed of visualization animation. */
+    private int speed = 150;
+
+    /* Number of nearest labeled points that vote. */
+    private int k = 5;
+    /* All queries are classified in a single step or not. */
+    private boolean bulk;
+    /* Number of threads that answer bulk queries. */
+    private int parallelism = 1;
+    /* Metric of distances between points. */
+    private Metric metric = Metric.EUCLIDEAN;
+    /* Neighbours are found by graph index or not, and its search breadth. */
+    private boolean approximate;
+    private int ef = 64;
+
+    /* Distinct clusters of labeled points. */
+    private Cluster[] clusters;
+    /* Labeled points, their cluster indexes, coordinates and tree over them. */
+    private Point[] labeledPoints;
+    private int[] labels;
+    private double[] labeledXs;
+    private double[] labeledYs;
+    private BallTree tree;
+    /* Graph index of labeled points, null unless approximate. */
+    private Hnsw index;
+    private long indexNanos;
+
+    /* Query points in Hilbert curve order. */
+    private Point[] queries;
+    private double[] queryXs;
+    private double[] queryYs;
+
+    /* Cluster, number of votes for it and its nearest labeled point of each query. */
+    private int[] results;
+    private int[] votes;
+    private int[] nearestLabeled;
+    /* Neighbours of each query found by graph, k of them for every query. */
+    private int[] approximateNeighbours;
+    /* Neighbours found by graph that are among exact ones, for each query. */
+    private int[] hits;
+
+    /* Number of queries classified so far and by last step. */
+    private int classified;
+    private int lastClassified;
+    /* Time spent on answering queries of last step, by graph and by tree. */
+    private long lastNanos;
+    private long lastExactNanos;
+    /* Lines of last recall and latency benchmark, null if none. */
+    private List<String> benchmark;
+
+    public KNearestNeighbours(List<Drawable> shapes) {
+        loadPoints(shapes);
+    }
+
+    /**
+     * It prepares the environment for visualization.
+     */
+    @Override
+    public void prepare() {
+        tree = new BallTree(labeledXs, labeledYs, metric, parallelism);
+        index = null;
+        if (approximate) {
+            long start = System.nanoTime();
+            index = new Hnsw(2, metric, Hnsw.DEFAULT_M, Hnsw.DEFAULT_EF_CONSTRUCTION, 0);
+            double[] vector = new double[2];
+            for (int i = 0; i < labels.length; i++) {
+                vector[0] = labeledXs[i];
+                vector[1] = labeledYs[i];
+                index.insert(vector);
+            }
+            indexNanos = System.nanoTime() - start;
+        }
+
+        int[] order = SpaceFillingCurve.curveOrder(queryXs, queryYs, parallelism);
+        Point[] unordered = queries;
+        double[] unorderedXs = queryXs;
+        double[] unorderedYs = queryYs;
+        queries = new Point[order.length];
+        queryXs = new double[order.length];
+        queryYs = new double[order.length];
+        for (int q = 0; q < order.length; q++) {
+            queries[q] = unordered[order[q]];
+            queryXs[q] = unorderedXs[order[q]];
+            queryYs[q] = unorderedYs[order[q]];
+        }
+
+        int n = queries.length;
+        results = new int[n];
+        votes = new int[n];
+        nearestLabeled = new int[n];
+        approximateNeighbours = approximate ? new int[n * neighbourNumber()] : null;
+        hits = approximate ? new int[n] : null;
+        benchmark = null;
+        classified = 0;
+        lastClassified = 0;
+    }
+
+    /**
+     * It classifies next query, or all remaining queries in bulk mode.
+     */
+    @Override
+    public void step() {
+        if (isFinished()) {
+            lastClassified = 0;
+            return;
+        }
+
+        final int from = classified;
+        final int to = bulk ? queries.length : classified + 1;
+
+        long start = System.nanoTime();
+        int blockSize = ParallelBlocks.blockSize(to - from, MIN_BLOCK_SIZE, MAX_BLOCK_NUMBER);
+        ParallelBlocks.run(ParallelBlocks.pool(bulk ? parallelism : 1), to - from, blockSize, new ParallelBlocks.BlockAction() {
+            @Override
+            public void run(int block, int blockFrom, int blockTo) {
+                classifyBlock(from + blockFrom, from + blockTo);
+            }
+        });
+        lastNanos = System.nanoTime() - start;
+
+        if (approximate) {
+            start = System.nanoTime();
+            ParallelBlocks.run(ParallelBlocks.pool(bulk ? parallelism : 1), to - from, blockSize, new ParallelBlocks.BlockAction() {
+                @Override
+                public void run(int block, int blockFrom, int blockTo) {
+                    countHits(from + blockFrom, from + blockTo);
+                }
+            });
+            lastExactNanos = System.nanoTime() - start;
+
+            if (bulk) {
+                runBenchmark();
+            }
+        }
+
+        for (int q = from; q < to; q++) {
+            Point query = queries[q];
+            Point nearest = labeledPoints[nearestLabeled[q]];
+            query.setColor(clusters[results[q]].getColor());
+            query.setRayLine(nearest.getCenterX(), nearest.getCenterY());
+        }
+
+        classified = to;
+        lastClassified = to - from;
+    }
+
+    /**
+     * It classifies queries in given range. Buffers belong to the block, so
+     * blocks can run at the same time.
+     */
+    private void classifyBlock(int from, int to) {
+        int size = neighbourNumber();
+        int[] nearest = new int[size];
+        double[] dists = new double[size];
+        int[] counts = new int[clusters.length];
+        double[] query = new double[2];
+
+        for (int q = from; q < to; q++) {
+            int found;
+            if (index != null) {
+                query[0] = queryXs[q];
+                query[1] = queryYs[q];
+                found = index.nearest(query, ef, nearest, dists);
+                System.arraycopy(nearest, 0, approximateNeighbours, q * size, found);
+            } else {
+                found = tree.nearest(queryXs[q], queryYs[q], nearest, dists);
+            }
+
+            for (int j = 0; j < found; j++) {
+                counts[labels[nearest[j]]]++;
+            }
+
+            // Neighbours are nearest first, so a tie goes to the cluster seen first.
+            int best = -1;
+            int bestNeighbour = -1;
+            for (int j = 0; j < found; j++) {
+                int label = labels[nearest[j]];
+                if (best < 0 || counts[label] > counts[best]) {
+                    best = label;
+                    bestNeighbour = nearest[j];
+                }
+            }
+
+            results[q] = best;
+            votes[q] = counts[best];
+            nearestLabeled[q] = bestNeighbour;
+
+            for (int j = 0; j < found; j++) {
+                counts[labels[nearest[j]]] = 0;
+            }
+        }
+    }
+
+    /**
+     * It answers queries in given range by tree and counts neighbours found
+     * by graph that are exact. A neighbour at same distance with farthest
+     * exact one is exact too, ties may be broken either way.
+     */
+    private void countHits(int from, int to) {
+        int size = neighbourNumber();
+        int[] nearest = new int[size];
+        double[] dists = new double[size];
+
+        for (int q = from; q < to; q++) {
+            int found = tree.nearest(queryXs[q], queryYs[q], nearest, dists);
+            hits[q] = countHits(q, approximateNeighbours, q * size, found, dists[found - 1]);
+        }
+    }
+
+    private int countHits(int q, int[] neighbours, int neighboursFrom, int found, double exactLimit) {
+        int count = 0;
+        for (int j = 0; j < found; j++) {
+            int i = neighbours[neighboursFrom + j];
+            if (metric.distance(queryXs[q], queryYs[q], labeledXs[i], labeledYs[i]) <= exactLimit) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * It answers a sample of queries by graph with growing ef and by tree,
+     * one by one in a single thread, and keeps recall and time per query of
+     * each.
+     */
+    private void runBenchmark() {
+        int size = neighbourNumber();
+        int sampleSize = Math.min(BENCHMARK_SIZE, queries.length);
+        int stride = queries.length / sampleSize;
+        int[] nearest = new int[size];
+        double[] dists = new double[size];
+        double[] query = new double[2];
+
+        // Exact neighbours first, graph answers are checked against them.
+        double[] exactLimits = new double[sampleSize];
+        long start = System.nanoTime();
+        for (int s = 0; s < sampleSize; s++) {
+            int q = s * stride;
+            int found = tree.nearest(queryXs[q], queryYs[q], nearest, dists);
+            exactLimits[s] = dists[found - 1];
+        }
+        long exactNanos = System.nanoTime() - start;
+
+        benchmark = new ArrayList<>();
+        for (int sampleEf = size; ; sampleEf = Math.min(2 * sampleEf, BENCHMARK_MAX_EF)) {
+            int sampleHits = 0;
+            long nanos = 0;
+            for (int s = 0; s < sampleSize; s++) {
+                int q = s * stride;
+                query[0] = queryXs[q];
+                query[1] = queryYs[q];
+                start = System.nanoTime();
+                int found = index.nearest(query, sampleEf, nearest, dists);
+                nanos += System.nanoTime() - start;
+                sampleHits += countHits(q, nearest, 0, found, exactLimits[s]);
+            }
+            benchmark.add("ef: " + sampleEf + "\trecall: " + percent(sampleHits, (long) sampleSize * size)
+                    + "\t" + HelperMethods.scaleDouble(nanos / 1e3 / sampleSize, 2) + " us per query");
+
+            if (sampleEf >= BENCHMARK_MAX_EF) {
+                break;
+            }
+        }
+        benchmark.add("exact\trecall: 100.0%\t" + HelperMethods.scaleDouble(exactNanos / 1e3 / sampleSize, 2) + " us per query");
+    }
+
+    private static String percent(long part, long whole) {
+        return HelperMethods.scaleDouble(whole > 0 ? 100.0 * part / whole : 100, 2) + "%";
+    }
+
+    private int neighbourNumber() {
+        return Math.min(k, labels.length);
+    }
+
+    /**
+     * It returns execution of algorithm done or not.
+     */
+    @Override
+    public boolean isFinished() {
+        return classified == queries.length || labels.length == 0;
+    }
+
+    /**
+     * It loads points in canvas and splits them into labeled points and
+     * queries. Tree of labeled points is built and queries are put in curve
+     * order when algorithm is prepared.
+     */
+    private void loadPoints(List<Drawable> shapes) {
+        List<Point> labeled = new ArrayList<>();
+        List<Point> unlabeled = new ArrayList<>();
+        Map<Cluster, Integer> clusterIndexes = new HashMap<>();
+        List<Cluster> distinct = new ArrayList<>();
+        for (Drawable shape : shapes) {
+            if (!(shape instanceof Point)) {
+                continue;
+            }
+
+            Point point = (Point) shape;
+            Cluster cluster = point.getCluster();
+            if (cluster == null) {
+                unlabeled.add(point);
+                continue;
+            }
+
+            labeled.add(point);
+            if (!clusterIndexes.containsKey(cluster)) {
+                clusterIndexes.put(cluster, distinct.size());
+                distinct.add(cluster);
+            }
+        }
+        clusters = distinct.toArray(new Cluster[distinct.size()]);
+
+        labeledPoints = labeled.toArray(new Point[labeled.size()]);
+        labels = new int[labeledPoints.length];
+        labeledXs = new double[labeledPoints.length];
+        labeledYs = new double[labeledPoints.length];
+        for (int i = 0; i < labeledPoints.length; i++) {
+            labels[i] = clusterIndexes.get(labeledPoints[i].getCluster());
+            labeledXs[i] = labeledPoints[i].getCenterX();
+            labeledYs[i] = labeledPoints[i].getCenterY();
+        }
+
+        queries = unlabeled.toArray(new Point[unlabeled.size()]);
+        queryXs = new double[queries.length];
+        queryYs = new double[queries.length];
+        for (int q = 0; q < queries.length; q++) {
+            queryXs[q] = queries[q].getCenterX();
+            queryYs[q] = queries[q].getCenterY();
+        }
+    }
+
+    /**
+     * It prepares and returns a report of last step as string.
+     */
+    @Override
+    public String report() {
+        StringBuilder strBuilder = new StringBuilder();
+
+        strBuilder.append("\nQueries classified: ").append(classified).append(" of ").append(queries.length).append("\n");
+        if (lastClassified == 0) {
+            return strBuilder.toString();
+        }
+
+        if (lastClassified == 1) {
+            int q = classified - 1;
+            double x = HelperMethods.scaleDouble(queries[q].getCenterX(), 2);
+            double y = HelperMethods.scaleDouble(queries[q].getCenterY(), 2);
+
+            strBuilder.append("-->Point at: ").append(x).append(", ").append(y);
+            strBuilder.append(" is classified to Cluster: ").append(results[q]).append("\n");
+            strBuilder.append("\tVotes: ").append(votes[q]).append(" of ").append(neighbourNumber()).append("\n");
+            if (approximate) {
+                strBuilder.append("\tExact neighbours found by graph: ").append(hits[q]).append(" of ").append(neighbourNumber()).append("\n");
+            }
+            return strBuilder.toString();
+        }
+
+        double millis = lastNanos / 1e6;
+        double perSecond = lastNanos > 0 ? lastClassified * 1e9 / lastNanos : 0;
+        strBuilder.append("-->").append(lastClassified).append(" queries classified in ");
+        strBuilder.append(HelperMethods.scaleDouble(millis, 2)).append(" ms, ");
+        strBuilder.append((long) perSecond).append(" queries per second\n");
+
+        int[] sizes = new int[clusters.length];
+        for (int q = classified - lastClassified; q < classified; q++) {
+            sizes[results[q]]++;
+        }
+        for (int c = 0; c < clusters.length; c++) {
+            strBuilder.append("\tCluster: ").append(c).append(" gets ").append(sizes[c]).append(" point!\n");
+        }
+
+        if (approximate) {
+            long sum = 0;
+            for (int q = classified - lastClassified; q < classified; q++) {
+                sum += hits[q];
+            }
+            double exactPerSecond = lastExactNanos > 0 ? lastClassified * 1e9 / lastExactNanos : 0;
+            strBuilder.append("-->HNSW index of ").append(index.getSize()).append(" points, ");
+            strBuilder.append(index.getLayerNumber()).append(" layers, built in ");
+            strBuilder.append(HelperMethods.scaleDouble(indexNanos / 1e6, 2)).append(" ms\n");
+            strBuilder.append("\tRecall with ef ").append(ef).append(": ").append(percent(sum, (long) lastClassified * neighbourNumber())).append("\n");
+            strBuilder.append("\tExact search: ").append(HelperMethods.scaleDouble(lastExactNanos / 1e6, 2)).append(" ms, ");
+            strBuilder.append((long) exactPerSecond).append(" queries per second\n");
+            if (benchmark != null) {
+                strBuilder.append("-->Recall and latency on a sample of queries:\n");
+                for (String line : benchmark) {
+                    strBuilder.append("\t").append(line).append("\n");
+                }
+            }
+        }
+
+        return strBuilder.toString();
+    }
+
+    /**
+     * It sets number of nearest labeled points that vote.
+     */
+    public void setK(int k) {
+        this.k = Math.max(1, k);
+    }
+
+    /**
+     * It sets all queries are classified in a single step or not.
+     */
+    public void setBulk(boolean bulk) {
+        this.bulk = bulk;
+    }
+
+    /**
+     * It sets neighbours are found by graph index instead of exact tree or
+     * not.
+     */
+    public void setApproximate(boolean approximate) {
+        this.approximate = approximate;
+    }
+
+    /**
+     * It sets number of candidates kept by approximate queries, larger ef
+     * gives higher recall and slower queries.
+     */
+    public void setEf(int ef) {
+        this.ef = Math.max(1, ef);
+    }
+
+    /**
+     * It sets metric of distances between points.
+     */
+    public void setMetric(Metric metric) {
+        this.metric = metric;
+    }
+
+    /**
+     * It sets number of threads that answer bulk queries.
+     */
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    @Override
+    public int getSpeed() {
+        return speed;
+    }
+
+    @Override
+    public void setSpeed(int speed) {
+        this.speed = speed;
+    }
+}
@@ -0,0 +1,219 @@
+package algorithmvisualization;
+
+/**
+ * This class is a static 2D kd-tree built once over point coordinates.
+ *
+ * Points are not copied, tree keeps a permutation of point indexes and every
+ * node covers a contiguous range of it. Nodes also keep their bounding box,
+ * number of points and sums of coordinates. Nodes are stored in arrays, root
+ * is node 0.
+ *
+ * @author Murat AKIN
+ */
+public class KdTree {
+
+    /* Largest number of points in a leaf. */
+    private static final int LEAF_SIZE = 8;
+
+    private final double[] xs;
+    private final double[] ys;
+
+    /* Points of node n are order[lows[n]] .. order[highs[n] - 1]. */
+    private final int[] order;
+    private final int[] lows;
+    private final int[] highs;
+
+    /* Children of each node, -1 for leaves. */
+    private final int[] lefts;
+    private final int[] rights;
+
+    /* Bounding box of each node. */
+    private final double[] minXs;
+    private final double[] maxXs;
+    private final double[] minYs;
+    private final double[] maxYs;
+
+    /* Sums of coordinates of points in each node. */
+    private final double[] sumXs;
+    private final double[] sumYs;
+
+    private int nodeNumber;
+    private int depth;
+
+    public KdTree(double[] xs, double[] ys) {
+        this.xs = xs;
+        this.ys = ys;
+
+        int n = xs.length;
+        order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+
+        int capacity = Math.max(1, 4 * ((n + LEAF_SIZE - 1) / LEAF_SIZE));
+        lows = new int[capacity];
+        highs = new int[capacity];
+        lefts = new int[capacity];
+        rights = new int[capacity];
+        minXs = new double[capacity];
+        maxXs = new double[capacity];
+        minYs = new double[capacity];
+        maxYs = new double[capacity];
+        sumXs = new double[capacity];
+        sumYs = new double[capacity];
+
+        build(0, n, 0);
+    }
+
+    /**
+     * It builds the subtree of given range and returns its node.
+     */
+    private int build(int low, int high, int level) {
+        int node = nodeNumber++;
+        lows[node] = low;
+        highs[node] = high;
+        depth = Math.max(depth, level);
+
+        double minX = Double.MAX_VALUE, maxX = -Double.MAX_VALUE;
+        double minY = Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+        double sumX = 0, sumY = 0;
+        for (int k = low; k < high; k++) {
+            double x = xs[order[k]];
+            double y = ys[order[k]];
+            minX = Math.min(minX, x);
+            maxX = Math.max(maxX, x);
+            minY = Math.min(minY, y);
+            maxY = Math.max(maxY, y);
+            sumX += x;
+            sumY += y;
+        }
+        minXs[node] = minX;
+        maxXs[node] = maxX;
+        minYs[node] = minY;
+        maxYs[node] = maxY;
+        sumXs[node] = sumX;
+        sumYs[node] = sumY;
+
+        if (high - low <= LEAF_SIZE || (minX == maxX && minY == maxY)) {
+            lefts[node] = -1;
+            rights[node] = -1;
+            return node;
+        }
+
+        boolean splitX = maxX - minX >= maxY - minY;
+        int middle = (low + high) >>> 1;
+        select(low, high - 1, middle, splitX ? xs : ys);
+
+        lefts[node] = build(low, middle, level + 1);
+        rights[node] = build(middle, high, level + 1);
+        return node;
+    }
+
+    /**
+     * It rearranges order[left..right] so that k-th position holds the point
+     * that would be there if range was sorted by given coordinate.
+     */
+    private void select(int left, int right, int k, double[] coords) {
+        while (right > left) {
+            double pivot = coords[order[(left + right) >>> 1]];
+            int i = left, j = right;
+            while (i <= j) {
+                while (coords[order[i]] < pivot) {
+                    i++;
+                }
+                while (coords[order[j]] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    int tmp = order[i];
+                    order[i] = order[j];
+                    order[j] = tmp;
+                    i++;
+                    j--;
+                }
+            }
+
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    public boolean isLeaf(int node) {
+        return lefts[node] < 0;
+    }
+
+    public int getLeft(int node) {
+        return lefts[node];
+    }
+
+    public int getRight(int node) {
+        return rights[node];
+    }
+
+    public int getLow(int node) {
+        return lows[node];
+    }
+
+    public int getHigh(int node) {
+        return highs[node];
+    }
+
+    /**
+     * It returns index of the point at given position of tree order.
+     */
+    public int getPoint(int position) {
+        return order[position];
+    }
+
+    public int getSize(int node) {
+        return highs[node] - lows[node];
+    }
+
+    public double getMinX(int node) {
+        return minXs[node];
+    }
+
+    public double getMaxX(int node) {
+        return maxXs[node];
+    }
+
+    public double getMinY(int node) {
+        return minYs[node];
+    }
+
+    public double getMaxY(int node) {
+        return maxYs[node];
+    }
+
+    public double getSumX(int node) {
+        return sumXs[node];
+    }
+
+    public double getSumY(int node) {
+        return sumYs[node];
+    }
+
+    public int getNodeNumber() {
+        return nodeNumber;
+    }
+
+    /**
+     * It returns depth of deepest leaf, root is at depth 0.
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    public double[] getXs() {
+        return xs;
+    }
+
+    public double[] getYs() {
+        return ys;
+    }
+}
@@ -0,0 +1,282 @@
+package algorithmvisualization;
+
+import java.awt.geom.Point2D;
+import java.util.Arrays;
+
+/**
+ * This class runs K-Means iterations with filtering algorithm of Kanungo et
+ * al. on a kd-tree built once over points.
+ *
+ * Candidate clusters are pushed down the tree. At every node, a candidate
+ * which is farther than best candidate from every corner of node's bounding
+ * box is dropped. When only one candidate remains, all points of node are
+ * assigned at once by using point count and coordinate sums kept in node.
+ * Clusters of points are same with {@link KMeansEngine}, positions of clusters
+ * may only differ by rounding, because sums are added in another order.
+ *
+ * @author Murat AKIN
+ */
+public class KdTreeKMeansEngine extends KMeansEngine {
+
+    /* A candidate is dropped only if it is farther by this ratio, so rounding never drops the nearest one. */
+    private static final double MARGIN = 1e-9;
+
+    /* Subtrees at this depth are processed as independent tasks. */
+    private static final int TASK_DEPTH = 8;
+
+    private final KdTree tree;
+
+    /* Subtrees processed as independent tasks. */
+    private final int[] taskNodes;
+
+    /* Partial sums of tasks, cluster c of task t is at index t * clusterNumber + c. */
+    private final double[] taskXSums;
+    private final double[] taskYSums;
+    private final int[] taskCounts;
+    private final boolean[] taskChanged;
+    private final long[] taskDistanceCounts;
+
+    /* Cluster that took all points of node at once, and at which step. */
+    private final int[] nodeOwners;
+    private final int[] nodeOwnerSteps;
+
+    /* Number of executed steps. */
+    private int steps;
+
+    /* Candidate lists of every depth for each worker thread. */
+    private final ThreadLocal<int[]> candidateBuffers = new ThreadLocal<int[]>() {
+        @Override
+        protected int[] initialValue() {
+            return new int[(tree.getDepth() + 2) * clusterNumber];
+        }
+    };
+
+    private final ParallelBlocks.BlockAction taskAction = new ParallelBlocks.BlockAction() {
+        @Override
+        public void run(int block, int from, int to) {
+            for (int t = from; t < to; t++) {
+                runTask(t);
+            }
+        }
+    };
+
+    public KdTreeKMeansEngine(double[] xs, double[] ys, double[] centerXs, double[] centerYs) {
+        super(xs, ys, centerXs, centerYs);
+
+        tree = new KdTree(xs, ys);
+
+        taskNodes = collectTaskNodes();
+        int taskNumber = taskNodes.length;
+        taskXSums = new double[taskNumber * clusterNumber];
+        taskYSums = new double[taskNumber * clusterNumber];
+        taskCounts = new int[taskNumber * clusterNumber];
+        taskChanged = new boolean[taskNumber];
+        taskDistanceCounts = new long[taskNumber];
+
+        nodeOwners = new int[tree.getNodeNumber()];
+        nodeOwnerSteps = new int[tree.getNodeNumber()];
+        for (int node = 0; node < nodeOwnerSteps.length; node++) {
+            nodeOwnerSteps[node] = -2;
+        }
+    }
+
+    /**
+     * It collects nodes at task depth, and leaves above it, from left to
+     * right.
+     */
+    private int[] collectTaskNodes() {
+        int[] nodes = new int[]{0};
+        for (int level = 0; level < TASK_DEPTH; level++) {
+            int[] next = new int[2 * nodes.length];
+            int count = 0;
+            for (int node : nodes) {
+                if (tree.isLeaf(node)) {
+                    next[count++] = node;
+                } else {
+                    next[count++] = tree.getLeft(node);
+                    next[count++] = tree.getRight(node);
+                }
+            }
+            nodes = Arrays.copyOf(next, count);
+        }
+        return nodes;
+    }
+
+    @Override
+    protected boolean assignPoints() {
+        ParallelBlocks.run(pool, taskNodes.length, 1, taskAction);
+
+        boolean anyChanged = false;
+        for (int t = 0; t < taskNodes.length; t++) {
+            anyChanged |= taskChanged[t];
+        }
+
+        for (int c = 0; c < clusterNumber; c++) {
+            double xSum = 0, ySum = 0;
+            int n = 0;
+            for (int t = 0, offset = c; t < taskNodes.length; t++, offset += clusterNumber) {
+                xSum += taskXSums[offset];
+                ySum += taskYSums[offset];
+                n += taskCounts[offset];
+            }
+
+            clusterXSums[c] = xSum;
+            clusterYSums[c] = ySum;
+            clusterSizes[c] = n;
+        }
+
+        steps++;
+        return anyChanged;
+    }
+
+    /**
+     * It filters all clusters down the subtree of given task.
+     */
+    private void runTask(int task) {
+        int offset = task * clusterNumber;
+        for (int c = 0; c < clusterNumber; c++) {
+            taskXSums[offset + c] = 0;
+            taskYSums[offset + c] = 0;
+            taskCounts[offset + c] = 0;
+        }
+        taskChanged[task] = false;
+        taskDistanceCounts[task] = 0;
+
+        int[] candidates = candidateBuffers.get();
+        for (int c = 0; c < clusterNumber; c++) {
+            candidates[c] = c;
+        }
+
+        filter(taskNodes[task], candidates, 0, clusterNumber, task);
+    }
+
+    /**
+     * It drops candidates that cannot be nearest to any point of node and
+     * assigns points of node. Candidates of node are candidates[start ..
+     * start + count - 1] in increasing order, candidates of children are
+     * written just after them.
+     */
+    private void filter(int node, int[] candidates, int start, int count, int task) {
+        double midX = (tree.getMinX(node) + tree.getMaxX(node)) / 2;
+        double midY = (tree.getMinY(node) + tree.getMaxY(node)) / 2;
+
+        int best = candidates[start];
+        double bestDist = Double.MAX_VALUE;
+        for (int k = start; k < start + count; k++) {
+            int c = candidates[k];
+            double newDist = Point2D.distanceSq(midX, midY, centerXs[c], centerYs[c]);
+            if (newDist < bestDist) {
+                bestDist = newDist;
+                best = c;
+            }
+        }
+
+        int next = start + count;
+        int kept = 0;
+        for (int k = start; k < start + count; k++) {
+            int c = candidates[k];
+            if (c != best) {
+                // Corner of box in direction from best to candidate is the most
+                // favourable point for candidate.
+                double vX = centerXs[c] > centerXs[best] ? tree.getMaxX(node) : tree.getMinX(node);
+                double vY = centerYs[c] > centerYs[best] ? tree.getMaxY(node) : tree.getMinY(node);
+
+                double candidateDist = Point2D.distanceSq(vX, vY, centerXs[c], centerYs[c]);
+                double bestCornerDist = Point2D.distanceSq(vX, vY, centerXs[best], centerYs[best]);
+                if (candidateDist - bestCornerDist > MARGIN * (candidateDist + bestCornerDist)) {
+                    continue;
+                }
+            }
+            candidates[next + kept++] = c;
+        }
+        taskDistanceCounts[task] += count + 2L * (count - 1);
+
+        if (kept == 1) {
+            assignNode(node, best, task);
+        } else if (tree.isLeaf(node)) {
+            assignLeaf(node, candidates, next, kept, task);
+        } else {
+            filter(tree.getLeft(node), candidates, next, kept, task);
+            filter(tree.getRight(node), candidates, next, kept, task);
+        }
+    }
+
+    /**
+     * It assigns all points of node to given cluster at once.
+     */
+    private void assignNode(int node, int cluster, int task) {
+        int offset = task * clusterNumber;
+        taskXSums[offset + cluster] += tree.getSumX(node);
+        taskYSums[offset + cluster] += tree.getSumY(node);
+        taskCounts[offset + cluster] += tree.getSize(node);
+
+        // If node belonged to same cluster at last step, its points did not change.
+        if (nodeOwnerSteps[node] != steps - 1 || nodeOwners[node] != cluster) {
+            for (int k = tree.getLow(node); k < tree.getHigh(node); k++) {
+                int i = tree.getPoint(k);
+                if (assignments[i] != cluster) {
+                    assignments[i] = cluster;
+                    taskChanged[task] = true;
+                }
+            }
+        }
+
+        nodeOwners[node] = cluster;
+        nodeOwnerSteps[node] = steps;
+    }
+
+    /**
+     * It assigns points of a leaf one by one to their nearest candidates.
+     */
+    private void assignLeaf(int node, int[] candidates, int start, int count, int task) {
+        int offset = task * clusterNumber;
+
+        for (int k = tree.getLow(node); k < tree.getHigh(node); k++) {
+            int i = tree.getPoint(k);
+            double pX = xs[i];
+            double pY = ys[i];
+
+            double minDist = Double.MAX_VALUE;
+            int nearest = -1;
+            for (int m = start; m < start + count; m++) {
+                int c = candidates[m];
+                double newDist = Point2D.distanceSq(pX, pY, centerXs[c], centerYs[c]);
+                if (newDist < minDist) {
+                    minDist = newDist;
+                    nearest = c;
+                }
+            }
+
+            if (assignments[i] != nearest) {
+                assignments[i] = nearest;
+                taskChanged[task] = true;
+            }
+
+            taskXSums[offset + nearest] += pX;
+            taskYSums[offset + nearest] += pY;
+            taskCounts[offset + nearest]++;
+        }
+        taskDistanceCounts[task] += (long) count * tree.getSize(node);
+    }
+
+    /**
+     * It returns number of distances computed at last step, distances
+     * between clusters and node boxes are included.
+     */
+    @Override
+    public long getDistanceCount() {
+        long count = 0;
+        for (int t = 0; t < taskNodes.length; t++) {
+            count += taskDistanceCounts[t];
+        }
+        return count;
+    }
+
+    /**
+     * Tree is built once, it can not follow edited points.
+     */
+    @Override
+    public boolean isEditable() {
+        return false;
+    }
+}
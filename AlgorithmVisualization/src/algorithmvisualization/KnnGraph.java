@@ -0,0 +1,117 @@
+package algorithmvisualization;
+
+/**
+ * This class is the k nearest neighbours graph of all points of a
+ * {@link BallTree}, every point is linked to its k nearest other points.
+ *
+ * Edges are kept in compressed rows, neighbours of point i are
+ * neighbours[offsets[i]] .. neighbours[offsets[i + 1] - 1], nearest first,
+ * and their distances are at same positions of dists. Rows of points are
+ * found by tree queries in blocks answered by several threads. Points of a
+ * block are consecutive on a Hilbert curve, so a block visits same part of
+ * tree. Every row is written by a single query, graph is same for every
+ * parallelism.
+ *
+ * @author Murat AKIN
+ */
+public class KnnGraph {
+
+    /* Smallest number of points whose rows are found by a single task. */
+    private static final int MIN_BLOCK_SIZE = 1024;
+    /* Upper limit of blocks. */
+    private static final int MAX_BLOCK_NUMBER = 256;
+
+    private final BallTree tree;
+    private final int k;
+
+    private final int[] offsets;
+    private final int[] neighbours;
+    private final double[] dists;
+
+    /**
+     * It builds graph of all points of given tree.
+     *
+     * @param k number of neighbours of every point, it is smaller for a tree
+     * of k or fewer points.
+     * @param parallelism number of threads that find rows.
+     */
+    public KnnGraph(final BallTree tree, int k, int parallelism) {
+        this.tree = tree;
+        final double[] xs = tree.getXs();
+        final double[] ys = tree.getYs();
+        final int n = xs.length;
+        final int degree = Math.max(0, Math.min(k, n - 1));
+        this.k = degree;
+
+        offsets = new int[n + 1];
+        for (int i = 0; i <= n; i++) {
+            offsets[i] = i * degree;
+        }
+        neighbours = new int[n * degree];
+        dists = new double[n * degree];
+
+        final int[] order = SpaceFillingCurve.curveOrder(xs, ys, parallelism);
+        int blockSize = ParallelBlocks.blockSize(n, MIN_BLOCK_SIZE, MAX_BLOCK_NUMBER);
+        ParallelBlocks.run(ParallelBlocks.pool(parallelism), n, blockSize, new ParallelBlocks.BlockAction() {
+            @Override
+            public void run(int block, int from, int to) {
+                int[] nearest = new int[degree];
+                double[] nearestDists = new double[degree];
+                for (int position = from; position < to; position++) {
+                    int i = order[position];
+                    tree.nearest(xs[i], ys[i], i, nearest, nearestDists);
+                    System.arraycopy(nearest, 0, neighbours, offsets[i], degree);
+                    System.arraycopy(nearestDists, 0, dists, offsets[i], degree);
+                }
+            }
+        });
+    }
+
+    /**
+     * It returns point j is among neighbours of point i or not.
+     */
+    public boolean isNeighbour(int i, int j) {
+        for (int e = offsets[i]; e < offsets[i + 1]; e++) {
+            if (neighbours[e] == j) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * It returns distance of point i to its farthest neighbour, its
+     * k-distance.
+     */
+    public double getKDistance(int i) {
+        return offsets[i + 1] > offsets[i] ? dists[offsets[i + 1] - 1] : 0;
+    }
+
+    public BallTree getTree() {
+        return tree;
+    }
+
+    public int getPointNumber() {
+        return offsets.length - 1;
+    }
+
+    public int getK() {
+        return k;
+    }
+
+    public int getEdgeNumber() {
+        return neighbours.length;
+    }
+
+    public int[] getOffsets() {
+        return offsets;
+    }
+
+    public int[] getNeighbours() {
+        return neighbours;
+    }
+
+    public double[] getDists() {
+        return dists;
+    }
+}
@@ -0,0 +1,41 @@
+package algorithmvisualization;
+
+import java.util.Arrays;
+
+/**
+ * This class keeps last {@link KnnGraph} built, so algorithms that need
+ * neighbours of all points share a single graph. Graph is built again only
+ * when points, number of neighbours or metric changed.
+ *
+ * @author Murat AKIN
+ */
+public class KnnGraphCache {
+
+    private KnnGraph graph;
+    /* Last request was answered by kept graph or not. */
+    private boolean reused;
+
+    /**
+     * It returns graph of given points, it is built if kept graph is not
+     * built over same points with same k and metric.
+     */
+    public KnnGraph get(double[] xs, double[] ys, int k, Metric metric, int parallelism) {
+        reused = graph != null
+                && graph.getK() == Math.max(0, Math.min(k, xs.length - 1))
+                && graph.getTree().getMetric() == metric
+                && Arrays.equals(graph.getTree().getXs(), xs)
+                && Arrays.equals(graph.getTree().getYs(), ys);
+
+        if (!reused) {
+            graph = new KnnGraph(new BallTree(xs, ys, metric, parallelism), k, parallelism);
+        }
+        return graph;
+    }
+
+    /**
+     * It returns last request was answered by kept graph or not.
+     */
+    public boolean isReused() {
+        return reused;
+    }
+}
@@ -7,7 +7,6 @@ import java.awt.Graphics2D;
 import java.awt.RenderingHints;
 import java.awt.Stroke;
 import java.awt.geom.Line2D;
-import java.awt.geom.Point2D;
 
 /**
  * This class represent of lines used as anchor between points and cluster in
@@ -20,6 +19,8 @@ public class Line {
     private Line2D line;
 
     private Color color = Color.BLACK;
+    /* Color given to setColor, translucent color is only made again when it changes. */
+    private Color baseColor;
     private Stroke stroke = new BasicStroke(2f);
 
     public Line(double x1, double y1, double x2, double y2) {
@@ -59,14 +60,23 @@ public class Line {
     }
 
     public void setStart(double x1, double y1) {
-        line.setLine(new Point2D.Double(x1, y1), line.getP2());
+        line.setLine(x1, y1, line.getX2(), line.getY2());
     }
 
     public void setEnd(double x1, double y1) {
-        line.setLine(line.getP1(), new Point2D.Double(x1, y1));
+        line.setLine(line.getX1(), line.getY1(), x1, y1);
+    }
+
+    public void setLine(double x1, double y1, double x2, double y2) {
+        line.setLine(x1, y1, x2, y2);
     }
 
     public void setColor(Color color) {
+        if (color.equals(baseColor)) {
+            return;
+        }
+
+        this.baseColor = color;
         this.color = new Color(color.getRed(), color.getGreen(), color.getBlue(), 75);
     }
 }
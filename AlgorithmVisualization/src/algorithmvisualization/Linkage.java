@@ -0,0 +1,14 @@
+package algorithmvisualization;
+
+/**
+ *  Linkages of hierarchical clustering, how distance of two clusters is found.
+ *  WARD is increase in sum of squared Euclidean errors when two clusters are
+ *  merged, AVERAGE is mean distance of their point pairs. Both of them never
+ *  bring a merged cluster closer to others than its parts were, so
+ *  {@link NearestNeighbourChain} finds same merges as a closest pair search.
+ *
+ * @author Murat AKIN
+ */
+public enum Linkage {
+    WARD, AVERAGE;
+}
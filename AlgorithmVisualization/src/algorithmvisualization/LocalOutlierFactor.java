@@ -0,0 +1,339 @@
+package algorithmvisualization;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class contains anything about Local Outlier Factor visualization.
+ *
+ * Reachability distance of point p from its neighbour o is the larger of
+ * their distance and k-distance of o. Local reachability density of p is
+ * inverse of mean reachability distance of p from its k nearest neighbours,
+ * and LOF of p is mean density of its neighbours divided by its own density.
+ * A tiny epsilon is added to mean reachability distance, so a point with k or
+ * more duplicates has a large but finite density and every score is finite.
+ * A point in a region as dense as its neighbours has a score near 1, an
+ * outlier has a larger score.
+ *
+ * Neighbours come from a {@link KnnGraph} kept in a {@link KnnGraphCache}, so
+ * a graph built for same points is not built again. Densities and scores are
+ * computed over blocks of points by several threads. All scores are found at
+ * a single step, points are colored from gray to red by their score.
+ *
+ * @author Murat AKIN
+ */
+public class LocalOutlierFactor implements Algorithm {
+
+    /* Smallest number of points scored by a single task. */
+    private static final int MIN_BLOCK_SIZE = 4096;
+    /* Upper limit of blocks. */
+    private static final int MAX_BLOCK_NUMBER = 256;
+    /* Added to mean reachability distance, so duplicate points have a finite density. */
+    private static final double REACHABILITY_EPSILON = 1e-10;
+
+    /* Score that gets reddest color, larger ones get same color. */
+    private static final double MAX_COLORED_SCORE = 3;
+    /* Colors of scores from 1 to MAX_COLORED_SCORE. */
+    private static final Color[] PALETTE = new Color[64];
+
+    static {
+        for (int c = 0; c < PALETTE.length; c++) {
+            double t = c / (double) (PALETTE.length - 1);
+            PALETTE[c] = new Color((int) (160 + 95 * t), (int) (160 * (1 - t)), (int) (160 * (1 - t)));
+        }
+    }
+
+    /* Speed of visualization animation. */
+    private int speed = 150;
+
+    /* Number of neighbours of every point. */
+    private int k = 10;
+    /* Number of outliers listed in report. */
+    private int topNumber = 10;
+    /* Metric of distances between points. */
+    private Metric metric = Metric.EUCLIDEAN;
+    /* Number of threads that build graph and compute scores. */
+    private int parallelism = 1;
+
+    private Point[] points;
+    private double[] xs;
+    private double[] ys;
+
+    private KnnGraphCache graphCache = new KnnGraphCache();
+    /* Graph of points, null until scores are computed. */
+    private KnnGraph graph;
+
+    /* Local reachability density and LOF of each point. */
+    private double[] densities;
+    private double[] scores;
+
+    /* Time spent on graph and on scores. */
+    private long graphNanos;
+    private long scoreNanos;
+
+    public LocalOutlierFactor(List<Drawable> shapes) {
+        loadPoints(shapes);
+    }
+
+    /**
+     * It prepares the environment for visualization.
+     */
+    @Override
+    public void prepare() {
+        graph = null;
+    }
+
+    /**
+     * It computes scores of all points and colors points by them.
+     */
+    @Override
+    public void step() {
+        if (isFinished()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        graph = graphCache.get(xs, ys, k, metric, parallelism);
+        graphNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        computeScores();
+        scoreNanos = System.nanoTime() - start;
+
+        for (int i = 0; i < points.length; i++) {
+            points[i].setRayLine(null);
+            points[i].setColor(colorOf(scores[i]));
+        }
+    }
+
+    /**
+     * It computes densities of all points, then their scores. Every pass is
+     * split into blocks, a point is only written by its own block.
+     */
+    private void computeScores() {
+        int n = points.length;
+        densities = new double[n];
+        scores = new double[n];
+
+        final int[] offsets = graph.getOffsets();
+        final int[] neighbours = graph.getNeighbours();
+        final double[] dists = graph.getDists();
+
+        ParallelBlocks.BlockAction densityAction = new ParallelBlocks.BlockAction() {
+            @Override
+            public void run(int block, int from, int to) {
+                for (int i = from; i < to; i++) {
+                    double sum = 0;
+                    for (int e = offsets[i]; e < offsets[i + 1]; e++) {
+                        sum += Math.max(dists[e], graph.getKDistance(neighbours[e]));
+                    }
+                    int size = offsets[i + 1] - offsets[i];
+                    // Points with k or more duplicates have no spread, epsilon keeps their density finite.
+                    densities[i] = size > 0 ? 1 / (sum / size + REACHABILITY_EPSILON) : 0;
+                }
+            }
+        };
+
+        ParallelBlocks.BlockAction scoreAction = new ParallelBlocks.BlockAction() {
+            @Override
+            public void run(int block, int from, int to) {
+                for (int i = from; i < to; i++) {
+                    int size = offsets[i + 1] - offsets[i];
+                    if (size == 0) {
+                        scores[i] = 1;
+                        continue;
+                    }
+
+                    double sum = 0;
+                    for (int e = offsets[i]; e < offsets[i + 1]; e++) {
+                        sum += densities[neighbours[e]];
+                    }
+                    scores[i] = sum / size / densities[i];
+                }
+            }
+        };
+
+        int blockSize = ParallelBlocks.blockSize(n, MIN_BLOCK_SIZE, MAX_BLOCK_NUMBER);
+        ParallelBlocks.run(ParallelBlocks.pool(parallelism), n, blockSize, densityAction);
+        ParallelBlocks.run(ParallelBlocks.pool(parallelism), n, blockSize, scoreAction);
+    }
+
+    private static Color colorOf(double score) {
+        double t = (score - 1) / (MAX_COLORED_SCORE - 1);
+        int c = (int) Math.round(Math.max(0, Math.min(1, t)) * (PALETTE.length - 1));
+        return PALETTE[c];
+    }
+
+    /**
+     * It returns indexes of points with largest scores, largest first. A
+     * min heap of them is kept while scores are scanned once.
+     */
+    private int[] topOutliers() {
+        int size = Math.min(topNumber, scores.length);
+        int[] heap = new int[size];
+        int count = 0;
+        for (int i = 0; i < scores.length; i++) {
+            if (count < size) {
+                heap[count] = i;
+                siftUp(heap, count++);
+            } else if (size > 0 && scores[i] > scores[heap[0]]) {
+                heap[0] = i;
+                siftDown(heap, 0, size);
+            }
+        }
+
+        for (int end = size - 1; end > 0; end--) {
+            int tmp = heap[0];
+            heap[0] = heap[end];
+            heap[end] = tmp;
+            siftDown(heap, 0, end);
+        }
+        return heap;
+    }
+
+    private void siftUp(int[] heap, int k) {
+        while (k > 0) {
+            int parent = (k - 1) >>> 1;
+            if (scores[heap[parent]] <= scores[heap[k]]) {
+                return;
+            }
+            int tmp = heap[parent];
+            heap[parent] = heap[k];
+            heap[k] = tmp;
+            k = parent;
+        }
+    }
+
+    private void siftDown(int[] heap, int k, int size) {
+        while (true) {
+            int child = 2 * k + 1;
+            if (child >= size) {
+                return;
+            }
+            if (child + 1 < size && scores[heap[child + 1]] < scores[heap[child]]) {
+                child++;
+            }
+            if (scores[heap[k]] <= scores[heap[child]]) {
+                return;
+            }
+            int tmp = heap[k];
+            heap[k] = heap[child];
+            heap[child] = tmp;
+            k = child;
+        }
+    }
+
+    /**
+     * It returns execution of algorithm done or not.
+     */
+    @Override
+    public boolean isFinished() {
+        return graph != null;
+    }
+
+    /**
+     * It loads all points in canvas to this context.
+     */
+    private void loadPoints(List<Drawable> shapes) {
+        List<Point> loaded = new ArrayList<>();
+        for (Drawable shape : shapes) {
+            if (shape instanceof Point) {
+                loaded.add((Point) shape);
+            }
+        }
+        points = loaded.toArray(new Point[loaded.size()]);
+
+        xs = new double[points.length];
+        ys = new double[points.length];
+        for (int i = 0; i < points.length; i++) {
+            xs[i] = points[i].getCenterX();
+            ys[i] = points[i].getCenterY();
+        }
+    }
+
+    /**
+     * It prepares and returns a report of last step as string.
+     */
+    @Override
+    public String report() {
+        StringBuilder strBuilder = new StringBuilder();
+
+        if (graph == null) {
+            strBuilder.append("\nPoints scored: 0\n");
+            return strBuilder.toString();
+        }
+
+        strBuilder.append("\nPoints scored: ").append(points.length).append("\n");
+        if (graphCache.isReused()) {
+            strBuilder.append("-->Neighbour graph of k = ").append(graph.getK()).append(" is reused\n");
+        } else {
+            strBuilder.append("-->Neighbour graph of k = ").append(graph.getK()).append(" built in ");
+            strBuilder.append(HelperMethods.scaleDouble(graphNanos / 1e6, 2)).append(" ms\n");
+        }
+        strBuilder.append("-->Scores computed in ").append(HelperMethods.scaleDouble(scoreNanos / 1e6, 2)).append(" ms\n");
+
+        strBuilder.append("-->Top outliers:\n");
+        for (int i : topOutliers()) {
+            double x = HelperMethods.scaleDouble(xs[i], 2);
+            double y = HelperMethods.scaleDouble(ys[i], 2);
+            strBuilder.append("\tPoint at: ").append(x).append(", ").append(y);
+            strBuilder.append("\tLOF: ").append(HelperMethods.scaleDouble(scores[i], 2)).append("\n");
+        }
+
+        return strBuilder.toString();
+    }
+
+    /**
+     * It returns scores of points in canvas order, null until they are
+     * computed.
+     */
+    public double[] getScores() {
+        return scores;
+    }
+
+    /**
+     * It sets number of neighbours of every point.
+     */
+    public void setK(int k) {
+        this.k = Math.max(1, k);
+    }
+
+    /**
+     * It sets number of outliers listed in report.
+     */
+    public void setTopNumber(int topNumber) {
+        this.topNumber = Math.max(0, topNumber);
+    }
+
+    /**
+     * It sets metric of distances between points.
+     */
+    public void setMetric(Metric metric) {
+        this.metric = metric;
+    }
+
+    /**
+     * It sets number of threads that build graph and compute scores.
+     */
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * It sets cache that neighbour graph is taken from and kept in.
+     */
+    public void setGraphCache(KnnGraphCache graphCache) {
+        this.graphCache = graphCache;
+    }
+
+    @Override
+    public int getSpeed() {
+        return speed;
+    }
+
+    @Override
+    public void setSpeed(int speed) {
+        this.speed = speed;
+    }
+}
@@ -6,6 +6,7 @@ import java.awt.BorderLayout;
 import java.awt.Dimension;
 import java.awt.Toolkit;
 import javax.swing.JFrame;
+import javax.swing.JScrollPane;
 
 
 public class Main {
@@ -20,7 +21,9 @@ public class Main {
 
         canvasFrame.setLayout(new BorderLayout());
         canvasFrame.add(canvasPanel, BorderLayout.CENTER);
-        canvasFrame.add(toolPanel, BorderLayout.EAST);
+        // Tool panel scrolls when it is taller than screen.
+        canvasFrame.add(new JScrollPane(toolPanel, JScrollPane.VERTICAL_SCROLLBAR_AS_NEEDED,
+                JScrollPane.HORIZONTAL_SCROLLBAR_NEVER), BorderLayout.EAST);
 
         Dimension screenSize = Toolkit.getDefaultToolkit().getScreenSize();
         canvasFrame.setSize(screenSize.width, screenSize.height);
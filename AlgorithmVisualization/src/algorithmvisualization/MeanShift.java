@@ -0,0 +1,467 @@
+package algorithmvisualization;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class contains anything about mean shift algorithm visualization.
+ *
+ * A seed is moved to mean of points within bandwidth of it, flat kernel, over
+ * and over until it stops at a mode of point density. Number of clusters is
+ * not given, it is number of modes found. Cluster shapes in canvas are
+ * replaced by a cluster shape at every mode when seeds are merged.
+ *
+ * Seeds are not started at every point. Points are binned into bandwidth
+ * sized bins, a seed is started at center of every bin that has at least
+ * minimum bin frequency points. Points within bandwidth of a seed are found
+ * by a {@link GridIndex} of bandwidth sized cells, a query only visits cell
+ * of seed and eight cells around it.
+ *
+ * Each step moves every seed that has not converged, seeds are moved by
+ * several threads, each seed only depends on points so steps are same for
+ * every parallelism. A seed converges when it moves less than a thousandth
+ * of bandwidth. When all seeds converge, modes are merged: converged seeds
+ * are visited from the one with most points within bandwidth, a seed is kept
+ * if no kept mode is within bandwidth of it. Every point joins its nearest
+ * mode.
+ *
+ * @author Murat AKIN
+ */
+public class MeanShift implements Algorithm {
+
+    /* Smallest number of seeds moved by a single task. */
+    private static final int MIN_SEED_BLOCK_SIZE = 16;
+    /* Smallest number of points assigned by a single task. */
+    private static final int MIN_POINT_BLOCK_SIZE = 4096;
+    /* Upper limit of blocks. */
+    private static final int MAX_BLOCK_NUMBER = 256;
+
+    /* Part of bandwidth that a converged seed moves less than. */
+    private static final double TOLERANCE = 1e-3;
+    /* Upper limit of steps that move seeds. */
+    private static final int MAX_ITERATION = 300;
+    /* Number of clusters listed in report. */
+    private static final int LISTED_CLUSTER_NUMBER = 20;
+
+    /* Speed of visualization animation. */
+    private int speed = 150;
+
+    /* Radius of kernel, and size of bins and grid cells. */
+    private double bandwidth = 40;
+    /* Number of points that a bin needs to start a seed. */
+    private int minBinFrequency = 1;
+    /* Metric of distances between points. */
+    private Metric metric = Metric.EUCLIDEAN;
+    /* Number of threads that move seeds and assign points. */
+    private int parallelism = 1;
+
+    /* Overlay that seeds are drawn to, may be null. */
+    private SeedOverlay overlay;
+
+    private final List<Drawable> shapes;
+    private Point[] points;
+    private double[] xs;
+    private double[] ys;
+    private GridIndex grid;
+
+    /* Locations of seeds, they have converged or not, and points within bandwidth of them. */
+    private double[] seedXs;
+    private double[] seedYs;
+    private boolean[] converged;
+    private int[] seedSizes;
+
+    /* Clusters of merged modes and cluster of every point, null until modes are merged. */
+    private Cluster[] clusters;
+    private int[] labels;
+    private int[] clusterSizes;
+
+    private int iteration;
+    private int movingNumber;
+    private double largestShift;
+    private boolean finished;
+    private long stepNanos;
+
+    public MeanShift(List<Drawable> shapes) {
+        this.shapes = shapes;
+        loadShapes(shapes);
+    }
+
+    /**
+     * It bins points, starts a seed at every bin that has enough points and
+     * builds grid of points.
+     */
+    @Override
+    public void prepare() {
+        // Bin of a point is its coordinates divided by bandwidth and rounded, in order of first point.
+        Map<Long, int[]> bins = new LinkedHashMap<>();
+        for (int i = 0; i < points.length; i++) {
+            long binX = Math.round(xs[i] / bandwidth);
+            long binY = Math.round(ys[i] / bandwidth);
+            Long key = (binX << 32) | (binY & 0xffffffffL);
+            int[] bin = bins.get(key);
+            if (bin == null) {
+                bins.put(key, new int[]{(int) binX, (int) binY, 1});
+            } else {
+                bin[2]++;
+            }
+        }
+
+        List<int[]> seedBins = new ArrayList<>();
+        for (int[] bin : bins.values()) {
+            if (bin[2] >= minBinFrequency) {
+                seedBins.add(bin);
+            }
+        }
+        seedXs = new double[seedBins.size()];
+        seedYs = new double[seedBins.size()];
+        for (int s = 0; s < seedBins.size(); s++) {
+            seedXs[s] = seedBins.get(s)[0] * bandwidth;
+            seedYs[s] = seedBins.get(s)[1] * bandwidth;
+        }
+        converged = new boolean[seedXs.length];
+        seedSizes = new int[seedXs.length];
+
+        grid = new GridIndex(xs, ys, bandwidth);
+
+        clusters = null;
+        labels = null;
+        clusterSizes = null;
+        iteration = 0;
+        movingNumber = seedXs.length;
+        largestShift = 0;
+        finished = false;
+
+        for (Point point : points) {
+            point.setRayLine(null);
+            point.setCluster(null);
+            point.setColor(Color.GRAY);
+        }
+        if (overlay != null) {
+            overlay.setSeeds(seedXs, seedYs);
+        }
+    }
+
+    /**
+     * It moves seeds that have not converged, or merges modes when all of
+     * them have converged.
+     */
+    @Override
+    public void step() {
+        if (isFinished()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        if (movingNumber > 0 && iteration < MAX_ITERATION) {
+            iteration++;
+            shiftSeeds();
+            if (overlay != null) {
+                overlay.moveSeeds(seedXs, seedYs, converged);
+            }
+        } else {
+            mergeModes();
+            assignPoints();
+            finish();
+        }
+        stepNanos = System.nanoTime() - start;
+    }
+
+    /**
+     * It moves every seed that has not converged to mean of points within
+     * bandwidth of it.
+     */
+    private void shiftSeeds() {
+        final int seedNumber = seedXs.length;
+        int blockSize = ParallelBlocks.blockSize(seedNumber, MIN_SEED_BLOCK_SIZE, MAX_BLOCK_NUMBER);
+        final double[] blockShifts = new double[ParallelBlocks.blockCount(seedNumber, blockSize)];
+
+        ParallelBlocks.run(ParallelBlocks.pool(parallelism), seedNumber, blockSize, new ParallelBlocks.BlockAction() {
+            @Override
+            public void run(int block, int from, int to) {
+                double[] sums = new double[2];
+                double largest = 0;
+                for (int s = from; s < to; s++) {
+                    if (converged[s]) {
+                        continue;
+                    }
+
+                    int size = grid.sumWithin(seedXs[s], seedYs[s], bandwidth, metric, sums);
+                    seedSizes[s] = size;
+                    if (size == 0) {
+                        // A seed that has no point around it does not move and is not a mode.
+                        converged[s] = true;
+                        continue;
+                    }
+
+                    double meanX = sums[0] / size;
+                    double meanY = sums[1] / size;
+                    double shift = metric.distance(seedXs[s], seedYs[s], meanX, meanY);
+                    seedXs[s] = meanX;
+                    seedYs[s] = meanY;
+                    largest = Math.max(largest, shift);
+                    if (shift < TOLERANCE * bandwidth) {
+                        converged[s] = true;
+                    }
+                }
+                blockShifts[block] = largest;
+            }
+        });
+
+        largestShift = 0;
+        for (double blockShift : blockShifts) {
+            largestShift = Math.max(largestShift, blockShift);
+        }
+        movingNumber = 0;
+        for (boolean seedConverged : converged) {
+            if (!seedConverged) {
+                movingNumber++;
+            }
+        }
+    }
+
+    /**
+     * It keeps converged seeds that have no stronger mode within bandwidth,
+     * and creates a cluster shape at every mode.
+     */
+    private void mergeModes() {
+        Integer[] byStrength = new Integer[seedXs.length];
+        for (int s = 0; s < byStrength.length; s++) {
+            byStrength[s] = s;
+        }
+        // Stable sort, seeds of same strength keep their order.
+        Arrays.sort(byStrength, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer a, Integer b) {
+                return Integer.compare(seedSizes[b], seedSizes[a]);
+            }
+        });
+
+        List<Integer> modes = new ArrayList<>();
+        for (int s : byStrength) {
+            if (seedSizes[s] == 0) {
+                continue;
+            }
+            boolean near = false;
+            for (int mode : modes) {
+                if (metric.distance(seedXs[s], seedYs[s], seedXs[mode], seedYs[mode]) <= bandwidth) {
+                    near = true;
+                    break;
+                }
+            }
+            if (!near) {
+                modes.add(s);
+            }
+        }
+
+        clusters = new Cluster[modes.size()];
+        for (int c = 0; c < clusters.length; c++) {
+            clusters[c] = new Cluster(seedXs[modes.get(c)], seedYs[modes.get(c)]);
+        }
+    }
+
+    /**
+     * It finds nearest mode of every point.
+     */
+    private void assignPoints() {
+        final int n = points.length;
+        final int k = clusters.length;
+        labels = new int[n];
+        clusterSizes = new int[k];
+        if (k == 0) {
+            return;
+        }
+
+        final double[] modeXs = new double[k];
+        final double[] modeYs = new double[k];
+        for (int c = 0; c < k; c++) {
+            modeXs[c] = clusters[c].getCenterX();
+            modeYs[c] = clusters[c].getCenterY();
+        }
+
+        int blockSize = ParallelBlocks.blockSize(n, MIN_POINT_BLOCK_SIZE, MAX_BLOCK_NUMBER);
+        ParallelBlocks.run(ParallelBlocks.pool(parallelism), n, blockSize, new ParallelBlocks.BlockAction() {
+            @Override
+            public void run(int block, int from, int to) {
+                for (int i = from; i < to; i++) {
+                    int nearest = 0;
+                    double nearestDist = Double.MAX_VALUE;
+                    for (int c = 0; c < k; c++) {
+                        double dist = metric.distance(xs[i], ys[i], modeXs[c], modeYs[c]);
+                        if (dist < nearestDist) {
+                            nearestDist = dist;
+                            nearest = c;
+                        }
+                    }
+                    labels[i] = nearest;
+                }
+            }
+        });
+
+        for (int i = 0; i < n; i++) {
+            clusterSizes[labels[i]]++;
+        }
+    }
+
+    /**
+     * It replaces cluster shapes in canvas by cluster shapes of modes and
+     * gives every point its cluster, canvas is changed only here.
+     */
+    private void finish() {
+        for (int i = shapes.size() - 1; i >= 0; i--) {
+            if (shapes.get(i) instanceof Cluster) {
+                shapes.remove(i);
+            }
+        }
+        shapes.addAll(Arrays.asList(clusters));
+
+        if (clusters.length > 0) {
+            for (int i = 0; i < points.length; i++) {
+                Cluster cluster = clusters[labels[i]];
+                points[i].setColor(cluster.getColor());
+                points[i].setRayLine(cluster.getCenterX(), cluster.getCenterY());
+                points[i].setCluster(cluster);
+            }
+        }
+        finished = true;
+    }
+
+    /**
+     * It returns execution of algorithm done or not.
+     */
+    @Override
+    public boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * It loads all points in canvas to this context.
+     */
+    private void loadShapes(List<Drawable> shapes) {
+        List<Point> loadedPoints = new ArrayList<>();
+        for (Drawable shape : shapes) {
+            if (shape instanceof Point) {
+                loadedPoints.add((Point) shape);
+            }
+        }
+        points = loadedPoints.toArray(new Point[loadedPoints.size()]);
+
+        xs = new double[points.length];
+        ys = new double[points.length];
+        for (int i = 0; i < points.length; i++) {
+            xs[i] = points[i].getCenterX();
+            ys[i] = points[i].getCenterY();
+        }
+    }
+
+    /**
+     * It prepares and returns a report of last step as string.
+     */
+    @Override
+    public String report() {
+        StringBuilder strBuilder = new StringBuilder();
+
+        if (!finished) {
+            strBuilder.append("\nIteration: ").append(iteration).append("\n");
+            strBuilder.append("-->Seeds moving: ").append(movingNumber);
+            strBuilder.append(", converged: ").append(seedXs.length - movingNumber);
+            strBuilder.append(" of ").append(seedXs.length).append("\n");
+            strBuilder.append("-->Largest shift: ").append(HelperMethods.scaleDouble(largestShift, 4));
+            strBuilder.append(", step time: ").append(HelperMethods.scaleDouble(stepNanos / 1e6, 2)).append(" ms\n");
+            return strBuilder.toString();
+        }
+
+        strBuilder.append("\nModes merged: ").append(clusters.length).append(" clusters from ");
+        strBuilder.append(seedXs.length).append(" seeds");
+        if (movingNumber > 0) {
+            strBuilder.append(", ").append(movingNumber).append(" seeds did not converge in ");
+            strBuilder.append(MAX_ITERATION).append(" iterations");
+        }
+        strBuilder.append("\n-->Grid cells: ").append(grid.getCellNumber()).append("\n");
+
+        for (int c = 0; c < Math.min(clusters.length, LISTED_CLUSTER_NUMBER); c++) {
+            double x = HelperMethods.scaleDouble(clusters[c].getCenterX(), 2);
+            double y = HelperMethods.scaleDouble(clusters[c].getCenterY(), 2);
+
+            strBuilder.append("-->").append("Cluster: ").append(c).append("\n");
+            strBuilder.append("\t").append("Location: ").append(x).append(", ").append(y).append("\n");
+            strBuilder.append("\tContains ").append(clusterSizes[c]).append(" point!\n");
+        }
+        if (clusters.length > LISTED_CLUSTER_NUMBER) {
+            strBuilder.append("\t... ").append(clusters.length - LISTED_CLUSTER_NUMBER).append(" more clusters\n");
+        }
+
+        return strBuilder.toString();
+    }
+
+    /**
+     * It returns clusters of merged modes, null until modes are merged.
+     */
+    public Cluster[] getClusters() {
+        return clusters;
+    }
+
+    /**
+     * It returns index of cluster of every point, null until modes are
+     * merged.
+     */
+    public int[] getLabels() {
+        return labels;
+    }
+
+    public int getSeedNumber() {
+        return seedXs.length;
+    }
+
+    /**
+     * It sets radius of kernel, it is size of bins and grid cells too.
+     */
+    public void setBandwidth(double bandwidth) {
+        this.bandwidth = Math.max(0.01, bandwidth);
+    }
+
+    /**
+     * It sets number of points that a bin needs to start a seed.
+     */
+    public void setMinBinFrequency(int minBinFrequency) {
+        this.minBinFrequency = Math.max(1, minBinFrequency);
+    }
+
+    /**
+     * It sets metric of distances between points and seeds.
+     */
+    public void setMetric(Metric metric) {
+        this.metric = metric;
+    }
+
+    /**
+     * It sets number of threads that move seeds and assign points.
+     */
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * It sets overlay that seeds are drawn to.
+     */
+    public void setOverlay(SeedOverlay overlay) {
+        this.overlay = overlay;
+        if (seedXs != null) {
+            overlay.setSeeds(seedXs, seedYs);
+        }
+    }
+
+    @Override
+    public int getSpeed() {
+        return speed;
+    }
+
+    @Override
+    public void setSpeed(int speed) {
+        this.speed = speed;
+    }
+}
@@ -0,0 +1,67 @@
+package algorithmvisualization;
+
+/**
+ * Distance metrics of neighbour searches. All of them satisfy triangle
+ * inequality, so a {@link BallTree} can prune with any of them. Vectors of
+ * any dimension are measured same way, for {@link Hnsw}.
+ *
+ * @author Murat AKIN
+ */
+public enum Metric {
+    EUCLIDEAN {
+        @Override
+        public double distance(double x1, double y1, double x2, double y2) {
+            double dx = x1 - x2;
+            double dy = y1 - y2;
+            return Math.sqrt(dx * dx + dy * dy);
+        }
+
+        @Override
+        public double distance(double[] a, int aFrom, double[] b, int bFrom, int dimension) {
+            double sum = 0;
+            for (int d = 0; d < dimension; d++) {
+                double diff = a[aFrom + d] - b[bFrom + d];
+                sum += diff * diff;
+            }
+            return Math.sqrt(sum);
+        }
+    },
+    MANHATTAN {
+        @Override
+        public double distance(double x1, double y1, double x2, double y2) {
+            return Math.abs(x1 - x2) + Math.abs(y1 - y2);
+        }
+
+        @Override
+        public double distance(double[] a, int aFrom, double[] b, int bFrom, int dimension) {
+            double sum = 0;
+            for (int d = 0; d < dimension; d++) {
+                sum += Math.abs(a[aFrom + d] - b[bFrom + d]);
+            }
+            return sum;
+        }
+    },
+    CHEBYSHEV {
+        @Override
+        public double distance(double x1, double y1, double x2, double y2) {
+            return Math.max(Math.abs(x1 - x2), Math.abs(y1 - y2));
+        }
+
+        @Override
+        public double distance(double[] a, int aFrom, double[] b, int bFrom, int dimension) {
+            double max = 0;
+            for (int d = 0; d < dimension; d++) {
+                max = Math.max(max, Math.abs(a[aFrom + d] - b[bFrom + d]));
+            }
+            return max;
+        }
+    };
+
+    public abstract double distance(double x1, double y1, double x2, double y2);
+
+    /**
+     * It returns distance between vectors stored in given arrays from given
+     * offsets.
+     */
+    public abstract double distance(double[] a, int aFrom, double[] b, int bFrom, int dimension);
+}
@@ -0,0 +1,221 @@
+package algorithmvisualization;
+
+import java.awt.geom.Point2D;
+import java.util.Random;
+
+/**
+ * This class runs mini-batch K-Means iterations.
+ *
+ * Every step samples a batch of points and moves the nearest cluster of each
+ * sampled point towards it. Learning rate of a cluster is one over number of
+ * points it has taken so far, so clusters slow down as they see more points.
+ * Algorithm is finished when no cluster moves more than a tolerance in a step.
+ * Other points keep their old clusters until a full assignment pass, which is
+ * executed periodically and once more at the end.
+ *
+ * @author Murat AKIN
+ */
+public class MiniBatchKMeansEngine extends KMeansEngine {
+
+    /* Smallest number of sampled points processed by a single task. */
+    private static final int BATCH_BLOCK_SIZE = 1024;
+
+    private int batchSize = 1024;
+    /* Largest movement of clusters in a step that means convergence. */
+    private double tolerance = 0.1;
+    /* Every this many steps, all points are assigned instead of a batch. */
+    private int fullPassInterval = 10;
+
+    private final Random random;
+
+    /* Number of sampled points taken by each cluster so far. */
+    private final long[] centerCounts;
+
+    /* Sampled points of last step and their nearest clusters. */
+    private int[] batch;
+    private int[] batchNearest;
+
+    /* Largest movement of clusters at last batch step. */
+    private double movement;
+    /* Last step assigned all points or only a batch. */
+    private boolean fullPass;
+    /* Number of executed steps. */
+    private int steps;
+
+    private final ParallelBlocks.BlockAction batchAction = new ParallelBlocks.BlockAction() {
+        @Override
+        public void run(int block, int from, int to) {
+            assignBatch(from, to);
+        }
+    };
+
+    public MiniBatchKMeansEngine(double[] xs, double[] ys, double[] centerXs, double[] centerYs) {
+        this(xs, ys, centerXs, centerYs, 0);
+    }
+
+    /**
+     * Same seed samples same points, so results can be reproduced.
+     */
+    public MiniBatchKMeansEngine(double[] xs, double[] ys, double[] centerXs, double[] centerYs, long seed) {
+        super(xs, ys, centerXs, centerYs);
+
+        random = new Random(seed);
+        centerCounts = new long[clusterNumber];
+    }
+
+    /**
+     * It executes a single batch step, or a full assignment pass at every
+     * fullPassInterval steps. When clusters converge, all points are assigned
+     * at the same step.
+     *
+     * @return algorithm should continue or not.
+     */
+    @Override
+    public boolean step() {
+        steps++;
+
+        if (steps % fullPassInterval == 0) {
+            assignAll();
+            changed = true;
+            return changed;
+        }
+
+        sampleBatch();
+        ParallelBlocks.run(pool, batch.length, BATCH_BLOCK_SIZE, batchAction);
+        moveCenters();
+        fullPass = false;
+
+        changed = movement > tolerance;
+        if (!changed) {
+            assignAll();
+        }
+        return changed;
+    }
+
+    /**
+     * It assigns every point to its nearest cluster without moving clusters,
+     * cluster sizes are updated too.
+     */
+    private void assignAll() {
+        assignPoints();
+        fullPass = true;
+    }
+
+    /**
+     * It samples points of a batch, a point may be sampled more than once.
+     */
+    private void sampleBatch() {
+        int length = Math.min(batchSize, pointNumber);
+        if (batch == null || batch.length != length) {
+            batch = new int[length];
+            batchNearest = new int[length];
+        }
+
+        for (int j = 0; j < length; j++) {
+            batch[j] = random.nextInt(pointNumber);
+        }
+    }
+
+    /**
+     * It finds nearest clusters of sampled points in given range of batch.
+     */
+    private void assignBatch(int from, int to) {
+        for (int j = from; j < to; j++) {
+            double pX = xs[batch[j]];
+            double pY = ys[batch[j]];
+
+            double minDist = Double.MAX_VALUE;
+            int nearest = -1;
+            for (int c = 0; c < clusterNumber; c++) {
+                double newDist = Point2D.distanceSq(pX, pY, centerXs[c], centerYs[c]);
+                if (newDist < minDist) {
+                    minDist = newDist;
+                    nearest = c;
+                }
+            }
+
+            batchNearest[j] = nearest;
+        }
+    }
+
+    /**
+     * It moves clusters towards their sampled points in batch order and finds
+     * largest movement of clusters.
+     */
+    private void moveCenters() {
+        double[] previousXs = centerXs.clone();
+        double[] previousYs = centerYs.clone();
+
+        for (int j = 0; j < batch.length; j++) {
+            int i = batch[j];
+            int c = batchNearest[j];
+            assignments[i] = c;
+
+            double rate = 1.0 / ++centerCounts[c];
+            centerXs[c] += rate * (xs[i] - centerXs[c]);
+            centerYs[c] += rate * (ys[i] - centerYs[c]);
+        }
+
+        movement = 0;
+        for (int c = 0; c < clusterNumber; c++) {
+            movement = Math.max(movement, Point2D.distance(previousXs[c], previousYs[c], centerXs[c], centerYs[c]));
+        }
+    }
+
+    /**
+     * It returns sampled points when last step was a batch step, or null if
+     * all points were assigned.
+     */
+    @Override
+    public int[] getUpdatedPoints() {
+        return fullPass ? null : batch;
+    }
+
+    @Override
+    public long getDistanceCount() {
+        if (fullPass) {
+            return super.getDistanceCount();
+        }
+        return batch == null ? 0 : (long) batch.length * clusterNumber;
+    }
+
+    /**
+     * It returns largest movement of clusters at last batch step.
+     */
+    public double getMovement() {
+        return movement;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    public double getTolerance() {
+        return tolerance;
+    }
+
+    public void setTolerance(double tolerance) {
+        this.tolerance = Math.max(0, tolerance);
+    }
+
+    public int getFullPassInterval() {
+        return fullPassInterval;
+    }
+
+    public void setFullPassInterval(int fullPassInterval) {
+        this.fullPassInterval = Math.max(2, fullPassInterval);
+    }
+
+    /**
+     * Batch steps move clusters by learning rates, not by sums of their
+     * points, so an edit can not move a cluster to the mean of its points.
+     */
+    @Override
+    public boolean isEditable() {
+        return false;
+    }
+}
@@ -1,16 +1,22 @@
 package algorithmvisualization;
 
 import java.awt.Color;
-import java.awt.geom.Point2D;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
  * This class contains anything about Nearest Neighbour algorithm visualization.
  *
+ * Points are kept in a ball tree under selected metric, points in path are
+ * excluded from its queries, so nearest point of every step is found without
+ * scanning all of them. If tour improvement is on, path is shortened by
+ * 2-opt and Or-opt passes after it is complete, every step is a pass and
+ * links of points are updated by its moves.
+ *
  * @author Murat AKIN
  */
-public class NearestNeighbour {
+public class NearestNeighbour implements Algorithm {
 
     /* Speed of visualization animation. */
     private int speed = 150;
@@ -18,15 +24,40 @@ public class NearestNeighbour {
     /* Total distance of path */
     private int totalDist;
 
-    private List<Point> pointsNotInPath;
+    /* Points in canvas and their coordinates, indexes are same with indexes in tree. */
+    private Point[] points;
+    private double[] xs;
+    private double[] ys;
+    /* Tree of all points, it is shared by tours built at same time. */
+    private BallTree tree;
+    private Metric metric = Metric.EUCLIDEAN;
+    /* Points in path are excluded from nearest queries of tree. */
+    private boolean[] inPath;
+    private int[] inPathCounts;
     private List<Point> pointsInPath;
+    /* Indexes of points in path order, first pathSize of them are in path. */
+    private int[] path;
+    private int pathSize;
 
     private Point startPoint;
 
+    /* Number of start points tried before animation, shortest tour is animated. */
+    private int startNumber = 1;
+    /* Number of threads that build tours of start points. */
+    private int parallelism = 1;
+    /* Summary of tours of all start points, null if only one start point is used. */
+    private String startsReport;
+
+    /* Path is improved after it is complete or not. */
+    private boolean tourImprovement;
+    /* Improver of complete path, null until first improvement pass. */
+    private TourImprover improver;
+    /* Links of improved path. */
+    private TourLinks links;
+
     private Color color = new Color(HelperMethods.rand(225), HelperMethods.rand(225), HelperMethods.rand(225));
 
     public NearestNeighbour(Point startPoint, List<Drawable> shapes) {
-        this.pointsNotInPath = new ArrayList<>();
         this.pointsInPath = new ArrayList<>();
 
         this.startPoint = startPoint;
@@ -39,8 +70,24 @@ public class NearestNeighbour {
     /**
      * It prepares the environment for visualization.
      */
+    @Override
     public void prepare() {
-        pointsNotInPath.remove(startPoint);
+        tree = new BallTree(xs, ys, metric, parallelism);
+        inPath = new boolean[points.length];
+        inPathCounts = tree.newExcludedCounts();
+
+        startsReport = null;
+        if (startNumber > 1 && points.length > 1) {
+            chooseBestStart();
+        }
+
+        for (int i = 0; i < points.length; i++) {
+            if (points[i] == startPoint) {
+                tree.exclude(i, inPath, inPathCounts);
+                path[pathSize++] = i;
+                break;
+            }
+        }
         pointsInPath.add(startPoint);
 
         startPoint.setColor(color);
@@ -49,68 +96,190 @@ public class NearestNeighbour {
     }
 
     /**
-     * It executes a single step of algorithm.
+     * It builds tours from several start points concurrently and makes start
+     * point of shortest tour the start point of animation. First start is
+     * the selected point, others are spread evenly over points in canvas.
+     * Every tour has its own set of visited points on the shared tree.
      */
-    public void step() {
-        Point currentPoint = pointsInPath.get(pointsInPath.size() - 1);
+    private void chooseBestStart() {
+        int selected = 0;
+        for (int i = 0; i < points.length; i++) {
+            if (points[i] == startPoint) {
+                selected = i;
+                break;
+            }
+        }
 
-        double minDist = Integer.MAX_VALUE;
-        Point nearestPoint = null;
+        final int tourNumber = Math.min(startNumber, points.length);
+        final int[] starts = new int[tourNumber];
+        final double[] lengths = new double[tourNumber];
+        starts[0] = selected;
+        for (int t = 1; t < tourNumber; t++) {
+            starts[t] = (selected + (int) ((long) t * points.length / tourNumber)) % points.length;
+        }
 
-        for (Point point : pointsNotInPath) {
-            double newDist = Point2D.distance(
-                    currentPoint.getCenterX(), currentPoint.getCenterY(),
-                    point.getCenterX(), point.getCenterY());
+        ParallelBlocks.run(ParallelBlocks.pool(parallelism), tourNumber, 1, new ParallelBlocks.BlockAction() {
+            @Override
+            public void run(int block, int from, int to) {
+                for (int t = from; t < to; t++) {
+                    lengths[t] = tourLength(starts[t]);
+                }
+            }
+        });
 
-            if (newDist < minDist) {
-                minDist = newDist;
-                nearestPoint = point;
+        // Ties go to the earlier start, so result does not depend on parallelism.
+        int best = 0;
+        for (int t = 1; t < tourNumber; t++) {
+            if (lengths[t] < lengths[best]) {
+                best = t;
             }
         }
+        startPoint = points[starts[best]];
+
+        double[] sorted = lengths.clone();
+        Arrays.sort(sorted);
+        double mean = 0;
+        for (double length : lengths) {
+            mean += length / tourNumber;
+        }
+
+        StringBuilder strBuilder = new StringBuilder();
+        strBuilder.append("Tours from ").append(tourNumber).append(" start points\n");
+        strBuilder.append("\tShortest: ").append(HelperMethods.scaleDouble(sorted[0], 2));
+        strBuilder.append(" from ").append(HelperMethods.scaleDouble(startPoint.getCenterX(), 2));
+        strBuilder.append(", ").append(HelperMethods.scaleDouble(startPoint.getCenterY(), 2)).append("\n");
+        strBuilder.append("\tSelected point: ").append(HelperMethods.scaleDouble(lengths[0], 2)).append("\n");
+        strBuilder.append("\tLower quartile: ").append(HelperMethods.scaleDouble(sorted[tourNumber / 4], 2));
+        strBuilder.append(", median: ").append(HelperMethods.scaleDouble(sorted[tourNumber / 2], 2));
+        strBuilder.append(", upper quartile: ").append(HelperMethods.scaleDouble(sorted[3 * tourNumber / 4], 2)).append("\n");
+        strBuilder.append("\tLongest: ").append(HelperMethods.scaleDouble(sorted[tourNumber - 1], 2));
+        strBuilder.append(", mean: ").append(HelperMethods.scaleDouble(mean, 2)).append("\n");
+        startsReport = strBuilder.toString();
+    }
+
+    /**
+     * It returns length of the tour that starts from given point, it visits
+     * points in same order with animation.
+     */
+    private double tourLength(int start) {
+        boolean[] visited = new boolean[points.length];
+        int[] visitedCounts = tree.newExcludedCounts();
+        tree.exclude(start, visited, visitedCounts);
+
+        double length = 0;
+        int current = start;
+        for (int k = 1; k < points.length; k++) {
+            int next = tree.nearest(xs[current], ys[current], visited, visitedCounts);
+            tree.exclude(next, visited, visitedCounts);
+            length += metric.distance(xs[current], ys[current], xs[next], ys[next]);
+            current = next;
+        }
+        return length;
+    }
+
+    /**
+     * It executes a single step of algorithm, a pass of improvement once path
+     * is complete.
+     */
+    @Override
+    public void step() {
+        if (pathSize == points.length) {
+            if (tourImprovement) {
+                improve();
+            }
+            return;
+        }
 
-        if (nearestPoint == null) {
+        Point currentPoint = pointsInPath.get(pointsInPath.size() - 1);
+
+        int nearest = tree.nearest(currentPoint.getCenterX(), currentPoint.getCenterY(), inPath, inPathCounts);
+        if (nearest < 0) {
             return;
         }
 
+        Point nearestPoint = points[nearest];
+        double minDist = metric.distance(
+                currentPoint.getCenterX(), currentPoint.getCenterY(),
+                nearestPoint.getCenterX(), nearestPoint.getCenterY());
+
         totalDist += minDist;
-        pointsNotInPath.remove(nearestPoint);
+        tree.exclude(nearest, inPath, inPathCounts);
         pointsInPath.add(nearestPoint);
+        path[pathSize++] = nearest;
         currentPoint.setRayLine(nearestPoint.getCenterX(), nearestPoint.getCenterY());
         nearestPoint.setColor(color);
 
-        if (pointsNotInPath.size() == 0) {
+        if (pathSize == points.length) {
             nearestPoint.setColor(new Color(HelperMethods.rand(225)));
             nearestPoint.setStartPoint(true);
         }
 
     }
 
+    /**
+     * It executes a single improvement pass on complete path and updates
+     * links of points changed by its moves.
+     */
+    private void improve() {
+        if (improver == null) {
+            improver = new TourImprover(tree, path, TourImprover.NEIGHBOUR_NUMBER, parallelism);
+            links = new TourLinks(points, path, color);
+        }
+
+        improver.improve();
+        links.update(improver);
+    }
+
     /**
      * It returns execution of algorithm done or not.
      */
+    @Override
     public boolean isFinished() {
-        return (pointsNotInPath.size() == 0);
+        if (pathSize < points.length) {
+            return false;
+        }
+        return !tourImprovement || (improver != null && improver.isOptimal());
     }
 
     /**
-     * It loads all shapes in canvas to this context properly.
+     * It loads all shapes in canvas to this context properly, tree of points
+     * is built when algorithm is prepared.
      */
     private void loadPoints(List<Drawable> shapes) {
+        List<Point> loaded = new ArrayList<>();
         for (Drawable shape : shapes) {
             if (shape instanceof Point) {
-                pointsNotInPath.add((Point) shape);
+                loaded.add((Point) shape);
             }
         }
+        points = loaded.toArray(new Point[loaded.size()]);
+        path = new int[points.length];
+
+        xs = new double[points.length];
+        ys = new double[points.length];
+        for (int i = 0; i < points.length; i++) {
+            xs[i] = points[i].getCenterX();
+            ys[i] = points[i].getCenterY();
+        }
     }
 
     /**
      * It prepares and returns a report of last step as string.
      */
+    @Override
     public String report() {
+        if (improver != null) {
+            return improver.report();
+        }
+
         StringBuilder strBuilder = new StringBuilder();
 
         strBuilder.append("\nPoints in path: ").append(pointsInPath.size()).append("\n");
 
+        if (pointsInPath.size() == 2 && startsReport != null) {
+            strBuilder.append(startsReport);
+        }
+
         Point p1 = pointsInPath.get(pointsInPath.size() - 1);
         Point p2 = pointsInPath.get(pointsInPath.size() - 2);
 
@@ -120,7 +289,7 @@ public class NearestNeighbour {
         double p2Y = HelperMethods.scaleDouble(p2.getCenterY(), 2);
 
         double dist = HelperMethods.scaleDouble(
-                Point2D.distance(p1X, p1Y, p2X, p2Y), 2);
+                metric.distance(p1X, p1Y, p2X, p2Y), 2);
 
         strBuilder.append("-->Point added in: ").append(p1X).append(", ").append(p1Y).append("\n");
         strBuilder.append("\tDistance of added point: ").append(dist);
@@ -129,10 +298,42 @@ public class NearestNeighbour {
         return strBuilder.toString();
     }
 
+    /**
+     * It sets number of start points tried when algorithm is prepared, 1
+     * means only selected point.
+     */
+    public void setStartNumber(int startNumber) {
+        this.startNumber = Math.max(1, startNumber);
+    }
+
+    /**
+     * It sets metric of distances between points.
+     */
+    public void setMetric(Metric metric) {
+        this.metric = metric;
+    }
+
+    /**
+     * It sets number of threads used to build tree and tours of start points.
+     */
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * It sets path is improved by 2-opt and Or-opt moves after it is
+     * complete or not.
+     */
+    public void setTourImprovement(boolean tourImprovement) {
+        this.tourImprovement = tourImprovement;
+    }
+
+    @Override
     public int getSpeed() {
         return speed;
     }
 
+    @Override
     public void setSpeed(int speed) {
         this.speed = speed;
     }
@@ -0,0 +1,389 @@
+package algorithmvisualization;
+
+import java.util.Arrays;
+
+/**
+ * This class builds {@link Dendrogram} of points by nearest-neighbour chain
+ * algorithm.
+ *
+ * A chain is grown from any cluster by adding nearest cluster of its last
+ * one, until last two clusters are nearest of each other. They are merged,
+ * rest of chain is still a chain of nearest clusters for a {@link Linkage}
+ * that never brings a merged cluster closer, so growing goes on from there.
+ * Every merge is found after a few nearest cluster searches, merges are
+ * sorted by height at the end.
+ *
+ * Up to MATRIX_LIMIT points, distances of all cluster pairs are kept in a
+ * condensed float matrix, and updated by Lance-Williams formula at every
+ * merge. More points can only be merged by Ward linkage, it only needs
+ * centroid and size of clusters, which are kept in a uniform grid. Nearest
+ * cluster search visits rings of cells around centroid, until ring is too far
+ * to hold anything nearer than best found.
+ *
+ * In both ways, merged cluster is named by smaller of its two names, so a
+ * cluster is always named by one of its points. Heights of Ward merges are
+ * increase in sum of squared errors.
+ *
+ * @author Murat AKIN
+ */
+public class NearestNeighbourChain {
+
+    /* Largest number of points merged on a distance matrix. */
+    public static final int MATRIX_LIMIT = 6000;
+
+    /**
+     * It returns true if given number of points can be merged by given
+     * linkage.
+     */
+    public static boolean supports(Linkage linkage, int pointNumber) {
+        return linkage == Linkage.WARD || pointNumber <= MATRIX_LIMIT;
+    }
+
+    /**
+     * It returns true if points are merged on grid instead of a distance
+     * matrix.
+     */
+    public static boolean usesGrid(Linkage linkage, int pointNumber) {
+        return linkage == Linkage.WARD && pointNumber > MATRIX_LIMIT;
+    }
+
+    /**
+     * It builds dendrogram of given points. Ward linkage always measures by
+     * Euclidean distance, metric is used by average linkage.
+     */
+    public static Dendrogram build(double[] xs, double[] ys, Linkage linkage, Metric metric) {
+        if (!supports(linkage, xs.length)) {
+            throw new IllegalArgumentException("Average linkage is limited to " + MATRIX_LIMIT + " points.");
+        }
+        if (usesGrid(linkage, xs.length)) {
+            return buildOnGrid(xs, ys);
+        }
+        return buildOnMatrix(xs, ys, linkage, metric);
+    }
+
+    /**
+     * It builds dendrogram on a condensed distance matrix, distance of
+     * clusters i < j is at index(i, j).
+     */
+    private static Dendrogram buildOnMatrix(double[] xs, double[] ys, Linkage linkage, Metric metric) {
+        int n = xs.length;
+        float[] dists = new float[Math.max(0, (int) ((long) n * (n - 1) / 2))];
+        for (int i = 0; i < n; i++) {
+            int offset = index(n, i, i + 1);
+            for (int j = i + 1; j < n; j++) {
+                double dist;
+                if (linkage == Linkage.WARD) {
+                    double dx = xs[i] - xs[j];
+                    double dy = ys[i] - ys[j];
+                    dist = (dx * dx + dy * dy) / 2;
+                } else {
+                    dist = metric.distance(xs[i], ys[i], xs[j], ys[j]);
+                }
+                dists[offset + j - i - 1] = (float) dist;
+            }
+        }
+
+        int[] sizes = new int[n];
+        boolean[] active = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            sizes[i] = 1;
+            active[i] = true;
+        }
+
+        int[] firsts = new int[Math.max(0, n - 1)];
+        int[] seconds = new int[firsts.length];
+        double[] heights = new double[firsts.length];
+        int[] chain = new int[n];
+        int top = 0;
+        int start = 0;
+
+        for (int m = 0; m < firsts.length; m++) {
+            while (true) {
+                if (top == 0) {
+                    while (!active[start]) {
+                        start++;
+                    }
+                    chain[top++] = start;
+                }
+
+                int a = chain[top - 1];
+                int previous = top > 1 ? chain[top - 2] : -1;
+                int b = previous;
+                float best = previous >= 0 ? dists[index(n, a, previous)] : Float.MAX_VALUE;
+                for (int k = 0; k < n; k++) {
+                    if (k != a && active[k]) {
+                        float dist = dists[index(n, a, k)];
+                        if (dist < best || b < 0) {
+                            best = dist;
+                            b = k;
+                        }
+                    }
+                }
+
+                if (b != previous) {
+                    chain[top++] = b;
+                    continue;
+                }
+
+                top -= 2;
+                int kept = Math.min(a, b);
+                int removed = Math.max(a, b);
+                for (int k = 0; k < n; k++) {
+                    if (k == a || k == b || !active[k]) {
+                        continue;
+                    }
+                    int keptIndex = index(n, kept, k);
+                    double toKept = dists[keptIndex];
+                    double toRemoved = dists[index(n, removed, k)];
+                    double merged;
+                    if (linkage == Linkage.WARD) {
+                        double total = sizes[kept] + sizes[removed] + sizes[k];
+                        merged = ((sizes[kept] + sizes[k]) * toKept + (sizes[removed] + sizes[k]) * toRemoved
+                                - sizes[k] * (double) best) / total;
+                    } else {
+                        merged = (sizes[kept] * toKept + sizes[removed] * toRemoved) / (sizes[kept] + sizes[removed]);
+                    }
+                    dists[keptIndex] = (float) merged;
+                }
+                sizes[kept] += sizes[removed];
+                active[removed] = false;
+
+                firsts[m] = kept;
+                seconds[m] = removed;
+                heights[m] = best;
+                break;
+            }
+        }
+
+        return new Dendrogram(n, firsts, seconds, heights);
+    }
+
+    /**
+     * It returns index of distance of clusters i and j in condensed matrix.
+     */
+    private static int index(int n, int i, int j) {
+        if (i > j) {
+            int tmp = i;
+            i = j;
+            j = tmp;
+        }
+        return (int) ((long) i * (2 * n - i - 1) / 2) + j - i - 1;
+    }
+
+    /**
+     * It builds dendrogram of Ward linkage on a grid of cluster centroids.
+     */
+    private static Dendrogram buildOnGrid(double[] xs, double[] ys) {
+        CentroidGrid grid = new CentroidGrid(xs, ys);
+        int n = xs.length;
+
+        int[] firsts = new int[n - 1];
+        int[] seconds = new int[n - 1];
+        double[] heights = new double[n - 1];
+        int[] chain = new int[n];
+        int top = 0;
+        int start = 0;
+        double[] best = new double[1];
+
+        for (int m = 0; m < n - 1; m++) {
+            while (true) {
+                if (top == 0) {
+                    while (!grid.isActive(start)) {
+                        start++;
+                    }
+                    chain[top++] = start;
+                }
+
+                int a = chain[top - 1];
+                int previous = top > 1 ? chain[top - 2] : -1;
+                int b = grid.nearest(a, previous, best);
+                if (b != previous) {
+                    chain[top++] = b;
+                    continue;
+                }
+
+                top -= 2;
+                firsts[m] = Math.min(a, b);
+                seconds[m] = Math.max(a, b);
+                heights[m] = best[0];
+                grid.merge(firsts[m], seconds[m]);
+                break;
+            }
+        }
+
+        return new Dendrogram(n, firsts, seconds, heights);
+    }
+
+    /**
+     * This class keeps centroid and size of active clusters in a uniform grid.
+     */
+    private static class CentroidGrid {
+
+        private final double[] centerXs;
+        private final double[] centerYs;
+        private final int[] sizes;
+        private final boolean[] active;
+
+        private final double originX;
+        private final double originY;
+        private final double cellSize;
+        private final int width;
+        private final int height;
+
+        /* Clusters in each cell, null for a cell that never had one. */
+        private final int[][] cellClusters;
+        private final int[] cellCounts;
+        /* Cell of each cluster and its position in cell. */
+        private final int[] cellOf;
+        private final int[] positions;
+
+        CentroidGrid(double[] xs, double[] ys) {
+            int n = xs.length;
+            centerXs = xs.clone();
+            centerYs = ys.clone();
+            sizes = new int[n];
+            active = new boolean[n];
+
+            double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE;
+            double maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+            for (int i = 0; i < n; i++) {
+                minX = Math.min(minX, xs[i]);
+                minY = Math.min(minY, ys[i]);
+                maxX = Math.max(maxX, xs[i]);
+                maxY = Math.max(maxY, ys[i]);
+            }
+            originX = minX;
+            originY = minY;
+            // Four points in a cell on average.
+            double area = Math.max(1, (maxX - minX) * (maxY - minY));
+            cellSize = Math.max(1e-6, Math.sqrt(4 * area / n));
+            width = (int) ((maxX - minX) / cellSize) + 1;
+            height = (int) ((maxY - minY) / cellSize) + 1;
+
+            cellClusters = new int[width * height][];
+            cellCounts = new int[width * height];
+            cellOf = new int[n];
+            positions = new int[n];
+            for (int i = 0; i < n; i++) {
+                sizes[i] = 1;
+                active[i] = true;
+                insert(i);
+            }
+        }
+
+        boolean isActive(int i) {
+            return active[i];
+        }
+
+        /**
+         * It returns nearest active cluster of a, a previous one that is as
+         * near as best is kept. Ward distance to it is written to best.
+         */
+        int nearest(int a, int previous, double[] best) {
+            double x = centerXs[a];
+            double y = centerYs[a];
+            int cellX = cellX(x);
+            int cellY = cellY(y);
+            // Ward distance is at least this times squared distance of centroids.
+            double factor = sizes[a] / (sizes[a] + 1.0);
+            double inner = Math.min(Math.min(x - originX - cellX * cellSize, (cellX + 1) * cellSize - (x - originX)),
+                    Math.min(y - originY - cellY * cellSize, (cellY + 1) * cellSize - (y - originY)));
+            inner = Math.max(0, inner);
+
+            int nearest = previous;
+            double nearestDist = previous >= 0 ? ward(a, previous) : Double.MAX_VALUE;
+            int maxRing = Math.max(width, height);
+
+            for (int ring = 0; ring <= maxRing; ring++) {
+                if (ring > 0) {
+                    double gap = (ring - 1) * cellSize + inner;
+                    if (nearest >= 0 && factor * gap * gap > nearestDist) {
+                        break;
+                    }
+                }
+
+                for (int dx = -ring; dx <= ring; dx++) {
+                    int cx = cellX + dx;
+                    if (cx < 0 || cx >= width) {
+                        continue;
+                    }
+                    boolean edge = dx == -ring || dx == ring;
+                    for (int dy = -ring; dy <= ring; dy += edge ? 1 : 2 * ring) {
+                        int cy = cellY + dy;
+                        if (cy >= 0 && cy < height) {
+                            int cell = cy * width + cx;
+                            for (int k = 0; k < cellCounts[cell]; k++) {
+                                int b = cellClusters[cell][k];
+                                if (b == a || b == previous) {
+                                    continue;
+                                }
+                                double dist = ward(a, b);
+                                if (nearest < 0 || dist < nearestDist
+                                        || (dist == nearestDist && nearest != previous && b < nearest)) {
+                                    nearest = b;
+                                    nearestDist = dist;
+                                }
+                            }
+                        }
+                        if (ring == 0) {
+                            break;
+                        }
+                    }
+                }
+            }
+
+            best[0] = nearestDist;
+            return nearest;
+        }
+
+        /**
+         * It returns increase in sum of squared errors if a and b are merged.
+         */
+        private double ward(int a, int b) {
+            double dx = centerXs[a] - centerXs[b];
+            double dy = centerYs[a] - centerYs[b];
+            return (double) sizes[a] * sizes[b] / (sizes[a] + sizes[b]) * (dx * dx + dy * dy);
+        }
+
+        /**
+         * It merges cluster removed into cluster kept.
+         */
+        void merge(int kept, int removed) {
+            remove(kept);
+            remove(removed);
+            double total = sizes[kept] + sizes[removed];
+            centerXs[kept] = (sizes[kept] * centerXs[kept] + sizes[removed] * centerXs[removed]) / total;
+            centerYs[kept] = (sizes[kept] * centerYs[kept] + sizes[removed] * centerYs[removed]) / total;
+            sizes[kept] += sizes[removed];
+            active[removed] = false;
+            insert(kept);
+        }
+
+        private void insert(int i) {
+            int cell = cellY(centerYs[i]) * width + cellX(centerXs[i]);
+            if (cellClusters[cell] == null) {
+                cellClusters[cell] = new int[4];
+            } else if (cellCounts[cell] == cellClusters[cell].length) {
+                cellClusters[cell] = Arrays.copyOf(cellClusters[cell], 2 * cellCounts[cell]);
+            }
+            cellOf[i] = cell;
+            positions[i] = cellCounts[cell];
+            cellClusters[cell][cellCounts[cell]++] = i;
+        }
+
+        private void remove(int i) {
+            int cell = cellOf[i];
+            int last = cellClusters[cell][--cellCounts[cell]];
+            cellClusters[cell][positions[i]] = last;
+            positions[last] = positions[i];
+        }
+
+        private int cellX(double x) {
+            return Math.min(width - 1, Math.max(0, (int) ((x - originX) / cellSize)));
+        }
+
+        private int cellY(double y) {
+            return Math.min(height - 1, Math.max(0, (int) ((y - originY) / cellSize)));
+        }
+    }
+}
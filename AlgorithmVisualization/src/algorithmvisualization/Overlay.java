@@ -0,0 +1,15 @@
+package algorithmvisualization;
+
+import java.awt.Graphics;
+
+/**
+ * Interface of drawings that an algorithm puts over shapes in canvas. They
+ * are not shapes, they can not be selected or edited and they are dropped
+ * when another algorithm is made ready.
+ *
+ * @author Murat AKIN
+ */
+public interface Overlay {
+
+    public void draw(Graphics g);
+}
@@ -0,0 +1,112 @@
+package algorithmvisualization;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * This class splits an index range into fixed size blocks and runs them
+ * sequentially or on a fork/join pool.
+ *
+ * Block boundaries only depend on size of the range, so any result that is
+ * reduced in block order is same for every parallelism.
+ *
+ * @author Murat AKIN
+ */
+public class ParallelBlocks {
+
+    /* Shared pools, one for each parallelism level. */
+    private static final Map<Integer, ForkJoinPool> pools = new HashMap<>();
+
+    /**
+     * Work of a single block, which contains indexes in [from, to).
+     */
+    public interface BlockAction {
+
+        public void run(int block, int from, int to);
+    }
+
+    /**
+     * It returns a shared pool for given parallelism, or null if parallelism
+     * means sequential execution.
+     */
+    public static synchronized ForkJoinPool pool(int parallelism) {
+        if (parallelism <= 1) {
+            return null;
+        }
+
+        ForkJoinPool pool = pools.get(parallelism);
+        if (pool == null) {
+            pool = new ForkJoinPool(parallelism);
+            pools.put(parallelism, pool);
+        }
+        return pool;
+    }
+
+    /**
+     * It returns number of blocks of given size needed to cover n indexes.
+     */
+    public static int blockCount(int n, int blockSize) {
+        return (n + blockSize - 1) / blockSize;
+    }
+
+    /**
+     * It returns a block size not less than minBlockSize which splits n
+     * indexes to at most maxBlocks blocks.
+     */
+    public static int blockSize(int n, int minBlockSize, int maxBlocks) {
+        return Math.max(minBlockSize, (n + maxBlocks - 1) / maxBlocks);
+    }
+
+    /**
+     * It runs action for every block of [0, n). If pool is null, blocks are
+     * executed in order in current thread.
+     */
+    public static void run(ForkJoinPool pool, int n, int blockSize, BlockAction action) {
+        int blocks = blockCount(n, blockSize);
+
+        if (pool == null || blocks < 2) {
+            for (int b = 0; b < blocks; b++) {
+                action.run(b, b * blockSize, Math.min(n, (b + 1) * blockSize));
+            }
+            return;
+        }
+
+        pool.invoke(new BlockTask(action, n, blockSize, 0, blocks));
+    }
+
+    /**
+     * This class runs a range of blocks by splitting it into halves.
+     */
+    private static class BlockTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final BlockAction action;
+        private final int n;
+        private final int blockSize;
+        private final int firstBlock;
+        private final int lastBlock;
+
+        BlockTask(BlockAction action, int n, int blockSize, int firstBlock, int lastBlock) {
+            this.action = action;
+            this.n = n;
+            this.blockSize = blockSize;
+            this.firstBlock = firstBlock;
+            this.lastBlock = lastBlock;
+        }
+
+        @Override
+        protected void compute() {
+            if (lastBlock - firstBlock == 1) {
+                action.run(firstBlock, firstBlock * blockSize, Math.min(n, lastBlock * blockSize));
+                return;
+            }
+
+            int middle = (firstBlock + lastBlock) >>> 1;
+            invokeAll(new BlockTask(action, n, blockSize, firstBlock, middle),
+                    new BlockTask(action, n, blockSize, middle, lastBlock));
+        }
+    }
+}
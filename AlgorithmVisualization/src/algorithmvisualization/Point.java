@@ -137,9 +137,17 @@ public class Point implements Drawable {
         this.color = color;
     }
 
+    /**
+     * It sets ray line from this point to given position. Existing line is
+     * reused, so animation steps do not allocate lines.
+     */
     public void setRayLine(double x2, double y2) {
-        this.rayLine = new Line(getCenterX(), getCenterY(), x2, y2);
-        this.rayLine.setColor(color);
+        if (rayLine == null) {
+            rayLine = new Line(getCenterX(), getCenterY(), x2, y2);
+        } else {
+            rayLine.setLine(getCenterX(), getCenterY(), x2, y2);
+        }
+        rayLine.setColor(color);
     }
 
     public void setRayLine(Line rayLine) {
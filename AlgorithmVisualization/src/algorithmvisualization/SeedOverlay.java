@@ -0,0 +1,81 @@
+package algorithmvisualization;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Path2D;
+
+/**
+ * This class draws seeds of mean shift over canvas, every seed with path it
+ * moved along. A seed still moving is drawn hollow, a converged seed filled.
+ *
+ * @author Murat AKIN
+ */
+public class SeedOverlay implements Overlay {
+
+    /* Translucent gray of paths. */
+    private static final Color PATH_COLOR = new Color(90, 90, 90, 120);
+    /* Radius of seed circles. */
+    private static final double RADIUS = 3;
+
+    private Path2D.Double[] paths = new Path2D.Double[0];
+    private double[] seedXs = new double[0];
+    private double[] seedYs = new double[0];
+    private boolean[] converged = new boolean[0];
+
+    /**
+     * It sets seeds at their starting locations, paths are cleared.
+     */
+    public void setSeeds(double[] seedXs, double[] seedYs) {
+        this.seedXs = seedXs.clone();
+        this.seedYs = seedYs.clone();
+        converged = new boolean[seedXs.length];
+        paths = new Path2D.Double[seedXs.length];
+        for (int s = 0; s < seedXs.length; s++) {
+            paths[s] = new Path2D.Double();
+            paths[s].moveTo(seedXs[s], seedYs[s]);
+        }
+    }
+
+    /**
+     * It moves seeds to given locations, in same order as they are set, and
+     * extends their paths.
+     */
+    public void moveSeeds(double[] seedXs, double[] seedYs, boolean[] converged) {
+        for (int s = 0; s < paths.length; s++) {
+            if (seedXs[s] != this.seedXs[s] || seedYs[s] != this.seedYs[s]) {
+                paths[s].lineTo(seedXs[s], seedYs[s]);
+                this.seedXs[s] = seedXs[s];
+                this.seedYs[s] = seedYs[s];
+            }
+            this.converged[s] = converged[s];
+        }
+    }
+
+    @Override
+    public void draw(Graphics g) {
+        Graphics2D g2d = (Graphics2D) g.create();
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+        g2d.setColor(PATH_COLOR);
+        g2d.setStroke(new BasicStroke(1.5f));
+        for (Path2D.Double path : paths) {
+            g2d.draw(path);
+        }
+
+        g2d.setColor(Color.BLACK);
+        g2d.setStroke(new BasicStroke(1f));
+        for (int s = 0; s < paths.length; s++) {
+            Ellipse2D.Double circle = new Ellipse2D.Double(seedXs[s] - RADIUS, seedYs[s] - RADIUS, 2 * RADIUS, 2 * RADIUS);
+            if (converged[s]) {
+                g2d.fill(circle);
+            } else {
+                g2d.draw(circle);
+            }
+        }
+        g2d.dispose();
+    }
+}
@@ -0,0 +1,285 @@
+package algorithmvisualization;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class contains anything about Space Filling Curve tour visualization.
+ *
+ * Points are visited in the order of a Hilbert curve over their bounding
+ * square. Position of every point on curve is computed on a grid, and points
+ * are sorted by it with a radix sort, so whole tour is built in linear time at
+ * first step. If tour improvement is on, next steps are 2-opt and Or-opt
+ * passes on the tour.
+ *
+ * @author Murat AKIN
+ */
+public class SpaceFillingCurve implements Algorithm {
+
+    /* Curve is drawn on a grid of 2^ORDER x 2^ORDER cells. */
+    private static final int ORDER = 16;
+
+    /* Bits of curve position sorted by each radix sort pass. */
+    private static final int RADIX_BITS = 16;
+
+    /* Smallest number of points whose curve positions are computed by a single task. */
+    private static final int MIN_BLOCK_SIZE = 4096;
+    /* Upper limit of blocks. */
+    private static final int MAX_BLOCK_NUMBER = 256;
+
+    /* Speed of visualization animation. */
+    private int speed = 150;
+
+    /* Points in canvas and their coordinates. */
+    private Point[] points;
+    private double[] xs;
+    private double[] ys;
+
+    /* Indexes of points in tour order, null until tour is built. */
+    private int[] path;
+    private double totalDist;
+
+    /* Number of threads that compute curve positions and candidate lists. */
+    private int parallelism = 1;
+
+    /* Metric of distances between points. */
+    private Metric metric = Metric.EUCLIDEAN;
+
+    /* Tour is improved after it is built or not. */
+    private boolean tourImprovement;
+    /* Improver of tour, null until first improvement pass. */
+    private TourImprover improver;
+    private TourLinks links;
+
+    private Color color = new Color(HelperMethods.rand(225), HelperMethods.rand(225), HelperMethods.rand(225));
+
+    public SpaceFillingCurve(List<Drawable> shapes) {
+        loadPoints(shapes);
+    }
+
+    /**
+     * It prepares the environment for visualization.
+     */
+    @Override
+    public void prepare() {
+        path = null;
+        improver = null;
+    }
+
+    /**
+     * It builds whole tour at first step, then executes a single pass of
+     * improvement at every step.
+     */
+    @Override
+    public void step() {
+        if (path == null) {
+            buildTour();
+            links = new TourLinks(points, path, color);
+            links.draw();
+        } else if (tourImprovement && points.length > 0) {
+            if (improver == null) {
+                improver = new TourImprover(new BallTree(xs, ys, metric, parallelism), path, TourImprover.NEIGHBOUR_NUMBER, parallelism);
+            }
+            improver.improve();
+            links.update(improver);
+        }
+    }
+
+    /**
+     * It orders points along Hilbert curve.
+     */
+    private void buildTour() {
+        path = curveOrder(xs, ys, parallelism);
+
+        totalDist = 0;
+        for (int k = 1; k < path.length; k++) {
+            totalDist += metric.distance(xs[path[k - 1]], ys[path[k - 1]], xs[path[k]], ys[path[k]]);
+        }
+    }
+
+    /**
+     * It returns indexes of given points in the order they are visited by
+     * Hilbert curve over their bounding square. Points near each other in
+     * order are near each other in canvas, so it is also used to make batches
+     * of work on points local.
+     */
+    static int[] curveOrder(final double[] xs, final double[] ys, int parallelism) {
+        final int n = xs.length;
+        final int[] keys = new int[n];
+
+        double minX = Double.MAX_VALUE, maxX = -Double.MAX_VALUE;
+        double minY = Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+        for (int i = 0; i < n; i++) {
+            minX = Math.min(minX, xs[i]);
+            maxX = Math.max(maxX, xs[i]);
+            minY = Math.min(minY, ys[i]);
+            maxY = Math.max(maxY, ys[i]);
+        }
+
+        // Same scale for both axes, so curve is not stretched.
+        final double originX = minX;
+        final double originY = minY;
+        double side = Math.max(maxX - minX, maxY - minY);
+        final double scale = side > 0 ? ((1 << ORDER) - 1) / side : 0;
+
+        int blockSize = ParallelBlocks.blockSize(n, MIN_BLOCK_SIZE, MAX_BLOCK_NUMBER);
+        ParallelBlocks.run(ParallelBlocks.pool(parallelism), n, blockSize, new ParallelBlocks.BlockAction() {
+            @Override
+            public void run(int block, int from, int to) {
+                for (int i = from; i < to; i++) {
+                    int cellX = (int) ((xs[i] - originX) * scale);
+                    int cellY = (int) ((ys[i] - originY) * scale);
+                    keys[i] = curvePosition(cellX, cellY);
+                }
+            }
+        });
+
+        return sortByKey(keys);
+    }
+
+    /**
+     * It returns position of given cell on Hilbert curve, as an unsigned
+     * integer.
+     */
+    private static int curvePosition(int x, int y) {
+        int n = 1 << ORDER;
+        int position = 0;
+        for (int s = n >>> 1; s > 0; s >>>= 1) {
+            int rx = (x & s) != 0 ? 1 : 0;
+            int ry = (y & s) != 0 ? 1 : 0;
+            position += s * s * ((3 * rx) ^ ry);
+
+            // Sub square is rotated, so curve continues from where it ends.
+            if (ry == 0) {
+                if (rx == 1) {
+                    x = n - 1 - x;
+                    y = n - 1 - y;
+                }
+                int tmp = x;
+                x = y;
+                y = tmp;
+            }
+        }
+        return position;
+    }
+
+    /**
+     * It returns indexes of points sorted by their keys, as unsigned
+     * integers. Sort is stable, points at same position stay in canvas order.
+     */
+    private static int[] sortByKey(int[] keys) {
+        int n = keys.length;
+        int radix = 1 << RADIX_BITS;
+        int[] order = new int[n];
+        int[] sorted = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+
+        for (int shift = 0; shift < 32; shift += RADIX_BITS) {
+            int[] counts = new int[radix + 1];
+            for (int i = 0; i < n; i++) {
+                counts[((keys[i] >>> shift) & (radix - 1)) + 1]++;
+            }
+            for (int r = 0; r < radix; r++) {
+                counts[r + 1] += counts[r];
+            }
+            for (int k = 0; k < n; k++) {
+                int i = order[k];
+                sorted[counts[(keys[i] >>> shift) & (radix - 1)]++] = i;
+            }
+
+            int[] tmp = order;
+            order = sorted;
+            sorted = tmp;
+        }
+        return order;
+    }
+
+    /**
+     * It returns execution of algorithm done or not.
+     */
+    @Override
+    public boolean isFinished() {
+        if (path == null) {
+            return false;
+        }
+        return !tourImprovement || points.length == 0 || (improver != null && improver.isOptimal());
+    }
+
+    /**
+     * It loads all points in canvas to this context.
+     */
+    private void loadPoints(List<Drawable> shapes) {
+        List<Point> loaded = new ArrayList<>();
+        for (Drawable shape : shapes) {
+            if (shape instanceof Point) {
+                loaded.add((Point) shape);
+            }
+        }
+        points = loaded.toArray(new Point[loaded.size()]);
+
+        xs = new double[points.length];
+        ys = new double[points.length];
+        for (int i = 0; i < points.length; i++) {
+            xs[i] = points[i].getCenterX();
+            ys[i] = points[i].getCenterY();
+        }
+    }
+
+    /**
+     * It prepares and returns a report of last step as string.
+     */
+    @Override
+    public String report() {
+        if (improver != null) {
+            return improver.report();
+        }
+
+        StringBuilder strBuilder = new StringBuilder();
+
+        if (path == null) {
+            strBuilder.append("\nPoints in path: 0\n");
+            return strBuilder.toString();
+        }
+
+        strBuilder.append("\nPoints in path: ").append(path.length).append("\n");
+        strBuilder.append("-->Points ordered along Hilbert curve of order ").append(ORDER).append("\n");
+        strBuilder.append("\tTotal length of path: ").append(HelperMethods.scaleDouble(totalDist, 2)).append("\n");
+
+        return strBuilder.toString();
+    }
+
+    /**
+     * It sets tour is improved by 2-opt and Or-opt moves after it is built
+     * or not.
+     */
+    public void setTourImprovement(boolean tourImprovement) {
+        this.tourImprovement = tourImprovement;
+    }
+
+    /**
+     * It sets metric of distances between points.
+     */
+    public void setMetric(Metric metric) {
+        this.metric = metric;
+    }
+
+    /**
+     * It sets number of threads used to build tour.
+     */
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    @Override
+    public int getSpeed() {
+        return speed;
+    }
+
+    @Override
+    public void setSpeed(int speed) {
+        this.speed = speed;
+    }
+}
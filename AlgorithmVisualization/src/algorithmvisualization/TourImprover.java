@@ -0,0 +1,430 @@
+package algorithmvisualization;
+
+/**
+ * This class shortens an open path over points by 2-opt and Or-opt moves.
+ *
+ * Path is kept as a cycle with an extra dummy city that is at zero distance
+ * to every point, so ends of path can change like any other edge. Moves are
+ * only tried between a city and its nearest points (candidate lists), and a
+ * city is not looked at again until an edge next to it changes (don't-look
+ * bits). A pass looks at every city that is active at its beginning, passes
+ * are repeated until no city is active, then path is a local optimum.
+ *
+ * @author Murat AKIN
+ */
+public class TourImprover {
+
+    /* Usual number of nearest points tried by moves of each point. */
+    public static final int NEIGHBOUR_NUMBER = 8;
+
+    /* Smallest number of points whose candidate lists are built by a single task. */
+    private static final int MIN_BLOCK_SIZE = 1024;
+    /* Upper limit of blocks. */
+    private static final int MAX_BLOCK_NUMBER = 256;
+
+    /* Longest segment moved by an Or-opt move. */
+    private static final int MAX_SEGMENT = 3;
+
+    /* Smallest gain accepted, it keeps rounding errors from cycling moves. */
+    private static final double EPSILON = 1e-9;
+
+    private final double[] xs;
+    private final double[] ys;
+    private final Metric metric;
+    private final int pointNumber;
+
+    /* Index of dummy city, it is same with number of points. */
+    private final int dummy;
+    /* Number of cities in cycle, points and dummy. */
+    private final int cityNumber;
+
+    /* Cities in cycle order and position of each city in it. */
+    private final int[] cycle;
+    private final int[] positions;
+
+    /* Candidates of point i are candidates[i * neighbourNumber ..]. */
+    private final int neighbourNumber;
+    private final int[] candidates;
+
+    /* Active cities, a circular queue. Don't-look bit of city is !queued. */
+    private final int[] queue;
+    private final boolean[] queued;
+    private int queueHead;
+    private int queueSize;
+
+    private double length;
+    /* Length of path before improvement. */
+    private final double initialLength;
+    private int passNumber;
+    private int twoOptMoves;
+    private int orOptMoves;
+
+    /**
+     * It prepares improvement of given path.
+     *
+     * @param tree tree of points, indexes of path are indexes of tree.
+     * @param path indexes of all points in path order.
+     * @param neighbourNumber size of candidate list of every point.
+     * @param parallelism number of threads that build candidate lists.
+     */
+    public TourImprover(final BallTree tree, int[] path, int neighbourNumber, int parallelism) {
+        this.xs = tree.getXs();
+        this.ys = tree.getYs();
+        this.metric = tree.getMetric();
+        this.pointNumber = xs.length;
+        this.dummy = pointNumber;
+        this.cityNumber = pointNumber + 1;
+
+        cycle = new int[cityNumber];
+        positions = new int[cityNumber];
+        System.arraycopy(path, 0, cycle, 0, pointNumber);
+        cycle[pointNumber] = dummy;
+        for (int k = 0; k < cityNumber; k++) {
+            positions[cycle[k]] = k;
+        }
+
+        length = computeLength();
+        initialLength = length;
+
+        final int k = Math.max(1, Math.min(neighbourNumber, pointNumber - 1));
+        this.neighbourNumber = k;
+        candidates = new int[pointNumber * k];
+
+        int blockSize = ParallelBlocks.blockSize(pointNumber, MIN_BLOCK_SIZE, MAX_BLOCK_NUMBER);
+        ParallelBlocks.run(ParallelBlocks.pool(parallelism), pointNumber, blockSize, new ParallelBlocks.BlockAction() {
+            @Override
+            public void run(int block, int from, int to) {
+                int[] nearest = new int[k];
+                double[] dists = new double[k];
+                for (int i = from; i < to; i++) {
+                    int found = tree.nearest(xs[i], ys[i], i, nearest, dists);
+                    int count = 0;
+                    for (int j = 0; j < found; j++) {
+                        candidates[i * k + count++] = nearest[j];
+                    }
+                    while (count < k) {
+                        candidates[i * k + count++] = i;
+                    }
+                }
+            }
+        });
+
+        queue = new int[cityNumber];
+        queued = new boolean[cityNumber];
+        if (pointNumber > 2) {
+            for (int c = 0; c < pointNumber; c++) {
+                activate(path[c]);
+            }
+        }
+    }
+
+    /**
+     * It executes a single improvement pass.
+     *
+     * @return any move is done or not.
+     */
+    public boolean improve() {
+        if (queueSize == 0) {
+            return false;
+        }
+
+        passNumber++;
+        int twoOptBefore = twoOptMoves;
+        int orOptBefore = orOptMoves;
+
+        for (int remaining = queueSize; remaining > 0 && queueSize > 0; remaining--) {
+            int city = queue[queueHead];
+            queueHead = (queueHead + 1) % cityNumber;
+            queueSize--;
+            queued[city] = false;
+
+            if (improveCity(city)) {
+                // City may have more improving moves.
+                activate(city);
+            }
+        }
+
+        length = computeLength();
+        return twoOptMoves > twoOptBefore || orOptMoves > orOptBefore;
+    }
+
+    private double computeLength() {
+        double sum = 0;
+        for (int k = 1; k < cityNumber; k++) {
+            sum += distance(cycle[k - 1], cycle[k]);
+        }
+        return sum + distance(cycle[cityNumber - 1], cycle[0]);
+    }
+
+    /**
+     * It returns path is a local optimum or not, so no pass can improve it.
+     */
+    public boolean isOptimal() {
+        return queueSize == 0;
+    }
+
+    /**
+     * It tries moves that add an edge between given city and one of its
+     * candidates, first improving one is done.
+     */
+    private boolean improveCity(int a) {
+        for (int direction = 0; direction < 2; direction++) {
+            boolean forward = direction == 0;
+            int b = step(a, forward);
+            double removed = distance(a, b);
+
+            for (int j = 0; j < neighbourNumber; j++) {
+                int c = candidates[a * neighbourNumber + j];
+                double added = distance(a, c);
+                if (added >= removed) {
+                    // An improving move adds an edge shorter than a removed
+                    // one next to it, so it is found from city of that edge.
+                    break;
+                }
+
+                // 2-opt: edges (a, b) and (c, d) become (a, c) and (b, d).
+                int d = step(c, forward);
+                if (c != a && c != b && d != a) {
+                    double gain = removed + distance(c, d) - added - distance(b, d);
+                    if (gain > EPSILON) {
+                        twoOpt(a, b, c, d);
+                        twoOptMoves++;
+                        activate(a, b, c, d);
+                        return true;
+                    }
+                }
+            }
+
+            if (tryOrOpt(a, forward)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * It tries to move a short segment that begins at given city next to one
+     * of candidates of the city, in same or reversed orientation.
+     */
+    private boolean tryOrOpt(int a, boolean forward) {
+        int s1 = a;
+        int s2 = a;
+        for (int size = 1; size <= MAX_SEGMENT && size < cityNumber - 2; size++) {
+            if (size > 1) {
+                s2 = step(s2, forward);
+            }
+            int p = step(s1, !forward);
+            int n = step(s2, forward);
+            if (n == p) {
+                return false;
+            }
+
+            double removed = distance(p, s1) + distance(s2, n) - distance(p, n);
+            if (removed <= EPSILON) {
+                continue;
+            }
+
+            for (int j = 0; j < neighbourNumber; j++) {
+                int c = candidates[a * neighbourNumber + j];
+                double toC = distance(a, c);
+                if (toC >= removed) {
+                    break;
+                }
+                if (c == p || inSegment(c, s1, size, forward)) {
+                    continue;
+                }
+
+                // Segment goes between c and its next city, s1 next to c.
+                int e = step(c, forward);
+                if (!inSegment(e, s1, size, forward)) {
+                    double gain = removed - (toC + distance(s2, e) - distance(c, e));
+                    if (gain > EPSILON) {
+                        orOpt(p, s1, s2, n, c, e, false);
+                        orOptMoves++;
+                        activate(p, s1, s2, n);
+                        activate(c);
+                        activate(e);
+                        return true;
+                    }
+                }
+
+                // Segment goes between c and its previous city, s1 next to c.
+                e = step(c, !forward);
+                if (e != p && !inSegment(e, s1, size, forward)) {
+                    double gain = removed - (toC + distance(s2, e) - distance(c, e));
+                    if (gain > EPSILON) {
+                        orOpt(p, s1, s2, n, e, c, true);
+                        orOptMoves++;
+                        activate(p, s1, s2, n);
+                        activate(c);
+                        activate(e);
+                        return true;
+                    }
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private boolean inSegment(int city, int s1, int size, boolean forward) {
+        int s = s1;
+        for (int k = 0; k < size; k++) {
+            if (s == city) {
+                return true;
+            }
+            s = step(s, forward);
+        }
+        return false;
+    }
+
+    /**
+     * It moves segment s1 .. s2 between p and n to between x and y. Cities
+     * s1, s2, n and y follow p, s1, s2 and x in same direction. Segment is
+     * placed as x s2 .. s1 y if reversed, x s1 .. s2 y otherwise. Move is
+     * done as a chain of 2-opt moves.
+     */
+    private void orOpt(int p, int s1, int s2, int n, int x, int y, boolean reversed) {
+        twoOpt(p, s1, x, y);
+        twoOpt(p, x, n, s2);
+        if (!reversed) {
+            twoOpt(x, s2, s1, y);
+        }
+    }
+
+    /**
+     * It replaces edges (a, b) and (c, d) with (a, c) and (b, d). Either b
+     * and d follow a and c in cycle order, or they precede them.
+     */
+    private void twoOpt(int a, int b, int c, int d) {
+        if (next(a) == b) {
+            reverse(positions[b], positions[c]);
+        } else {
+            reverse(positions[a], positions[d]);
+        }
+    }
+
+    /**
+     * It reverses cities from position i to j, going forward in cycle. If
+     * rest of cycle is shorter, it is reversed instead, cycle is same.
+     */
+    private void reverse(int i, int j) {
+        int size = (j - i + cityNumber) % cityNumber + 1;
+        if (2 * size > cityNumber) {
+            int from = (j + 1) % cityNumber;
+            j = (i - 1 + cityNumber) % cityNumber;
+            i = from;
+            size = cityNumber - size;
+        }
+
+        for (int k = 0; k < size / 2; k++) {
+            int first = cycle[i];
+            int second = cycle[j];
+            cycle[i] = second;
+            positions[second] = i;
+            cycle[j] = first;
+            positions[first] = j;
+
+            i = (i + 1) % cityNumber;
+            j = (j - 1 + cityNumber) % cityNumber;
+        }
+    }
+
+    private void activate(int a, int b, int c, int d) {
+        activate(a);
+        activate(b);
+        activate(c);
+        activate(d);
+    }
+
+    private void activate(int city) {
+        if (city == dummy || queued[city]) {
+            return;
+        }
+
+        queued[city] = true;
+        queue[(queueHead + queueSize) % cityNumber] = city;
+        queueSize++;
+    }
+
+    private int step(int city, boolean forward) {
+        return forward ? next(city) : previous(city);
+    }
+
+    private int next(int city) {
+        return cycle[(positions[city] + 1) % cityNumber];
+    }
+
+    private int previous(int city) {
+        return cycle[(positions[city] - 1 + cityNumber) % cityNumber];
+    }
+
+    private double distance(int a, int b) {
+        if (a == dummy || b == dummy) {
+            return 0;
+        }
+        return metric.distance(xs[a], ys[a], xs[b], ys[b]);
+    }
+
+    /**
+     * It prepares report of last improvement pass.
+     */
+    public String report() {
+        StringBuilder strBuilder = new StringBuilder();
+
+        double shorter = initialLength > 0 ? 100 * (initialLength - length) / initialLength : 0;
+
+        strBuilder.append("\nImprovement pass: ").append(passNumber).append("\n");
+        strBuilder.append("\t2-opt moves: ").append(twoOptMoves);
+        strBuilder.append("\tOr-opt moves: ").append(orOptMoves).append("\n");
+        strBuilder.append("\tTotal length of path: ").append(HelperMethods.scaleDouble(length, 2));
+        strBuilder.append(" (").append(HelperMethods.scaleDouble(shorter, 2)).append("% shorter)\n");
+        if (isOptimal()) {
+            strBuilder.append("-->No improving move is left\n");
+        }
+
+        return strBuilder.toString();
+    }
+
+    /**
+     * It returns first point of path.
+     */
+    public int getFirst() {
+        return next(dummy);
+    }
+
+    /**
+     * It returns last point of path.
+     */
+    public int getLast() {
+        return previous(dummy);
+    }
+
+    /**
+     * It returns point that follows given point in path, -1 for last point.
+     */
+    public int getNext(int point) {
+        int next = next(point);
+        return next == dummy ? -1 : next;
+    }
+
+    /**
+     * It returns length of path, it is measured after every pass.
+     */
+    public double getLength() {
+        return length;
+    }
+
+    public int getPassNumber() {
+        return passNumber;
+    }
+
+    public int getTwoOptMoves() {
+        return twoOptMoves;
+    }
+
+    public int getOrOptMoves() {
+        return orOptMoves;
+    }
+}
@@ -0,0 +1,90 @@
+package algorithmvisualization;
+
+import java.awt.Color;
+
+/**
+ * This class shows an open path over points by ray lines of points. Every
+ * point is linked to the point after it, ends of path are drawn as start
+ * points. Links are kept up to date while path is improved, only points
+ * whose next point changed are touched.
+ *
+ * @author Murat AKIN
+ */
+public class TourLinks {
+
+    private final Point[] points;
+    private final Color color;
+
+    /* Point that each point is linked to, -1 for none. */
+    private final int[] links;
+
+    /* Ends of path. */
+    private int firstPoint;
+    private int lastPoint;
+
+    /**
+     * It keeps links of given path, points are not changed.
+     *
+     * @param path indexes of all points in path order.
+     */
+    public TourLinks(Point[] points, int[] path, Color color) {
+        this.points = points;
+        this.color = color;
+
+        links = new int[points.length];
+        for (int k = 0; k < path.length; k++) {
+            links[path[k]] = k + 1 < path.length ? path[k + 1] : -1;
+        }
+        firstPoint = path.length > 0 ? path[0] : -1;
+        lastPoint = path.length > 0 ? path[path.length - 1] : -1;
+    }
+
+    /**
+     * It colors all points and draws every link of path.
+     */
+    public void draw() {
+        for (int i = 0; i < points.length; i++) {
+            points[i].setColor(color);
+            link(i, links[i]);
+        }
+
+        if (firstPoint >= 0) {
+            points[firstPoint].setStartPoint(true);
+            points[lastPoint].setStartPoint(true);
+        }
+    }
+
+    /**
+     * It updates links of points changed by improvement moves.
+     */
+    public void update(TourImprover improver) {
+        for (int i = 0; i < points.length; i++) {
+            int next = improver.getNext(i);
+            if (next != links[i]) {
+                links[i] = next;
+                link(i, next);
+            }
+        }
+
+        // Moves may change ends of path, marks go to new ends.
+        int first = improver.getFirst();
+        int last = improver.getLast();
+        if (first != firstPoint || last != lastPoint) {
+            points[firstPoint].setStartPoint(false);
+            points[lastPoint].setStartPoint(false);
+            points[lastPoint].setColor(color);
+            points[first].setStartPoint(true);
+            points[last].setStartPoint(true);
+            firstPoint = first;
+            lastPoint = last;
+        }
+    }
+
+    private void link(int point, int next) {
+        if (next < 0) {
+            points[point].setRayLine(null);
+        } else {
+            points[point].setRayLine(points[next].getCenterX(), points[next].getCenterY());
+        }
+    }
+}
@@ -0,0 +1,473 @@
+package algorithmvisualization;
+
+import java.awt.geom.Point2D;
+import java.util.Arrays;
+
+/**
+ * This class runs K-Means iterations with Yinyang filtering.
+ *
+ * Clusters are grouped into blocks and every point keeps an upper bound of
+ * distance to its cluster and one lower bound per group. A point whose upper
+ * bound is less than all group bounds keeps its cluster (global filter), a
+ * group whose bound is larger than best distance is not visited (group
+ * filter), and a cluster whose drift cannot bring it closer than best
+ * distance is not computed (local filter). Like Hamerly's method, a point
+ * closer to its cluster than half way to nearest other cluster is also kept
+ * without any work. Extra memory per point is proportional to number of
+ * groups, not clusters, so it suits hundreds or thousands of clusters.
+ * Clusters of points are exactly same with {@link KMeansEngine}.
+ *
+ * @author Murat AKIN
+ */
+public class YinyangKMeansEngine extends KMeansEngine {
+
+    /* Bounds are widened by this ratio, so rounding errors never make them wrong. */
+    private static final double SLACK = 1e-12;
+
+    /* Iterations used to group clusters. */
+    private static final int GROUPING_ITERATIONS = 5;
+
+    /* Number of cluster groups. */
+    private int groupNumber;
+    /* Group of each cluster. */
+    private int[] groupOf;
+    /* Clusters of group g are members[groupStarts[g]] .. members[groupStarts[g + 1] - 1]. */
+    private int[] groupStarts;
+    private int[] members;
+
+    /* Upper bound of distance between each point and its cluster. */
+    private final double[] upperBounds;
+    /* Lower bound of distance between point i and clusters of group g, except
+       its own cluster, is at i * groupNumber + g. Floats are rounded down. */
+    private float[] lowerBounds;
+    /* Smallest group bound of each point, it is used by global filter. */
+    private final float[] globalLowerBounds;
+
+    /* Number of executed steps. */
+    private int steps;
+    /* Bounds of each point are valid for clusters after this many steps. */
+    private final int[] boundSteps;
+
+    /* Total distance moved by cluster c in first t steps is at t * clusterNumber + c. */
+    private double[] cumulativeDrifts;
+    /* Sum of largest drifts of group g in first t steps is at t * groupNumber + g. */
+    private double[] cumulativeGroupDrifts;
+    /* Sum of largest drifts of all clusters in first t steps is at t. */
+    private double[] cumulativeMaxDrifts;
+
+    /* Half of distance between each cluster and its nearest other cluster. */
+    private final double[] halfNearestDists;
+
+    private final double[] previousXs;
+    private final double[] previousYs;
+
+    /* Distances computed by group filtering in each block at current step. */
+    private final long[] blockDistanceCounts;
+
+    /**
+     * Number of groups is chosen as a tenth of clusters.
+     */
+    public YinyangKMeansEngine(double[] xs, double[] ys, double[] centerXs, double[] centerYs) {
+        this(xs, ys, centerXs, centerYs, 0);
+    }
+
+    /**
+     * @param groupNumber number of cluster groups, 0 or less means automatic.
+     */
+    public YinyangKMeansEngine(double[] xs, double[] ys, double[] centerXs, double[] centerYs, int groupNumber) {
+        super(xs, ys, centerXs, centerYs);
+
+        upperBounds = new double[pointNumber];
+        globalLowerBounds = new float[pointNumber];
+        boundSteps = new int[pointNumber];
+        halfNearestDists = new double[clusterNumber];
+        previousXs = new double[clusterNumber];
+        previousYs = new double[clusterNumber];
+        blockDistanceCounts = new long[blockNumber];
+
+        setGroupNumber(groupNumber);
+    }
+
+    /**
+     * It sets number of cluster groups and groups clusters again. Points are
+     * assigned from scratch at next step.
+     *
+     * @param groupNumber number of cluster groups, 0 or less means automatic.
+     */
+    public final void setGroupNumber(int groupNumber) {
+        if (groupNumber <= 0) {
+            groupNumber = clusterNumber / 10;
+        }
+        this.groupNumber = Math.max(1, Math.min(clusterNumber, groupNumber));
+
+        if ((long) pointNumber * this.groupNumber > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many points and groups for Yinyang bounds.");
+        }
+
+        lowerBounds = new float[pointNumber * this.groupNumber];
+
+        steps = 0;
+        cumulativeDrifts = new double[16 * clusterNumber];
+        cumulativeGroupDrifts = new double[16 * this.groupNumber];
+        cumulativeMaxDrifts = new double[16];
+
+        groupClusters();
+
+        for (int i = 0; i < pointNumber; i++) {
+            assignments[i] = -1;
+        }
+    }
+
+    public int getGroupNumber() {
+        return groupNumber;
+    }
+
+    /**
+     * It groups clusters by running a few K-Means iterations on their
+     * positions, starting from evenly spaced clusters.
+     */
+    private void groupClusters() {
+        if (clusterNumber == 0) {
+            groupOf = new int[0];
+            return;
+        }
+
+        double[] groupXs = new double[groupNumber];
+        double[] groupYs = new double[groupNumber];
+        for (int g = 0; g < groupNumber; g++) {
+            int c = (int) ((long) g * clusterNumber / groupNumber);
+            groupXs[g] = centerXs[c];
+            groupYs[g] = centerYs[c];
+        }
+
+        groupOf = new int[clusterNumber];
+        double[] xSums = new double[groupNumber];
+        double[] ySums = new double[groupNumber];
+        int[] counts = new int[groupNumber];
+
+        for (int iteration = 0; iteration < GROUPING_ITERATIONS; iteration++) {
+            for (int g = 0; g < groupNumber; g++) {
+                xSums[g] = ySums[g] = counts[g] = 0;
+            }
+
+            for (int c = 0; c < clusterNumber; c++) {
+                double minDist = Double.MAX_VALUE;
+                int nearest = 0;
+                for (int g = 0; g < groupNumber; g++) {
+                    double newDist = Point2D.distanceSq(centerXs[c], centerYs[c], groupXs[g], groupYs[g]);
+                    if (newDist < minDist) {
+                        minDist = newDist;
+                        nearest = g;
+                    }
+                }
+
+                groupOf[c] = nearest;
+                xSums[nearest] += centerXs[c];
+                ySums[nearest] += centerYs[c];
+                counts[nearest]++;
+            }
+
+            for (int g = 0; g < groupNumber; g++) {
+                if (counts[g] > 0) {
+                    groupXs[g] = xSums[g] / counts[g];
+                    groupYs[g] = ySums[g] / counts[g];
+                }
+            }
+        }
+
+        groupStarts = new int[groupNumber + 1];
+        for (int c = 0; c < clusterNumber; c++) {
+            groupStarts[groupOf[c] + 1]++;
+        }
+        for (int g = 0; g < groupNumber; g++) {
+            groupStarts[g + 1] += groupStarts[g];
+        }
+
+        members = new int[clusterNumber];
+        int[] next = groupStarts.clone();
+        for (int c = 0; c < clusterNumber; c++) {
+            members[next[groupOf[c]]++] = c;
+        }
+    }
+
+    /**
+     * It computes half distance between every cluster and its nearest other
+     * cluster and keeps positions of clusters to find their drifts.
+     */
+    @Override
+    protected void beforeAssign() {
+        for (int a = 0; a < clusterNumber; a++) {
+            double nearest = Double.MAX_VALUE;
+            for (int b = 0; b < clusterNumber; b++) {
+                if (a != b) {
+                    nearest = Math.min(nearest, Point2D.distanceSq(centerXs[a], centerYs[a], centerXs[b], centerYs[b]));
+                }
+            }
+            halfNearestDists[a] = Math.sqrt(nearest) * 0.5 * (1 - SLACK);
+        }
+
+        System.arraycopy(centerXs, 0, previousXs, 0, clusterNumber);
+        System.arraycopy(centerYs, 0, previousYs, 0, clusterNumber);
+    }
+
+    /**
+     * It finds how far every cluster moved and largest drift of every group.
+     * Bounds of a point are loosened by these drifts only when the point
+     * really needs them, so points that pass global filter cost nothing more
+     * than a single comparison.
+     */
+    @Override
+    protected void afterUpdate() {
+        steps++;
+
+        if (steps + 1 > cumulativeMaxDrifts.length) {
+            int length = 2 * cumulativeMaxDrifts.length;
+            cumulativeMaxDrifts = Arrays.copyOf(cumulativeMaxDrifts, length);
+            cumulativeDrifts = Arrays.copyOf(cumulativeDrifts, length * clusterNumber);
+            cumulativeGroupDrifts = Arrays.copyOf(cumulativeGroupDrifts, length * groupNumber);
+        }
+
+        int row = steps * clusterNumber;
+        int groupRow = steps * groupNumber;
+        double[] groupDrifts = new double[groupNumber];
+        double maxDrift = 0;
+
+        for (int c = 0; c < clusterNumber; c++) {
+            double drift = Point2D.distance(previousXs[c], previousYs[c], centerXs[c], centerYs[c]);
+            cumulativeDrifts[row + c] = cumulativeDrifts[row - clusterNumber + c] + drift;
+
+            groupDrifts[groupOf[c]] = Math.max(groupDrifts[groupOf[c]], drift);
+            maxDrift = Math.max(maxDrift, drift);
+        }
+
+        for (int g = 0; g < groupNumber; g++) {
+            cumulativeGroupDrifts[groupRow + g] = cumulativeGroupDrifts[groupRow - groupNumber + g] + groupDrifts[g];
+        }
+        cumulativeMaxDrifts[steps] = cumulativeMaxDrifts[steps - 1] + maxDrift;
+    }
+
+    @Override
+    protected void assignBlock(int block, int from, int to) {
+        int offset = block * clusterNumber;
+        clearBlockSums(offset);
+
+        boolean anyChanged = false;
+        long distanceCount = 0;
+        for (int i = from; i < to; i++) {
+            int boundOffset = i * groupNumber;
+            int previous = assignments[i];
+            int nearest;
+
+            if (previous < 0) {
+                nearest = assignFirstTime(i, boundOffset);
+                distanceCount += clusterNumber;
+            } else {
+                // Global filter, on bounds loosened by drifts since they are computed.
+                int old = boundSteps[i];
+
+                double upper = upperBounds[i];
+                double drift = cumulativeDrifts[steps * clusterNumber + previous]
+                        - cumulativeDrifts[old * clusterNumber + previous];
+                if (drift > 0) {
+                    upper = (upper + drift) * (1 + SLACK) + cumulativeDrifts[steps * clusterNumber + previous] * SLACK;
+                }
+
+                double globalLower = globalLowerBounds[i];
+                globalLower = globalLower - (cumulativeMaxDrifts[steps] - cumulativeMaxDrifts[old])
+                        - (globalLower + cumulativeMaxDrifts[steps]) * SLACK;
+
+                double bound = Math.max(globalLower, halfNearestDists[previous]);
+                if (upper < bound) {
+                    addToBlockSums(offset, i, previous);
+                    continue;
+                }
+
+                // Filter again with exact distance. Upper bound stays valid with
+                // older bounds, since later drifts are added to it from their step.
+                double previousDist = Point2D.distance(xs[i], ys[i], centerXs[previous], centerYs[previous]);
+                distanceCount++;
+                if (previousDist < bound) {
+                    upperBounds[i] = previousDist;
+                    addToBlockSums(offset, i, previous);
+                    continue;
+                }
+
+                nearest = filterGroups(i, boundOffset, previous, previousDist, block);
+            }
+
+            if (nearest != previous) {
+                anyChanged = true;
+                assignments[i] = nearest;
+            }
+
+            addToBlockSums(offset, i, nearest);
+        }
+
+        setBlockResult(block, anyChanged, distanceCount + blockDistanceCounts[block]);
+        blockDistanceCounts[block] = 0;
+    }
+
+    /**
+     * It visits groups that may contain a nearer cluster than current one and
+     * brings all bounds of point up to date.
+     *
+     * @return nearest cluster of point.
+     */
+    private int filterGroups(int i, int boundOffset, int previous, double previousDist, int block) {
+        double pX = xs[i];
+        double pY = ys[i];
+        long distanceCount = 0;
+
+        int oldRow = boundSteps[i] * clusterNumber;
+        int newRow = steps * clusterNumber;
+        int oldGroupRow = boundSteps[i] * groupNumber;
+        int newGroupRow = steps * groupNumber;
+
+        int best = previous;
+        double bestDist = previousDist;
+
+        for (int g = 0; g < groupNumber; g++) {
+            double oldLower = lowerBounds[boundOffset + g];
+            double lower = oldLower - (cumulativeGroupDrifts[newGroupRow + g] - cumulativeGroupDrifts[oldGroupRow + g])
+                    - (oldLower + cumulativeGroupDrifts[newGroupRow + g]) * SLACK;
+
+            // Group filter
+            if (bestDist < lower) {
+                lowerBounds[boundOffset + g] = roundDown(lower);
+                continue;
+            }
+
+            double newLower = Double.MAX_VALUE;
+            for (int m = groupStarts[g]; m < groupStarts[g + 1]; m++) {
+                int c = members[m];
+                if (c == previous) {
+                    continue;
+                }
+
+                // Local filter
+                double localLower = oldLower - (cumulativeDrifts[newRow + c] - cumulativeDrifts[oldRow + c])
+                        - (oldLower + cumulativeDrifts[newRow + c]) * SLACK;
+                if (bestDist < localLower) {
+                    newLower = Math.min(newLower, localLower);
+                    continue;
+                }
+
+                double dist = Point2D.distance(pX, pY, centerXs[c], centerYs[c]);
+                distanceCount++;
+
+                // Ties go to smaller index, same with a full scan.
+                if (dist < bestDist || (dist == bestDist && c < best)) {
+                    if (best != previous) {
+                        // Displaced cluster becomes a bound of its own group, which is already visited.
+                        int bestGroup = groupOf[best];
+                        if (bestGroup == g) {
+                            newLower = Math.min(newLower, bestDist);
+                        } else {
+                            lowerBounds[boundOffset + bestGroup] = roundDown(
+                                    Math.min(lowerBounds[boundOffset + bestGroup], bestDist));
+                        }
+                    }
+                    best = c;
+                    bestDist = dist;
+                } else {
+                    newLower = Math.min(newLower, dist);
+                }
+            }
+
+            lowerBounds[boundOffset + g] = roundDown(newLower);
+        }
+
+        if (best != previous) {
+            int previousGroup = groupOf[previous];
+            lowerBounds[boundOffset + previousGroup] = roundDown(
+                    Math.min(lowerBounds[boundOffset + previousGroup], previousDist));
+        }
+
+        upperBounds[i] = bestDist;
+        boundSteps[i] = steps;
+        globalLowerBounds[i] = minimumLowerBound(boundOffset);
+        blockDistanceCounts[block] += distanceCount;
+        return best;
+    }
+
+    /**
+     * It returns smallest group bound of the point whose bounds start at
+     * given offset.
+     */
+    private float minimumLowerBound(int boundOffset) {
+        float min = Float.MAX_VALUE;
+        for (int g = 0; g < groupNumber; g++) {
+            min = Math.min(min, lowerBounds[boundOffset + g]);
+        }
+        return min;
+    }
+
+    /**
+     * It computes every distance of a point that has no cluster yet and
+     * initializes its bounds.
+     *
+     * @return nearest cluster of point.
+     */
+    private int assignFirstTime(int i, int boundOffset) {
+        double pX = xs[i];
+        double pY = ys[i];
+
+        double minDist = Double.MAX_VALUE;
+        int nearest = -1;
+        int nearestGroup = -1;
+        double nearestGroupSecond = Double.MAX_VALUE;
+
+        for (int g = 0; g < groupNumber; g++) {
+            // Members are in increasing order, so first of equal distances is kept.
+            double groupMin = Double.MAX_VALUE;
+            double groupSecond = Double.MAX_VALUE;
+            int groupNearest = -1;
+            for (int m = groupStarts[g]; m < groupStarts[g + 1]; m++) {
+                int c = members[m];
+                double newDist = Point2D.distance(pX, pY, centerXs[c], centerYs[c]);
+                if (newDist < groupMin) {
+                    groupSecond = groupMin;
+                    groupMin = newDist;
+                    groupNearest = c;
+                } else if (newDist < groupSecond) {
+                    groupSecond = newDist;
+                }
+            }
+
+            lowerBounds[boundOffset + g] = roundDown(groupMin);
+
+            if (groupMin < minDist || (groupMin == minDist && groupNearest < nearest)) {
+                minDist = groupMin;
+                nearest = groupNearest;
+                nearestGroup = g;
+                nearestGroupSecond = groupSecond;
+            }
+        }
+
+        lowerBounds[boundOffset + nearestGroup] = roundDown(nearestGroupSecond);
+        upperBounds[i] = minDist;
+        boundSteps[i] = steps;
+        globalLowerBounds[i] = minimumLowerBound(boundOffset);
+        return nearest;
+    }
+
+    /**
+     * It converts a lower bound to float without making it larger.
+     */
+    private static float roundDown(double value) {
+        if (value <= 0) {
+            return 0f;
+        }
+
+        float rounded = (float) value;
+        return rounded > value ? Math.nextDown(rounded) : rounded;
+    }
+
+    /**
+     * Bounds of every point would be broken by edits.
+     */
+    @Override
+    public boolean isEditable() {
+        return false;
+    }
+}
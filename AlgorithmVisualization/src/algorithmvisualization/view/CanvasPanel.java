@@ -1,15 +1,35 @@
 package algorithmvisualization.view;
 
+import algorithmvisualization.Algorithm;
 import algorithmvisualization.AlgorithmType;
+import algorithmvisualization.AllNearestNeighbours;
+import algorithmvisualization.BisectingKMeans;
 import algorithmvisualization.Cluster;
+import algorithmvisualization.Dbscan;
 import algorithmvisualization.Drawable;
+import algorithmvisualization.EllipseOverlay;
+import algorithmvisualization.GaussianMixture;
+import algorithmvisualization.GraphOverlay;
 import algorithmvisualization.HelperMethods;
+import algorithmvisualization.HierarchicalClustering;
+import algorithmvisualization.KNearestNeighbours;
 import algorithmvisualization.KMeans;
+import algorithmvisualization.KMeansSeeding;
+import algorithmvisualization.KMeansVariant;
+import algorithmvisualization.KMedoids;
+import algorithmvisualization.KnnGraphCache;
+import algorithmvisualization.Linkage;
+import algorithmvisualization.LocalOutlierFactor;
+import algorithmvisualization.MeanShift;
+import algorithmvisualization.Metric;
 import algorithmvisualization.MultipleSelection;
 import algorithmvisualization.NearestNeighbour;
+import algorithmvisualization.Overlay;
 import algorithmvisualization.Point;
+import algorithmvisualization.SeedOverlay;
 import algorithmvisualization.SelectMode;
 import algorithmvisualization.ShapeType;
+import algorithmvisualization.SpaceFillingCurve;
 import java.awt.Color;
 import java.awt.Graphics;
 import java.awt.event.ActionEvent;
@@ -49,8 +69,77 @@ public class CanvasPanel extends JPanel {
 
     private MultipleSelection multipleSelection;
 
+    /* Algorithm prepared by last ready call. */
+    private Algorithm readyAlgorithm;
+    /* It is same with readyAlgorithm while K-Means is ready, it follows edits in canvas. */
     private KMeans kmeans;
-    private NearestNeighbour nearestNeighbour;
+
+    /* Which variant of K-Means iteration will be executed. */
+    private KMeansVariant kmeansVariant = KMeansVariant.LLOYD;
+
+    /* Number of cluster groups of Yinyang K-Means, 0 means automatic. */
+    private int kmeansGroupNumber;
+
+    /* Number of points sampled at each step of mini-batch K-Means. */
+    private int kmeansBatchSize = 1024;
+
+    /* How clusters are placed before K-Means, and seed of random choices of K-Means, bisecting K-Means and K-Medoids. */
+    private KMeansSeeding kmeansSeeding = KMeansSeeding.CANVAS;
+    private long kmeansSeed;
+
+    /* Number of independent K-Means runs, best of them is shown. */
+    private int kmeansRestartNumber = 1;
+
+    /* Number of start points tried by Nearest Neighbour, shortest tour is shown. */
+    private int nearestNeighbourStartNumber = 1;
+    /* Tours are improved by 2-opt and Or-opt moves or not. */
+    private boolean tourImprovement;
+
+    /* Number of nearest labeled points that vote in k-NN classification. */
+    private int knnK = 5;
+    /* k-NN classifies all queries in a single step or not. */
+    private boolean knnBulk;
+    /* k-NN finds neighbours by HNSW graph instead of exact tree or not. */
+    private boolean knnApproximate;
+    /* Number of candidates kept by approximate k-NN queries. */
+    private int knnEf = 64;
+    /* Edges of kNN graph are drawn over canvas or not. */
+    private boolean knnGraphOverlay;
+    /* Overlay drawn over shapes, null if there is none. */
+    private Overlay overlay;
+    /* Last kNN graph of points, shared by algorithms that need neighbours of all points. */
+    private final KnnGraphCache knnGraphCache = new KnnGraphCache();
+
+    /* Number of outliers listed in LOF report. */
+    private int lofTopNumber = 10;
+
+    /* Neighbourhood radius of DBSCAN and number of points in it that makes a core point. */
+    private double dbscanEps = 20;
+    private int dbscanMinPoints = 5;
+    /* DBSCAN finds all clusters in a single step by parallel union-find or not. */
+    private boolean dbscanParallel;
+
+    /* Linkage of hierarchical clustering. */
+    private Linkage hacLinkage = Linkage.WARD;
+
+    /* Memory budget of K-Medoids distance cache, in megabytes. */
+    private int kmedoidsCacheMegabytes = 256;
+
+    /* Kernel radius of mean shift, it is size of seed bins too. */
+    private double meanShiftBandwidth = 40;
+    /* Number of points that a bin needs to start a mean shift seed. */
+    private int meanShiftMinBinFrequency = 1;
+
+    /* Number of clusters that bisecting K-Means splits points into. */
+    private int bisectingClusterNumber = 16;
+
+    /* Metric of distances between points. It is used by Nearest Neighbour, Space Filling Curve, k-NN, kNN graph,
+       LOF, DBSCAN, average linkage of hierarchical clustering, K-Medoids and mean shift. K-Means, Gaussian mixture,
+       bisecting K-Means and Ward linkage always measure Euclidean distance. */
+    private Metric metric = Metric.EUCLIDEAN;
+
+    /* Number of threads used by algorithms that run in parallel, 1 means sequential. */
+    private int parallelism = Runtime.getRuntime().availableProcessors();
 
     private Timer animationTimer;
 
@@ -74,10 +163,18 @@ public class CanvasPanel extends JPanel {
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
 
+        if (kmeans != null) {
+            kmeans.syncShapes();
+        }
+
         for (Drawable shape : shapes) {
             shape.draw(g);
         }
 
+        if (overlay != null) {
+            overlay.draw(g);
+        }
+
         if (selectMode == SelectMode.MULTIPLE && multipleSelection.isStarted()) {
             multipleSelection.draw(g);
         }
@@ -132,7 +229,10 @@ public class CanvasPanel extends JPanel {
     public void clearClusters() {
         for (int i = shapes.size() - 1; i >= 0; i--) {
             if (shapes.get(i) instanceof Cluster) {
-                shapes.remove(i);
+                Drawable cluster = shapes.remove(i);
+                if (kmeans != null) {
+                    kmeans.shapeRemoved(cluster);
+                }
             }
         }
 
@@ -145,24 +245,166 @@ public class CanvasPanel extends JPanel {
      * @param algorithm Which algorithm will be visualizated.
      */
     public void ready(AlgorithmType algorithm) {
+        dropKMeans();
+        overlay = null;
         if (algorithm == AlgorithmType.KMEANS) {
-            kmeans = new KMeans(shapes);
+            kmeans = new KMeans(shapes, kmeansVariant);
+            kmeans.setParallelism(parallelism);
+            kmeans.setGroupNumber(kmeansGroupNumber);
+            kmeans.setBatchSize(kmeansBatchSize);
+            kmeans.setSeeding(kmeansSeeding);
+            kmeans.setSeed(kmeansSeed);
+            kmeans.setRestartNumber(kmeansRestartNumber);
             kmeans.prepare();
 
             System.out.println(kmeans.getSpeed());
-            animationTimer = new Timer(kmeans.getSpeed(), new KMeansAnimation());
+            readyAlgorithm = kmeans;
+            animationTimer = new Timer(kmeans.getSpeed(), new AlgorithmAnimation());
 
             appendToReport("\n*** Ready to Work: K-Means Algorithm ***\n");
+        } else if (algorithm == AlgorithmType.SPACE_FILLING_CURVE) {
+            SpaceFillingCurve spaceFillingCurve = new SpaceFillingCurve(shapes);
+            spaceFillingCurve.setParallelism(parallelism);
+            spaceFillingCurve.setTourImprovement(tourImprovement);
+            spaceFillingCurve.setMetric(metric);
+            spaceFillingCurve.prepare();
+
+            readyAlgorithm = spaceFillingCurve;
+            animationTimer = new Timer(spaceFillingCurve.getSpeed(), new AlgorithmAnimation());
+
+            appendToReport("\n*** Ready to Work: Space Filling Curve Algorithm ***\n");
+        } else if (algorithm == AlgorithmType.K_NEAREST_NEIGHBOURS) {
+            KNearestNeighbours knn = new KNearestNeighbours(shapes);
+            knn.setK(knnK);
+            knn.setBulk(knnBulk);
+            knn.setParallelism(parallelism);
+            knn.setMetric(metric);
+            knn.setApproximate(knnApproximate);
+            knn.setEf(knnEf);
+            knn.prepare();
+
+            readyAlgorithm = knn;
+            animationTimer = new Timer(knn.getSpeed(), new AlgorithmAnimation());
+
+            appendToReport("\n*** Ready to Work: k-Nearest Neighbours Algorithm ***\n");
+        } else if (algorithm == AlgorithmType.KNN_GRAPH) {
+            AllNearestNeighbours allNearestNeighbours = new AllNearestNeighbours(shapes);
+            allNearestNeighbours.setK(knnK);
+            allNearestNeighbours.setParallelism(parallelism);
+            allNearestNeighbours.setMetric(metric);
+            allNearestNeighbours.setGraphCache(knnGraphCache);
+            if (knnGraphOverlay) {
+                GraphOverlay graphOverlay = new GraphOverlay();
+                allNearestNeighbours.setOverlay(graphOverlay);
+                overlay = graphOverlay;
+            }
+            allNearestNeighbours.prepare();
+
+            readyAlgorithm = allNearestNeighbours;
+            animationTimer = new Timer(allNearestNeighbours.getSpeed(), new AlgorithmAnimation());
+
+            appendToReport("\n*** Ready to Work: kNN Graph Algorithm ***\n");
+        } else if (algorithm == AlgorithmType.LOCAL_OUTLIER_FACTOR) {
+            LocalOutlierFactor localOutlierFactor = new LocalOutlierFactor(shapes);
+            localOutlierFactor.setK(knnK);
+            localOutlierFactor.setTopNumber(lofTopNumber);
+            localOutlierFactor.setParallelism(parallelism);
+            localOutlierFactor.setMetric(metric);
+            localOutlierFactor.setGraphCache(knnGraphCache);
+            localOutlierFactor.prepare();
+
+            readyAlgorithm = localOutlierFactor;
+            animationTimer = new Timer(localOutlierFactor.getSpeed(), new AlgorithmAnimation());
+
+            appendToReport("\n*** Ready to Work: Local Outlier Factor Algorithm ***\n");
+        } else if (algorithm == AlgorithmType.DBSCAN) {
+            Dbscan dbscan = new Dbscan(shapes);
+            dbscan.setEps(dbscanEps);
+            dbscan.setMinPoints(dbscanMinPoints);
+            dbscan.setParallel(dbscanParallel);
+            dbscan.setParallelism(parallelism);
+            dbscan.setMetric(metric);
+            dbscan.prepare();
+
+            readyAlgorithm = dbscan;
+            animationTimer = new Timer(dbscan.getSpeed(), new AlgorithmAnimation());
+
+            appendToReport("\n*** Ready to Work: DBSCAN Algorithm ***\n");
+        } else if (algorithm == AlgorithmType.HIERARCHICAL_CLUSTERING) {
+            HierarchicalClustering hierarchicalClustering = new HierarchicalClustering(shapes);
+            hierarchicalClustering.setLinkage(hacLinkage);
+            hierarchicalClustering.setMetric(metric);
+            hierarchicalClustering.prepare();
+
+            readyAlgorithm = hierarchicalClustering;
+            animationTimer = new Timer(hierarchicalClustering.getSpeed(), new AlgorithmAnimation());
+
+            appendToReport("\n*** Ready to Work: Hierarchical Clustering Algorithm ***\n");
+        } else if (algorithm == AlgorithmType.GAUSSIAN_MIXTURE) {
+            GaussianMixture gaussianMixture = new GaussianMixture(shapes);
+            gaussianMixture.setParallelism(parallelism);
+            EllipseOverlay ellipseOverlay = new EllipseOverlay();
+            gaussianMixture.setOverlay(ellipseOverlay);
+            overlay = ellipseOverlay;
+            gaussianMixture.prepare();
+
+            readyAlgorithm = gaussianMixture;
+            animationTimer = new Timer(gaussianMixture.getSpeed(), new AlgorithmAnimation());
+
+            appendToReport("\n*** Ready to Work: Gaussian Mixture Algorithm ***\n");
+        } else if (algorithm == AlgorithmType.K_MEDOIDS) {
+            KMedoids kmedoids = new KMedoids(shapes);
+            kmedoids.setMetric(metric);
+            kmedoids.setSeed(kmeansSeed);
+            kmedoids.setParallelism(parallelism);
+            kmedoids.setCacheBudget((long) kmedoidsCacheMegabytes << 20);
+            kmedoids.prepare();
+
+            readyAlgorithm = kmedoids;
+            animationTimer = new Timer(kmedoids.getSpeed(), new AlgorithmAnimation());
+
+            appendToReport("\n*** Ready to Work: K-Medoids Algorithm ***\n");
+        } else if (algorithm == AlgorithmType.MEAN_SHIFT) {
+            MeanShift meanShift = new MeanShift(shapes);
+            meanShift.setBandwidth(meanShiftBandwidth);
+            meanShift.setMinBinFrequency(meanShiftMinBinFrequency);
+            meanShift.setMetric(metric);
+            meanShift.setParallelism(parallelism);
+            SeedOverlay seedOverlay = new SeedOverlay();
+            meanShift.setOverlay(seedOverlay);
+            overlay = seedOverlay;
+            meanShift.prepare();
+
+            readyAlgorithm = meanShift;
+            animationTimer = new Timer(meanShift.getSpeed(), new AlgorithmAnimation());
+
+            appendToReport("\n*** Ready to Work: Mean Shift Algorithm ***\n");
+        } else if (algorithm == AlgorithmType.BISECTING_KMEANS) {
+            BisectingKMeans bisecting = new BisectingKMeans(shapes);
+            bisecting.setClusterNumber(bisectingClusterNumber);
+            bisecting.setSeed(kmeansSeed);
+            bisecting.setParallelism(parallelism);
+            bisecting.prepare();
+
+            readyAlgorithm = bisecting;
+            animationTimer = new Timer(bisecting.getSpeed(), new AlgorithmAnimation());
+
+            appendToReport("\n*** Ready to Work: Bisecting K-Means Algorithm ***\n");
         } else {
             Point startPoint = (Point) selectedShape;
             if (selectedShape == null) {
                 startPoint = (Point) multipleSelection.getSelectedShapes().get(0);
             }
 
-            nearestNeighbour = new NearestNeighbour(startPoint, shapes);
+            NearestNeighbour nearestNeighbour = new NearestNeighbour(startPoint, shapes);
+            nearestNeighbour.setStartNumber(nearestNeighbourStartNumber);
+            nearestNeighbour.setParallelism(parallelism);
+            nearestNeighbour.setTourImprovement(tourImprovement);
+            nearestNeighbour.setMetric(metric);
             nearestNeighbour.prepare();
 
-            animationTimer = new Timer(500, new NearestNeighbourAnimation());
+            readyAlgorithm = nearestNeighbour;
+            animationTimer = new Timer(500, new AlgorithmAnimation());
 
             appendToReport("\n*** Ready to Work: Nearest Neighbour Algorithm ***\n");
         }
@@ -183,13 +425,8 @@ public class CanvasPanel extends JPanel {
      * It steps a single step in algorithm visualization.
      */
     public void step() {
-        if (algorithm == AlgorithmType.KMEANS) {
-            kmeans.step();
-            appendToReport(kmeans.report());
-        } else {
-            nearestNeighbour.step();
-            appendToReport(nearestNeighbour.report());
-        }
+        readyAlgorithm.step();
+        appendToReport(readyAlgorithm.report());
 
         repaint();
     }
@@ -213,11 +450,8 @@ public class CanvasPanel extends JPanel {
      * @param speed 
      */
     public void setSpeed(int speed) {
-        if (algorithm == AlgorithmType.KMEANS) {
-            kmeans.setSpeed(speed);
-            animationTimer.setDelay(speed);
-        } else if (algorithm == AlgorithmType.NEAREST_NEIGHBOUR) {
-            nearestNeighbour.setSpeed(speed);
+        if (algorithm != null) {
+            readyAlgorithm.setSpeed(speed);
             animationTimer.setDelay(speed);
         }
     }
@@ -227,12 +461,7 @@ public class CanvasPanel extends JPanel {
      * @return speed of animation so delay of timer.
      */
     public int getSpeed() {
-        if (algorithm == AlgorithmType.KMEANS) {
-            return kmeans.getSpeed();
-        } else {
-            return nearestNeighbour.getSpeed();
-        }
-
+        return readyAlgorithm.getSpeed();
     }
 
     /**
@@ -241,10 +470,8 @@ public class CanvasPanel extends JPanel {
      * @return Which operations executed at last step.
      */
     public String getReport() {
-        if (algorithm == AlgorithmType.KMEANS) {
-            return kmeans.report();
-        } else if (algorithm == AlgorithmType.NEAREST_NEIGHBOUR) {
-            return nearestNeighbour.report();
+        if (algorithm != null) {
+            return readyAlgorithm.report();
         }
 
         return "";
@@ -278,6 +505,20 @@ public class CanvasPanel extends JPanel {
         }
         return countClusters;
     }
+
+    /**
+     * It counts points that have a cluster, labels of k-NN classification.
+     * @return number of labeled points in canvas.
+     */
+    public int getLabeledPointNumber() {
+        int countPoints = 0;
+        for (Drawable shape : shapes) {
+            if (shape instanceof Point && ((Point) shape).getCluster() != null) {
+                countPoints++;
+            }
+        }
+        return countPoints;
+    }
     
     
     /**
@@ -300,10 +541,16 @@ public class CanvasPanel extends JPanel {
             }
 
             shapes.add(newShape);
+            if (kmeans != null) {
+                kmeans.shapeAdded(newShape);
+            }
 
             selectedShape = newShape;
         } else if (!leftClick && newSelection != null) {
             shapes.remove(newSelection);
+            if (kmeans != null) {
+                kmeans.shapeRemoved(newSelection);
+            }
 
             selectedShape = null;
         }
@@ -321,6 +568,9 @@ public class CanvasPanel extends JPanel {
     public void handleMouseDraggedActionForSingleSelection(boolean leftClick, int deltaX, int deltaY) {
         if (leftClick && selectedShape != null) {
             selectedShape.move(deltaX, deltaY);
+            if (kmeans != null) {
+                kmeans.shapeMoved(selectedShape);
+            }
         }
     }
 
@@ -345,6 +595,11 @@ public class CanvasPanel extends JPanel {
                 readyToDrad = true;
             } else {
                 shapes.removeAll(multipleSelection.getSelectedShapes());
+                if (kmeans != null) {
+                    for (Drawable shape : multipleSelection.getSelectedShapes()) {
+                        kmeans.shapeRemoved(shape);
+                    }
+                }
             }
         }
 
@@ -387,7 +642,13 @@ public class CanvasPanel extends JPanel {
      * It removes all shapes in canvas. 
      */
     public void clearCanvas() {
+        if (kmeans != null) {
+            for (Drawable shape : shapes) {
+                kmeans.shapeRemoved(shape);
+            }
+        }
         shapes.clear();
+        overlay = null;
         repaint();
     }
 
@@ -405,6 +666,9 @@ public class CanvasPanel extends JPanel {
         for (int i = 0; i < n; i++) {
             Point p = new Point(HelperMethods.rand(startX, endX), HelperMethods.rand(startY, endY));
             shapes.add(p);
+            if (kmeans != null) {
+                kmeans.shapeAdded(p);
+            }
         }
 
         repaint();
@@ -424,13 +688,307 @@ public class CanvasPanel extends JPanel {
         for (int i = 0; i < n; i++) {
             Cluster c = new Cluster(HelperMethods.rand(startX, endX), HelperMethods.rand(startY, endY));
             shapes.add(c);
+            if (kmeans != null) {
+                kmeans.shapeAdded(c);
+            }
         }
 
         repaint();
     }
 
+    public KMeansVariant getKMeansVariant() {
+        return kmeansVariant;
+    }
+
+    public void setKMeansVariant(KMeansVariant kmeansVariant) {
+        this.kmeansVariant = kmeansVariant;
+    }
+
+    public int getKMeansGroupNumber() {
+        return kmeansGroupNumber;
+    }
+
+    /**
+     * It sets number of cluster groups of Yinyang K-Means. 0 means a tenth
+     * of clusters.
+     */
+    public void setKMeansGroupNumber(int kmeansGroupNumber) {
+        this.kmeansGroupNumber = Math.max(0, kmeansGroupNumber);
+    }
+
+    public int getKMeansBatchSize() {
+        return kmeansBatchSize;
+    }
+
+    /**
+     * It sets number of points sampled at each step of mini-batch K-Means.
+     */
+    public void setKMeansBatchSize(int kmeansBatchSize) {
+        this.kmeansBatchSize = Math.max(1, kmeansBatchSize);
+    }
+
+    public KMeansSeeding getKMeansSeeding() {
+        return kmeansSeeding;
+    }
+
+    public void setKMeansSeeding(KMeansSeeding kmeansSeeding) {
+        this.kmeansSeeding = kmeansSeeding;
+    }
+
+    public int getKMeansRestartNumber() {
+        return kmeansRestartNumber;
+    }
+
+    /**
+     * It sets number of independent K-Means runs completed before animation,
+     * 1 means a single run.
+     */
+    public void setKMeansRestartNumber(int kmeansRestartNumber) {
+        this.kmeansRestartNumber = Math.max(1, kmeansRestartNumber);
+    }
+
+    public int getNearestNeighbourStartNumber() {
+        return nearestNeighbourStartNumber;
+    }
+
+    /**
+     * It sets number of start points tried by Nearest Neighbour, 1 means
+     * only selected point.
+     */
+    public void setNearestNeighbourStartNumber(int nearestNeighbourStartNumber) {
+        this.nearestNeighbourStartNumber = Math.max(1, nearestNeighbourStartNumber);
+    }
+
+    public boolean isTourImprovement() {
+        return tourImprovement;
+    }
+
+    /**
+     * It sets tours of Nearest Neighbour and Space Filling Curve are improved
+     * after they are complete or not.
+     */
+    public void setTourImprovement(boolean tourImprovement) {
+        this.tourImprovement = tourImprovement;
+    }
+
+    public int getKnnK() {
+        return knnK;
+    }
+
+    /**
+     * It sets number of nearest labeled points that vote in k-NN
+     * classification.
+     */
+    public void setKnnK(int knnK) {
+        this.knnK = Math.max(1, knnK);
+    }
+
+    public boolean isKnnBulk() {
+        return knnBulk;
+    }
+
+    /**
+     * It sets k-NN classifies all queries in a single step or one query at
+     * every step.
+     */
+    public void setKnnBulk(boolean knnBulk) {
+        this.knnBulk = knnBulk;
+    }
+
+    public boolean isKnnApproximate() {
+        return knnApproximate;
+    }
+
+    /**
+     * It sets k-NN finds neighbours by HNSW graph index, recall and speed of
+     * it are compared with exact search in report.
+     */
+    public void setKnnApproximate(boolean knnApproximate) {
+        this.knnApproximate = knnApproximate;
+    }
+
+    public int getKnnEf() {
+        return knnEf;
+    }
+
+    /**
+     * It sets number of candidates kept by approximate k-NN queries.
+     */
+    public void setKnnEf(int knnEf) {
+        this.knnEf = Math.max(1, knnEf);
+    }
+
+    public boolean isKnnGraphOverlay() {
+        return knnGraphOverlay;
+    }
+
+    /**
+     * It sets edges of kNN graph are drawn over canvas or not.
+     */
+    public void setKnnGraphOverlay(boolean knnGraphOverlay) {
+        this.knnGraphOverlay = knnGraphOverlay;
+    }
+
+    public int getLofTopNumber() {
+        return lofTopNumber;
+    }
+
+    /**
+     * It sets number of outliers listed in LOF report.
+     */
+    public void setLofTopNumber(int lofTopNumber) {
+        this.lofTopNumber = Math.max(0, lofTopNumber);
+    }
+
+    public double getDbscanEps() {
+        return dbscanEps;
+    }
+
+    /**
+     * It sets neighbourhood radius of DBSCAN.
+     */
+    public void setDbscanEps(double dbscanEps) {
+        this.dbscanEps = Math.max(0.01, dbscanEps);
+    }
+
+    public int getDbscanMinPoints() {
+        return dbscanMinPoints;
+    }
+
+    /**
+     * It sets number of points within radius of a point that makes it a DBSCAN
+     * core point.
+     */
+    public void setDbscanMinPoints(int dbscanMinPoints) {
+        this.dbscanMinPoints = Math.max(1, dbscanMinPoints);
+    }
+
+    public boolean isDbscanParallel() {
+        return dbscanParallel;
+    }
+
+    /**
+     * It sets DBSCAN finds all clusters in a single step by parallel
+     * union-find or not.
+     */
+    public void setDbscanParallel(boolean dbscanParallel) {
+        this.dbscanParallel = dbscanParallel;
+    }
+
+    public Linkage getHacLinkage() {
+        return hacLinkage;
+    }
+
+    /**
+     * It sets linkage of hierarchical clustering.
+     */
+    public void setHacLinkage(Linkage hacLinkage) {
+        this.hacLinkage = hacLinkage;
+    }
+
+    public int getKMedoidsCacheMegabytes() {
+        return kmedoidsCacheMegabytes;
+    }
+
+    /**
+     * It sets memory budget of K-Medoids distance cache, in megabytes.
+     */
+    public void setKMedoidsCacheMegabytes(int kmedoidsCacheMegabytes) {
+        this.kmedoidsCacheMegabytes = Math.max(1, kmedoidsCacheMegabytes);
+    }
+
+    public double getMeanShiftBandwidth() {
+        return meanShiftBandwidth;
+    }
+
+    /**
+     * It sets kernel radius of mean shift, it is size of seed bins too.
+     */
+    public void setMeanShiftBandwidth(double meanShiftBandwidth) {
+        this.meanShiftBandwidth = Math.max(0.01, meanShiftBandwidth);
+    }
+
+    public int getMeanShiftMinBinFrequency() {
+        return meanShiftMinBinFrequency;
+    }
+
+    /**
+     * It sets number of points that a bin needs to start a mean shift seed.
+     */
+    public void setMeanShiftMinBinFrequency(int meanShiftMinBinFrequency) {
+        this.meanShiftMinBinFrequency = Math.max(1, meanShiftMinBinFrequency);
+    }
+
+    public int getBisectingClusterNumber() {
+        return bisectingClusterNumber;
+    }
+
+    /**
+     * It sets number of clusters that bisecting K-Means splits points into.
+     */
+    public void setBisectingClusterNumber(int bisectingClusterNumber) {
+        this.bisectingClusterNumber = Math.max(1, bisectingClusterNumber);
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * It sets number of threads used by algorithms that run in parallel, 1
+     * means sequential.
+     */
+    public void setParallelism(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    public Metric getMetric() {
+        return metric;
+    }
+
+    /**
+     * It sets metric of distances between points.
+     */
+    public void setMetric(Metric metric) {
+        this.metric = metric;
+    }
+
+    public long getKMeansSeed() {
+        return kmeansSeed;
+    }
+
+    /**
+     * It sets seed of random choices of K-Means, bisecting K-Means and
+     * K-Medoids, same seed gives same clusters.
+     */
+    public void setKMeansSeed(long kmeansSeed) {
+        this.kmeansSeed = kmeansSeed;
+    }
+
     public void setAlgorithm(AlgorithmType algorithm) {
         this.algorithm = algorithm;
+
+        // Edits in canvas only follow K-Means while it is the algorithm.
+        if (algorithm != AlgorithmType.KMEANS) {
+            dropKMeans();
+        } else if (kmeans != null) {
+            kmeans.cancel();
+        }
+        // Overlays do not follow edits, they are only shown while their algorithm is the algorithm.
+        if (algorithm != AlgorithmType.KNN_GRAPH && algorithm != AlgorithmType.GAUSSIAN_MIXTURE
+                && algorithm != AlgorithmType.MEAN_SHIFT) {
+            overlay = null;
+        }
+    }
+
+    /**
+     * It stops background work of K-Means and lets it go.
+     */
+    private void dropKMeans() {
+        if (kmeans != null) {
+            kmeans.cancel();
+            kmeans = null;
+        }
     }
 
     public void setToolPanel(ToolPanel toolPanel) {
@@ -481,6 +1039,11 @@ public class CanvasPanel extends JPanel {
             } else if (selectMode == SelectMode.MULTIPLE) {
                 if (multipleSelection.isSelected()) {
                     multipleSelection.moveAllShapes(mouseX - beforeMouseX, mouseY - beforeMouseY);
+                    if (kmeans != null) {
+                        for (Drawable shape : multipleSelection.getSelectedShapes()) {
+                            kmeans.shapeMoved(shape);
+                        }
+                    }
                 }
                 if (multipleSelection.isStarted()) {
                     multipleSelection.setLocation(Math.min(mouseX, firstMouseX), Math.min(mouseY, firstMouseY));
@@ -514,31 +1077,16 @@ public class CanvasPanel extends JPanel {
     }
 
     /**
-     * This class implements action of K-Means algorithm animations.
-     */
-    class KMeansAnimation implements ActionListener {
-
-        @Override
-        public void actionPerformed(ActionEvent e) {
-            kmeans.step();
-            appendToReport(kmeans.report());
-            if (kmeans.isFinished()) {
-                stop();
-            }
-            repaint();
-        }
-    }
-
-    /**
-     * This class implements action of Nearest Neighbour algorithm animations.
+     * This class implements action of algorithm animations, every tick is a
+     * step of ready algorithm.
      */
-    class NearestNeighbourAnimation implements ActionListener {
+    class AlgorithmAnimation implements ActionListener {
 
         @Override
         public void actionPerformed(ActionEvent e) {
-            nearestNeighbour.step();
-            appendToReport(nearestNeighbour.report());
-            if (nearestNeighbour.isFinished()) {
+            readyAlgorithm.step();
+            appendToReport(readyAlgorithm.report());
+            if (readyAlgorithm.isFinished()) {
                 stop();
             }
             repaint();
@@ -2,7 +2,12 @@
 package algorithmvisualization.view;
 
 import algorithmvisualization.AlgorithmType;
+import algorithmvisualization.KMeansSeeding;
+import algorithmvisualization.KMeansVariant;
+import algorithmvisualization.Linkage;
+import algorithmvisualization.Metric;
 import algorithmvisualization.NearestNeighbour;
+import algorithmvisualization.NearestNeighbourChain;
 import algorithmvisualization.SelectMode;
 import algorithmvisualization.ShapeType;
 import javax.swing.JFrame;
@@ -27,6 +32,7 @@ public class ToolPanel extends javax.swing.JPanel {
      */
     public ToolPanel() {
         initComponents();
+        parallelismSpinner.setValue(Math.min(64, Runtime.getRuntime().availableProcessors()));
 
         //JTextPanel Output Panel Construct
         outputFrame = new JFrame();
@@ -57,6 +63,20 @@ public class ToolPanel extends javax.swing.JPanel {
         pauseButton.setEnabled(true);
         stopButton.setEnabled(true);
     }
+
+    /**
+     * It selects toggle button of an algorithm and deselects toggle buttons
+     * of all other algorithms, null deselects all of them.
+     */
+    private void selectAlgorithmButton(javax.swing.JToggleButton button) {
+        javax.swing.JToggleButton[] buttons = {kmeansToggleButton, nearstNeighbourToggleButton,
+            spaceFillingCurveToggleButton, knnToggleButton, knnGraphToggleButton, lofToggleButton,
+            dbscanToggleButton, hacToggleButton, gmmToggleButton, kmedoidsToggleButton,
+            meanShiftToggleButton, bisectingToggleButton};
+        for (javax.swing.JToggleButton algorithmButton : buttons) {
+            algorithmButton.setSelected(algorithmButton == button);
+        }
+    }
     
     public void appendStringToOutput(String str) {
         outputPanel.appendString(str);
@@ -93,7 +113,41 @@ public class ToolPanel extends javax.swing.JPanel {
         stopButton = new javax.swing.JButton();
         speedSlider = new javax.swing.JSlider();
         kmeansToggleButton = new javax.swing.JToggleButton();
+        kmeansVariantComboBox = new javax.swing.JComboBox<>();
+        kmeansSeedingComboBox = new javax.swing.JComboBox<>();
+        kmeansRestartSpinner = new javax.swing.JSpinner();
+        parallelismSpinner = new javax.swing.JSpinner();
+        kmeansGroupSpinner = new javax.swing.JSpinner();
+        kmeansBatchSpinner = new javax.swing.JSpinner();
+        kmeansSeedSpinner = new javax.swing.JSpinner();
         nearstNeighbourToggleButton = new javax.swing.JToggleButton();
+        nearestNeighbourStartSpinner = new javax.swing.JSpinner();
+        spaceFillingCurveToggleButton = new javax.swing.JToggleButton();
+        tourImprovementCheckBox = new javax.swing.JCheckBox();
+        knnToggleButton = new javax.swing.JToggleButton();
+        knnSpinner = new javax.swing.JSpinner();
+        knnBulkCheckBox = new javax.swing.JCheckBox();
+        knnApproximateCheckBox = new javax.swing.JCheckBox();
+        knnEfSpinner = new javax.swing.JSpinner();
+        knnGraphToggleButton = new javax.swing.JToggleButton();
+        knnGraphOverlayCheckBox = new javax.swing.JCheckBox();
+        lofToggleButton = new javax.swing.JToggleButton();
+        lofTopSpinner = new javax.swing.JSpinner();
+        dbscanToggleButton = new javax.swing.JToggleButton();
+        dbscanEpsSpinner = new javax.swing.JSpinner();
+        dbscanMinPointsSpinner = new javax.swing.JSpinner();
+        dbscanParallelCheckBox = new javax.swing.JCheckBox();
+        hacToggleButton = new javax.swing.JToggleButton();
+        hacLinkageComboBox = new javax.swing.JComboBox<>();
+        gmmToggleButton = new javax.swing.JToggleButton();
+        kmedoidsToggleButton = new javax.swing.JToggleButton();
+        kmedoidsCacheSpinner = new javax.swing.JSpinner();
+        meanShiftToggleButton = new javax.swing.JToggleButton();
+        meanShiftBandwidthSpinner = new javax.swing.JSpinner();
+        meanShiftMinBinSpinner = new javax.swing.JSpinner();
+        bisectingToggleButton = new javax.swing.JToggleButton();
+        bisectingClusterSpinner = new javax.swing.JSpinner();
+        metricComboBox = new javax.swing.JComboBox<>();
         pauseButton = new javax.swing.JButton();
 
         jSlider1.setPreferredSize(new java.awt.Dimension(50, 54));
@@ -238,6 +292,27 @@ public class ToolPanel extends javax.swing.JPanel {
             }
         });
 
+        kmeansVariantComboBox.setModel(new javax.swing.DefaultComboBoxModel<>(algorithmvisualization.KMeansVariant.values()));
+        kmeansVariantComboBox.setToolTipText("K-Means Variant");
+
+        kmeansSeedingComboBox.setModel(new javax.swing.DefaultComboBoxModel<>(algorithmvisualization.KMeansSeeding.values()));
+        kmeansSeedingComboBox.setToolTipText("K-Means Seeding");
+
+        kmeansRestartSpinner.setModel(new javax.swing.SpinnerNumberModel(1, 1, 64, 1));
+        kmeansRestartSpinner.setToolTipText("K-Means Restarts");
+
+        parallelismSpinner.setModel(new javax.swing.SpinnerNumberModel(1, 1, 64, 1));
+        parallelismSpinner.setToolTipText("Threads (1 is sequential)");
+
+        kmeansGroupSpinner.setModel(new javax.swing.SpinnerNumberModel(0, 0, 1000, 1));
+        kmeansGroupSpinner.setToolTipText("K-Means Yinyang Groups (0 is automatic)");
+
+        kmeansBatchSpinner.setModel(new javax.swing.SpinnerNumberModel(1024, 1, 1000000, 256));
+        kmeansBatchSpinner.setToolTipText("K-Means Mini-Batch Size");
+
+        kmeansSeedSpinner.setModel(new javax.swing.SpinnerNumberModel(0, 0, 1000000, 1));
+        kmeansSeedSpinner.setToolTipText("K-Means Random Seed");
+
         nearstNeighbourToggleButton.setText("Nearest N.");
         nearstNeighbourToggleButton.addActionListener(new java.awt.event.ActionListener() {
             public void actionPerformed(java.awt.event.ActionEvent evt) {
@@ -245,6 +320,137 @@ public class ToolPanel extends javax.swing.JPanel {
             }
         });
 
+        nearestNeighbourStartSpinner.setModel(new javax.swing.SpinnerNumberModel(1, 1, 1024, 1));
+        nearestNeighbourStartSpinner.setToolTipText("Nearest Neighbour Start Points");
+
+        spaceFillingCurveToggleButton.setText("Hilbert Curve");
+        spaceFillingCurveToggleButton.setToolTipText("Space Filling Curve Tour");
+        spaceFillingCurveToggleButton.addActionListener(new java.awt.event.ActionListener() {
+            public void actionPerformed(java.awt.event.ActionEvent evt) {
+                spaceFillingCurveToggleButtonActionPerformed(evt);
+            }
+        });
+
+        tourImprovementCheckBox.setText("Improve Tour");
+        tourImprovementCheckBox.setToolTipText("2-opt and Or-opt moves after tour is complete");
+
+        knnToggleButton.setText("k-NN");
+        knnToggleButton.setToolTipText("k-Nearest Neighbours Classification");
+        knnToggleButton.addActionListener(new java.awt.event.ActionListener() {
+            public void actionPerformed(java.awt.event.ActionEvent evt) {
+                knnToggleButtonActionPerformed(evt);
+            }
+        });
+
+        knnSpinner.setModel(new javax.swing.SpinnerNumberModel(5, 1, 64, 1));
+        knnSpinner.setToolTipText("k-NN Neighbours");
+
+        knnBulkCheckBox.setText("Bulk Queries");
+        knnBulkCheckBox.setToolTipText("Classify all queries in a single step");
+
+        knnApproximateCheckBox.setText("Approximate (HNSW)");
+        knnApproximateCheckBox.setToolTipText("Find neighbours by HNSW graph and compare with exact search");
+
+        knnEfSpinner.setModel(new javax.swing.SpinnerNumberModel(64, 1, 1024, 1));
+        knnEfSpinner.setToolTipText("Search breadth of approximate queries (ef)");
+
+        knnGraphToggleButton.setText("kNN Graph");
+        knnGraphToggleButton.setToolTipText("k Nearest Neighbours Graph of All Points");
+        knnGraphToggleButton.addActionListener(new java.awt.event.ActionListener() {
+            public void actionPerformed(java.awt.event.ActionEvent evt) {
+                knnGraphToggleButtonActionPerformed(evt);
+            }
+        });
+
+        knnGraphOverlayCheckBox.setText("Show Graph Edges");
+        knnGraphOverlayCheckBox.setToolTipText("Draw edges of kNN graph over canvas");
+
+        lofToggleButton.setText("LOF");
+        lofToggleButton.setToolTipText("Local Outlier Factor");
+        lofToggleButton.addActionListener(new java.awt.event.ActionListener() {
+            public void actionPerformed(java.awt.event.ActionEvent evt) {
+                lofToggleButtonActionPerformed(evt);
+            }
+        });
+
+        lofTopSpinner.setModel(new javax.swing.SpinnerNumberModel(10, 1, 1000, 1));
+        lofTopSpinner.setToolTipText("LOF Outliers Listed");
+
+        dbscanToggleButton.setText("DBSCAN");
+        dbscanToggleButton.setToolTipText("Density Based Clustering");
+        dbscanToggleButton.addActionListener(new java.awt.event.ActionListener() {
+            public void actionPerformed(java.awt.event.ActionEvent evt) {
+                dbscanToggleButtonActionPerformed(evt);
+            }
+        });
+
+        dbscanEpsSpinner.setModel(new javax.swing.SpinnerNumberModel(20.0d, 0.5d, 500.0d, 0.5d));
+        dbscanEpsSpinner.setToolTipText("DBSCAN Radius (eps)");
+
+        dbscanMinPointsSpinner.setModel(new javax.swing.SpinnerNumberModel(5, 1, 1000, 1));
+        dbscanMinPointsSpinner.setToolTipText("DBSCAN Minimum Points");
+
+        dbscanParallelCheckBox.setText("Parallel (Union-Find)");
+        dbscanParallelCheckBox.setToolTipText("Find all DBSCAN clusters in a single step");
+
+        hacToggleButton.setText("Hierarchical");
+        hacToggleButton.setToolTipText("Hierarchical Agglomerative Clustering");
+        hacToggleButton.addActionListener(new java.awt.event.ActionListener() {
+            public void actionPerformed(java.awt.event.ActionEvent evt) {
+                hacToggleButtonActionPerformed(evt);
+            }
+        });
+
+        hacLinkageComboBox.setModel(new javax.swing.DefaultComboBoxModel<>(algorithmvisualization.Linkage.values()));
+        hacLinkageComboBox.setToolTipText("Hierarchical Clustering Linkage");
+
+        gmmToggleButton.setText("GMM");
+        gmmToggleButton.setToolTipText("Gaussian Mixture Model (EM)");
+        gmmToggleButton.addActionListener(new java.awt.event.ActionListener() {
+            public void actionPerformed(java.awt.event.ActionEvent evt) {
+                gmmToggleButtonActionPerformed(evt);
+            }
+        });
+
+        kmedoidsToggleButton.setText("K-Medoids");
+        kmedoidsToggleButton.setToolTipText("K-Medoids (FastPAM / CLARA)");
+        kmedoidsToggleButton.addActionListener(new java.awt.event.ActionListener() {
+            public void actionPerformed(java.awt.event.ActionEvent evt) {
+                kmedoidsToggleButtonActionPerformed(evt);
+            }
+        });
+
+        kmedoidsCacheSpinner.setModel(new javax.swing.SpinnerNumberModel(256, 8, 4096, 32));
+        kmedoidsCacheSpinner.setToolTipText("K-Medoids Distance Cache (MB)");
+
+        meanShiftToggleButton.setText("Mean Shift");
+        meanShiftToggleButton.setToolTipText("Mean Shift (Binned Seeds)");
+        meanShiftToggleButton.addActionListener(new java.awt.event.ActionListener() {
+            public void actionPerformed(java.awt.event.ActionEvent evt) {
+                meanShiftToggleButtonActionPerformed(evt);
+            }
+        });
+
+        meanShiftBandwidthSpinner.setModel(new javax.swing.SpinnerNumberModel(40.0d, 1.0d, 1000.0d, 1.0d));
+        meanShiftBandwidthSpinner.setToolTipText("Mean Shift Bandwidth");
+
+        meanShiftMinBinSpinner.setModel(new javax.swing.SpinnerNumberModel(1, 1, 1000, 1));
+        meanShiftMinBinSpinner.setToolTipText("Mean Shift Minimum Points of a Seed Bin");
+
+        bisectingToggleButton.setText("Bisecting K-Means");
+        bisectingToggleButton.setToolTipText("Bisecting K-Means (Largest SSE Splits)");
+        bisectingToggleButton.addActionListener(new java.awt.event.ActionListener() {
+            public void actionPerformed(java.awt.event.ActionEvent evt) {
+                bisectingToggleButtonActionPerformed(evt);
+            }
+        });
+
+        bisectingClusterSpinner.setModel(new javax.swing.SpinnerNumberModel(16, 1, 1000, 1));
+        bisectingClusterSpinner.setToolTipText("Bisecting K-Means Cluster Number");
+
+        metricComboBox.setModel(new javax.swing.DefaultComboBoxModel<>(algorithmvisualization.Metric.values()));
+        metricComboBox.setToolTipText("Distance Metric");
+
         pauseButton.setIcon(new javax.swing.ImageIcon(getClass().getResource("/images/pause-icon.png"))); // NOI18N
         pauseButton.setToolTipText("Pause");
         pauseButton.setBorder(javax.swing.BorderFactory.createLineBorder(new java.awt.Color(0, 0, 0)));
@@ -285,7 +491,41 @@ public class ToolPanel extends javax.swing.JPanel {
                             .addComponent(clearButton, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
                             .addComponent(speedSlider, javax.swing.GroupLayout.Alignment.TRAILING, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
                             .addComponent(kmeansToggleButton, javax.swing.GroupLayout.Alignment.TRAILING, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
-                            .addComponent(nearstNeighbourToggleButton, javax.swing.GroupLayout.Alignment.TRAILING, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE))
+                            .addComponent(kmeansVariantComboBox, javax.swing.GroupLayout.Alignment.TRAILING, 0, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+                            .addComponent(kmeansSeedingComboBox, javax.swing.GroupLayout.Alignment.TRAILING, 0, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+                            .addComponent(kmeansRestartSpinner, javax.swing.GroupLayout.Alignment.TRAILING, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+                            .addComponent(parallelismSpinner, javax.swing.GroupLayout.Alignment.TRAILING, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+                            .addComponent(kmeansGroupSpinner, javax.swing.GroupLayout.Alignment.TRAILING, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+                            .addComponent(kmeansBatchSpinner, javax.swing.GroupLayout.Alignment.TRAILING, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+                            .addComponent(kmeansSeedSpinner, javax.swing.GroupLayout.Alignment.TRAILING, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+                            .addComponent(nearstNeighbourToggleButton, javax.swing.GroupLayout.Alignment.TRAILING, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+                            .addComponent(nearestNeighbourStartSpinner, javax.swing.GroupLayout.Alignment.TRAILING, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+                            .addComponent(spaceFillingCurveToggleButton, javax.swing.GroupLayout.Alignment.TRAILING, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+                            .addComponent(tourImprovementCheckBox, javax.swing.GroupLayout.Alignment.TRAILING, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+                            .addComponent(knnToggleButton, javax.swing.GroupLayout.Alignment.TRAILING, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+                            .addComponent(knnSpinner, javax.swing.GroupLayout.Alignment.TRAILING, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+                            .addComponent(knnBulkCheckBox, javax.swing.GroupLayout.Alignment.TRAILING, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+                            .addComponent(knnApproximateCheckBox, javax.swing.GroupLayout.Alignment.TRAILING, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+                            .addComponent(knnEfSpinner, javax.swing.GroupLayout.Alignment.TRAILING, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+                            .addComponent(knnGraphToggleButton, javax.swing.GroupLayout.Alignment.TRAILING, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+                            .addComponent(knnGraphOverlayCheckBox, javax.swing.GroupLayout.Alignment.TRAILING, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+                            .addComponent(lofToggleButton, javax.swing.GroupLayout.Alignment.TRAILING, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+                            .addComponent(lofTopSpinner, javax.swing.GroupLayout.Alignment.TRAILING, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+                            .addComponent(dbscanToggleButton, javax.swing.GroupLayout.Alignment.TRAILING, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+                            .addComponent(dbscanEpsSpinner, javax.swing.GroupLayout.Alignment.TRAILING, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+                            .addComponent(dbscanMinPointsSpinner, javax.swing.GroupLayout.Alignment.TRAILING, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+                            .addComponent(dbscanParallelCheckBox, javax.swing.GroupLayout.Alignment.TRAILING, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+                            .addComponent(hacToggleButton, javax.swing.GroupLayout.Alignment.TRAILING, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+                            .addComponent(hacLinkageComboBox, javax.swing.GroupLayout.Alignment.TRAILING, 0, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+                            .addComponent(gmmToggleButton, javax.swing.GroupLayout.Alignment.TRAILING, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+                            .addComponent(kmedoidsToggleButton, javax.swing.GroupLayout.Alignment.TRAILING, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+                            .addComponent(kmedoidsCacheSpinner, javax.swing.GroupLayout.Alignment.TRAILING, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+                            .addComponent(meanShiftToggleButton, javax.swing.GroupLayout.Alignment.TRAILING, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+                            .addComponent(meanShiftBandwidthSpinner, javax.swing.GroupLayout.Alignment.TRAILING, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+                            .addComponent(meanShiftMinBinSpinner, javax.swing.GroupLayout.Alignment.TRAILING, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+                            .addComponent(bisectingToggleButton, javax.swing.GroupLayout.Alignment.TRAILING, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+                            .addComponent(bisectingClusterSpinner, javax.swing.GroupLayout.Alignment.TRAILING, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+                            .addComponent(metricComboBox, javax.swing.GroupLayout.Alignment.TRAILING, 0, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE))
                         .addGap(15, 15, 15))))
             .addGroup(layout.createSequentialGroup()
                 .addGroup(layout.createParallelGroup(javax.swing.GroupLayout.Alignment.LEADING)
@@ -337,7 +577,75 @@ public class ToolPanel extends javax.swing.JPanel {
                 .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.UNRELATED)
                 .addComponent(kmeansToggleButton)
                 .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                .addComponent(kmeansVariantComboBox, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE)
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                .addComponent(kmeansSeedingComboBox, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE)
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                .addComponent(kmeansRestartSpinner, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE)
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                .addComponent(parallelismSpinner, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE)
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                .addComponent(kmeansGroupSpinner, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE)
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                .addComponent(kmeansBatchSpinner, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE)
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                .addComponent(kmeansSeedSpinner, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE)
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
                 .addComponent(nearstNeighbourToggleButton)
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                .addComponent(nearestNeighbourStartSpinner, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE)
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                .addComponent(spaceFillingCurveToggleButton)
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                .addComponent(tourImprovementCheckBox)
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                .addComponent(knnToggleButton)
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                .addComponent(knnSpinner, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE)
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                .addComponent(knnBulkCheckBox)
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                .addComponent(knnApproximateCheckBox)
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                .addComponent(knnEfSpinner, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE)
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                .addComponent(knnGraphToggleButton)
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                .addComponent(knnGraphOverlayCheckBox)
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                .addComponent(lofToggleButton)
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                .addComponent(lofTopSpinner, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE)
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                .addComponent(dbscanToggleButton)
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                .addComponent(dbscanEpsSpinner, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE)
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                .addComponent(dbscanMinPointsSpinner, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE)
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                .addComponent(dbscanParallelCheckBox)
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                .addComponent(hacToggleButton)
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                .addComponent(hacLinkageComboBox, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE)
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                .addComponent(gmmToggleButton)
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                .addComponent(kmedoidsToggleButton)
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                .addComponent(kmedoidsCacheSpinner, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE)
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                .addComponent(meanShiftToggleButton)
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                .addComponent(meanShiftBandwidthSpinner, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE)
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                .addComponent(meanShiftMinBinSpinner, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE)
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                .addComponent(bisectingToggleButton)
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                .addComponent(bisectingClusterSpinner, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE)
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                .addComponent(metricComboBox, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE)
                 .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED, 48, Short.MAX_VALUE)
                 .addComponent(speedSlider, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE)
                 .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
@@ -401,11 +709,16 @@ public class ToolPanel extends javax.swing.JPanel {
             return;
         }
 
-        nearstNeighbourToggleButton.setSelected(false);
-
-        kmeansToggleButton.setSelected(true);
+        selectAlgorithmButton(kmeansToggleButton);
         canvasPanel.setAlgorithm(AlgorithmType.KMEANS);
-
+        canvasPanel.setKMeansVariant((KMeansVariant) kmeansVariantComboBox.getSelectedItem());
+        canvasPanel.setKMeansSeeding((KMeansSeeding) kmeansSeedingComboBox.getSelectedItem());
+        canvasPanel.setKMeansRestartNumber((Integer) kmeansRestartSpinner.getValue());
+        canvasPanel.setKMeansGroupNumber((Integer) kmeansGroupSpinner.getValue());
+        canvasPanel.setKMeansBatchSize((Integer) kmeansBatchSpinner.getValue());
+        canvasPanel.setKMeansSeed((Integer) kmeansSeedSpinner.getValue());
+
+        canvasPanel.setParallelism((Integer) parallelismSpinner.getValue());
         canvasPanel.ready(AlgorithmType.KMEANS);
 
         speedSlider.setValue(speedSlider.getMaximum() - canvasPanel.getSpeed());
@@ -426,12 +739,14 @@ public class ToolPanel extends javax.swing.JPanel {
             return;
         }
 
-        kmeansToggleButton.setSelected(false);
-
-        nearstNeighbourToggleButton.setSelected(true);
+        selectAlgorithmButton(nearstNeighbourToggleButton);
         canvasPanel.setAlgorithm(AlgorithmType.NEAREST_NEIGHBOUR);
 
         canvasPanel.clearClusters();
+        canvasPanel.setNearestNeighbourStartNumber((Integer) nearestNeighbourStartSpinner.getValue());
+        canvasPanel.setTourImprovement(tourImprovementCheckBox.isSelected());
+        canvasPanel.setMetric((Metric) metricComboBox.getSelectedItem());
+        canvasPanel.setParallelism((Integer) parallelismSpinner.getValue());
         canvasPanel.ready(AlgorithmType.NEAREST_NEIGHBOUR);
 
         speedSlider.setValue(speedSlider.getMaximum() - canvasPanel.getSpeed());
@@ -439,6 +754,236 @@ public class ToolPanel extends javax.swing.JPanel {
         enableControlBarComponents();
     }//GEN-LAST:event_nearstNeighbourToggleButtonActionPerformed
 
+    private void spaceFillingCurveToggleButtonActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_spaceFillingCurveToggleButtonActionPerformed
+        if (canvasPanel.getPointNumber() < 1) {
+            JOptionPane.showMessageDialog(this,
+                    "Cannot find any point in canvas.");
+            spaceFillingCurveToggleButton.setSelected(false);
+            return;
+        }
+
+        selectAlgorithmButton(spaceFillingCurveToggleButton);
+        canvasPanel.setAlgorithm(AlgorithmType.SPACE_FILLING_CURVE);
+
+        canvasPanel.clearClusters();
+        canvasPanel.setTourImprovement(tourImprovementCheckBox.isSelected());
+        canvasPanel.setMetric((Metric) metricComboBox.getSelectedItem());
+        canvasPanel.setParallelism((Integer) parallelismSpinner.getValue());
+        canvasPanel.ready(AlgorithmType.SPACE_FILLING_CURVE);
+
+        speedSlider.setValue(speedSlider.getMaximum() - canvasPanel.getSpeed());
+
+        enableControlBarComponents();
+    }//GEN-LAST:event_spaceFillingCurveToggleButtonActionPerformed
+
+    private void knnToggleButtonActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_knnToggleButtonActionPerformed
+        int labeledPointNumber = canvasPanel.getLabeledPointNumber();
+        if (labeledPointNumber < 1) {
+            JOptionPane.showMessageDialog(this,
+                    "Cannot find any point with a cluster in canvas, run K-Means first.");
+            knnToggleButton.setSelected(false);
+            return;
+        } else if (canvasPanel.getPointNumber() == labeledPointNumber) {
+            JOptionPane.showMessageDialog(this,
+                    "Cannot find any point without a cluster to classify.");
+            knnToggleButton.setSelected(false);
+            return;
+        }
+
+        selectAlgorithmButton(knnToggleButton);
+        canvasPanel.setAlgorithm(AlgorithmType.K_NEAREST_NEIGHBOURS);
+
+        canvasPanel.setKnnK((Integer) knnSpinner.getValue());
+        canvasPanel.setKnnBulk(knnBulkCheckBox.isSelected());
+        canvasPanel.setKnnApproximate(knnApproximateCheckBox.isSelected());
+        canvasPanel.setKnnEf((Integer) knnEfSpinner.getValue());
+        canvasPanel.setMetric((Metric) metricComboBox.getSelectedItem());
+        canvasPanel.setParallelism((Integer) parallelismSpinner.getValue());
+        canvasPanel.ready(AlgorithmType.K_NEAREST_NEIGHBOURS);
+
+        speedSlider.setValue(speedSlider.getMaximum() - canvasPanel.getSpeed());
+
+        enableControlBarComponents();
+    }//GEN-LAST:event_knnToggleButtonActionPerformed
+
+    private void knnGraphToggleButtonActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_knnGraphToggleButtonActionPerformed
+        if (canvasPanel.getPointNumber() < 2) {
+            JOptionPane.showMessageDialog(this,
+                    "Should have at least two points in canvas.");
+            knnGraphToggleButton.setSelected(false);
+            return;
+        }
+
+        selectAlgorithmButton(knnGraphToggleButton);
+        canvasPanel.setAlgorithm(AlgorithmType.KNN_GRAPH);
+
+        canvasPanel.setKnnK((Integer) knnSpinner.getValue());
+        canvasPanel.setKnnGraphOverlay(knnGraphOverlayCheckBox.isSelected());
+        canvasPanel.setMetric((Metric) metricComboBox.getSelectedItem());
+        canvasPanel.setParallelism((Integer) parallelismSpinner.getValue());
+        canvasPanel.ready(AlgorithmType.KNN_GRAPH);
+
+        speedSlider.setValue(speedSlider.getMaximum() - canvasPanel.getSpeed());
+
+        enableControlBarComponents();
+    }//GEN-LAST:event_knnGraphToggleButtonActionPerformed
+
+    private void lofToggleButtonActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_lofToggleButtonActionPerformed
+        if (canvasPanel.getPointNumber() < 2) {
+            JOptionPane.showMessageDialog(this,
+                    "Should have at least two points in canvas.");
+            lofToggleButton.setSelected(false);
+            return;
+        }
+
+        selectAlgorithmButton(lofToggleButton);
+        canvasPanel.setAlgorithm(AlgorithmType.LOCAL_OUTLIER_FACTOR);
+
+        canvasPanel.setKnnK((Integer) knnSpinner.getValue());
+        canvasPanel.setLofTopNumber((Integer) lofTopSpinner.getValue());
+        canvasPanel.setMetric((Metric) metricComboBox.getSelectedItem());
+        canvasPanel.setParallelism((Integer) parallelismSpinner.getValue());
+        canvasPanel.ready(AlgorithmType.LOCAL_OUTLIER_FACTOR);
+
+        speedSlider.setValue(speedSlider.getMaximum() - canvasPanel.getSpeed());
+
+        enableControlBarComponents();
+    }//GEN-LAST:event_lofToggleButtonActionPerformed
+
+    private void dbscanToggleButtonActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_dbscanToggleButtonActionPerformed
+        if (canvasPanel.getPointNumber() < 1) {
+            JOptionPane.showMessageDialog(this,
+                    "Should have at least one point in canvas.");
+            dbscanToggleButton.setSelected(false);
+            return;
+        }
+
+        selectAlgorithmButton(dbscanToggleButton);
+        canvasPanel.setAlgorithm(AlgorithmType.DBSCAN);
+
+        canvasPanel.setDbscanEps((Double) dbscanEpsSpinner.getValue());
+        canvasPanel.setDbscanMinPoints((Integer) dbscanMinPointsSpinner.getValue());
+        canvasPanel.setDbscanParallel(dbscanParallelCheckBox.isSelected());
+        canvasPanel.setMetric((Metric) metricComboBox.getSelectedItem());
+        canvasPanel.setParallelism((Integer) parallelismSpinner.getValue());
+        canvasPanel.ready(AlgorithmType.DBSCAN);
+
+        speedSlider.setValue(speedSlider.getMaximum() - canvasPanel.getSpeed());
+
+        enableControlBarComponents();
+    }//GEN-LAST:event_dbscanToggleButtonActionPerformed
+
+    private void hacToggleButtonActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_hacToggleButtonActionPerformed
+        if (canvasPanel.getPointNumber() < 1 || canvasPanel.getClusterNumber() < 1) {
+            JOptionPane.showMessageDialog(this,
+                    "Cannot find any point or/and cluster in canvas.");
+            hacToggleButton.setSelected(false);
+            return;
+        }
+
+        Linkage linkage = (Linkage) hacLinkageComboBox.getSelectedItem();
+        if (!NearestNeighbourChain.supports(linkage, canvasPanel.getPointNumber())) {
+            JOptionPane.showMessageDialog(this,
+                    "Average linkage is limited to " + NearestNeighbourChain.MATRIX_LIMIT + " points, use Ward linkage.");
+            hacToggleButton.setSelected(false);
+            return;
+        }
+
+        selectAlgorithmButton(hacToggleButton);
+        canvasPanel.setAlgorithm(AlgorithmType.HIERARCHICAL_CLUSTERING);
+
+        canvasPanel.setHacLinkage(linkage);
+        canvasPanel.setMetric((Metric) metricComboBox.getSelectedItem());
+        canvasPanel.ready(AlgorithmType.HIERARCHICAL_CLUSTERING);
+
+        speedSlider.setValue(speedSlider.getMaximum() - canvasPanel.getSpeed());
+
+        enableControlBarComponents();
+    }//GEN-LAST:event_hacToggleButtonActionPerformed
+
+    private void gmmToggleButtonActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_gmmToggleButtonActionPerformed
+        if (canvasPanel.getPointNumber() < 1 || canvasPanel.getClusterNumber() < 1) {
+            JOptionPane.showMessageDialog(this,
+                    "Cannot find any point or/and cluster in canvas.");
+            gmmToggleButton.setSelected(false);
+            return;
+        }
+
+        selectAlgorithmButton(gmmToggleButton);
+        canvasPanel.setAlgorithm(AlgorithmType.GAUSSIAN_MIXTURE);
+        canvasPanel.setParallelism((Integer) parallelismSpinner.getValue());
+        canvasPanel.ready(AlgorithmType.GAUSSIAN_MIXTURE);
+
+        speedSlider.setValue(speedSlider.getMaximum() - canvasPanel.getSpeed());
+
+        enableControlBarComponents();
+    }//GEN-LAST:event_gmmToggleButtonActionPerformed
+
+    private void kmedoidsToggleButtonActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_kmedoidsToggleButtonActionPerformed
+        if (canvasPanel.getPointNumber() < 1 || canvasPanel.getClusterNumber() < 1) {
+            JOptionPane.showMessageDialog(this,
+                    "Cannot find any point or/and cluster in canvas.");
+            kmedoidsToggleButton.setSelected(false);
+            return;
+        }
+
+        selectAlgorithmButton(kmedoidsToggleButton);
+        canvasPanel.setAlgorithm(AlgorithmType.K_MEDOIDS);
+
+        canvasPanel.setKMedoidsCacheMegabytes((Integer) kmedoidsCacheSpinner.getValue());
+        canvasPanel.setKMeansSeed((Integer) kmeansSeedSpinner.getValue());
+        canvasPanel.setMetric((Metric) metricComboBox.getSelectedItem());
+        canvasPanel.setParallelism((Integer) parallelismSpinner.getValue());
+        canvasPanel.ready(AlgorithmType.K_MEDOIDS);
+
+        speedSlider.setValue(speedSlider.getMaximum() - canvasPanel.getSpeed());
+
+        enableControlBarComponents();
+    }//GEN-LAST:event_kmedoidsToggleButtonActionPerformed
+
+    private void meanShiftToggleButtonActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_meanShiftToggleButtonActionPerformed
+        if (canvasPanel.getPointNumber() < 1) {
+            JOptionPane.showMessageDialog(this,
+                    "Should have at least one point in canvas.");
+            meanShiftToggleButton.setSelected(false);
+            return;
+        }
+
+        selectAlgorithmButton(meanShiftToggleButton);
+        canvasPanel.setAlgorithm(AlgorithmType.MEAN_SHIFT);
+
+        canvasPanel.setMeanShiftBandwidth((Double) meanShiftBandwidthSpinner.getValue());
+        canvasPanel.setMeanShiftMinBinFrequency((Integer) meanShiftMinBinSpinner.getValue());
+        canvasPanel.setMetric((Metric) metricComboBox.getSelectedItem());
+        canvasPanel.setParallelism((Integer) parallelismSpinner.getValue());
+        canvasPanel.ready(AlgorithmType.MEAN_SHIFT);
+
+        speedSlider.setValue(speedSlider.getMaximum() - canvasPanel.getSpeed());
+
+        enableControlBarComponents();
+    }//GEN-LAST:event_meanShiftToggleButtonActionPerformed
+
+    private void bisectingToggleButtonActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_bisectingToggleButtonActionPerformed
+        if (canvasPanel.getPointNumber() < 1) {
+            JOptionPane.showMessageDialog(this,
+                    "Should have at least one point in canvas.");
+            bisectingToggleButton.setSelected(false);
+            return;
+        }
+
+        selectAlgorithmButton(bisectingToggleButton);
+        canvasPanel.setAlgorithm(AlgorithmType.BISECTING_KMEANS);
+
+        canvasPanel.setBisectingClusterNumber((Integer) bisectingClusterSpinner.getValue());
+        canvasPanel.setKMeansSeed((Integer) kmeansSeedSpinner.getValue());
+        canvasPanel.setParallelism((Integer) parallelismSpinner.getValue());
+        canvasPanel.ready(AlgorithmType.BISECTING_KMEANS);
+
+        speedSlider.setValue(speedSlider.getMaximum() - canvasPanel.getSpeed());
+
+        enableControlBarComponents();
+    }//GEN-LAST:event_bisectingToggleButtonActionPerformed
+
     private void playButtonActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_playButtonActionPerformed
         if (!canvasPanel.isReady()) {
             return;
@@ -462,8 +1007,7 @@ public class ToolPanel extends javax.swing.JPanel {
 
         canvasPanel.stop();
 
-        kmeansToggleButton.setSelected(false);
-        nearstNeighbourToggleButton.setSelected(false);
+        selectAlgorithmButton(null);
         disableControlBarComponents();
 
         canvasPanel.setAlgorithm(null);
@@ -502,28 +1046,62 @@ public class ToolPanel extends javax.swing.JPanel {
 
     // Variables declaration - do not modify//GEN-BEGIN:variables
     private javax.swing.JLabel algorithmsLabel;
+    private javax.swing.JSpinner bisectingClusterSpinner;
+    private javax.swing.JToggleButton bisectingToggleButton;
     private javax.swing.JLabel canvasLabel;
     private javax.swing.JButton clearButton;
     private javax.swing.JButton clusterButton;
     private javax.swing.JLabel controlBarLabel;
+    private javax.swing.JSpinner dbscanEpsSpinner;
+    private javax.swing.JSpinner dbscanMinPointsSpinner;
+    private javax.swing.JCheckBox dbscanParallelCheckBox;
+    private javax.swing.JToggleButton dbscanToggleButton;
     private javax.swing.JButton fillButton;
+    private javax.swing.JToggleButton gmmToggleButton;
+    private javax.swing.JComboBox<algorithmvisualization.Linkage> hacLinkageComboBox;
+    private javax.swing.JToggleButton hacToggleButton;
     private javax.swing.JSeparator jSeparator1;
     private javax.swing.JSeparator jSeparator2;
     private javax.swing.JSeparator jSeparator3;
     private javax.swing.JSeparator jSeparator4;
     private javax.swing.JSlider jSlider1;
+    private javax.swing.JSpinner kmeansBatchSpinner;
+    private javax.swing.JSpinner kmeansGroupSpinner;
+    private javax.swing.JSpinner kmeansSeedSpinner;
     private javax.swing.JToggleButton kmeansToggleButton;
+    private javax.swing.JSpinner kmedoidsCacheSpinner;
+    private javax.swing.JToggleButton kmedoidsToggleButton;
+    private javax.swing.JCheckBox knnApproximateCheckBox;
+    private javax.swing.JCheckBox knnBulkCheckBox;
+    private javax.swing.JSpinner knnEfSpinner;
+    private javax.swing.JCheckBox knnGraphOverlayCheckBox;
+    private javax.swing.JToggleButton knnGraphToggleButton;
+    private javax.swing.JSpinner knnSpinner;
+    private javax.swing.JToggleButton knnToggleButton;
+    private javax.swing.JSpinner kmeansRestartSpinner;
+    private javax.swing.JComboBox<algorithmvisualization.KMeansSeeding> kmeansSeedingComboBox;
+    private javax.swing.JComboBox<algorithmvisualization.KMeansVariant> kmeansVariantComboBox;
+    private javax.swing.JToggleButton lofToggleButton;
+    private javax.swing.JSpinner lofTopSpinner;
+    private javax.swing.JSpinner meanShiftBandwidthSpinner;
+    private javax.swing.JSpinner meanShiftMinBinSpinner;
+    private javax.swing.JToggleButton meanShiftToggleButton;
+    private javax.swing.JComboBox<algorithmvisualization.Metric> metricComboBox;
     private javax.swing.JButton multipleSelectButton;
+    private javax.swing.JSpinner nearestNeighbourStartSpinner;
     private javax.swing.JToggleButton nearstNeighbourToggleButton;
     private javax.swing.JButton outputButton;
+    private javax.swing.JSpinner parallelismSpinner;
     private javax.swing.JButton pauseButton;
     private javax.swing.JButton playButton;
     private javax.swing.JButton pointButton;
     private javax.swing.JLabel selectModeLabel;
     private javax.swing.JLabel shapesLabel;
+    private javax.swing.JToggleButton spaceFillingCurveToggleButton;
     private javax.swing.JButton singleSelectButton;
     private javax.swing.JSlider speedSlider;
     private javax.swing.JButton stepButton;
     private javax.swing.JButton stopButton;
+    private javax.swing.JCheckBox tourImprovementCheckBox;
     // End of variables declaration//GEN-END:variables
 }